@@ -10,6 +10,11 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
 
     static final long LIMIT_AT_CAPACITY = -1L;
 
+    /**
+     * Makes every get and put of a reference counted buffer check whether it wasn't released already.
+     */
+    static final boolean REFERENCE_COUNT_CHECKS = Boolean.getBoolean("com.codewise.referenceCountChecks");
+
     protected boolean initialized = false;
 
     protected MutableMemory memory;
@@ -17,6 +22,8 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
     protected long position;
     protected long limit = LIMIT_AT_CAPACITY;
 
+    ReferenceCount referenceCount;
+
     protected AbstractByteBuffer() {
     }
 
@@ -28,6 +35,7 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
         this.memory = memory;
         this.baseOffset = 0;
         this.position = 0;
+        this.referenceCount = null;
         this.initialized = true;
     }
 
@@ -110,6 +118,20 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
         return position < limit();
     }
 
+    /**
+     * Makes this buffer a view of {@code size} bytes of given memory starting at {@code baseOffset}.
+     */
+    B viewOf(MutableMemory memory, long baseOffset, long size) {
+        this.memory = memory;
+        this.baseOffset = baseOffset;
+        this.position = 0;
+        this.limit = size;
+        this.referenceCount = null;
+        this.initialized = true;
+
+        return (B) this;
+    }
+
     @Override
     public B sliceOf(ByteBufferBase<?> source) {
         assert source instanceof AbstractByteBuffer;
@@ -119,6 +141,7 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
         this.baseOffset = that.baseOffset + that.position;
         this.position = 0;
         this.limit = that.limit == LIMIT_AT_CAPACITY ? LIMIT_AT_CAPACITY : that.remaining();
+        this.referenceCount = that.referenceCount;
         this.initialized = true;
 
         return (B) this;
@@ -148,6 +171,7 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
         this.baseOffset = that.baseOffset;
         this.limit = that.limit;
         this.position = that.position;
+        this.referenceCount = that.referenceCount;
         this.initialized = true;
 
         return (B) this;
@@ -159,10 +183,24 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
         baseOffset = 0;
         limit = LIMIT_AT_CAPACITY;
         position = 0;
+        // released count is kept, so this buffer still fails reference count checks and further releases
         initialized = false;
         return (B) this;
     }
 
+    @Override
+    public B retain() {
+        if (referenceCount != null) {
+            referenceCount.retain();
+        }
+        return (B) this;
+    }
+
+    @Override
+    public boolean release() {
+        return referenceCount != null && referenceCount.release();
+    }
+
     @Override
     public int compareTo(ByteBufferBase<?> o) {
         if (this == o) {
@@ -218,6 +256,9 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
     }
 
     void getRangeCheck(long index, long size) {
+        if (REFERENCE_COUNT_CHECKS && referenceCount != null) {
+            referenceCount.checkAccessible();
+        }
         assert initialized : "Buffer not initialized";
         assert index >= 0 && size >= 0 : "Index and size must be greater than or equal to zero";
         if (index + size > limit()) {
@@ -226,6 +267,9 @@ abstract class AbstractByteBuffer<B extends ByteBufferBase<B>> implements ByteBu
     }
 
     void putRangeCheck(long index, long size) {
+        if (REFERENCE_COUNT_CHECKS && referenceCount != null) {
+            referenceCount.checkAccessible();
+        }
         assert initialized : "Buffer not initialized";
         assert index >= 0 && size >= 0 : "Index and size must be greater than or equal to zero";
         // check only if limit is not set at memory capacity
@@ -0,0 +1,207 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.MemoryType;
+import com.codewise.util.memory.MutableMemory;
+import com.codewise.util.memory.Preconditions;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Recycles buffers together with their fixed memory. Capacities are rounded up to a power of two, each of them having
+ * its own pool. A thread acquires and releases buffers through its own magazines of up to {@code magazineSize}
+ * buffers and only touches shared, synchronized depot of magazines when a magazine runs empty or full.
+ * <p>
+ * Content of acquired buffer is whatever its previous user left there. A released buffer, as well as its slices and
+ * duplicates, must not be used any more. Only memory of a reference counted buffer is recycled, the released buffer
+ * itself is never handed out again, so its stale references can't release the next owner's buffer. Buffers of
+ * capacity above the largest pooled one are neither pooled nor recycled.
+ */
+public class BufferPool {
+
+    public static final int DEFAULT_MIN_CAPACITY_BITS = 6;
+    public static final int DEFAULT_MAX_CAPACITY_BITS = 20;
+    public static final int DEFAULT_MAGAZINE_SIZE = 32;
+    public static final int DEFAULT_DEPOT_SIZE = 16;
+
+    private final MemoryType memoryType;
+    private final int minCapacityBits;
+    private final int maxCapacityBits;
+    private final int magazineSize;
+
+    private final Depot[] depots;
+    private final ThreadLocal<Magazine[]> magazines;
+    private final Consumer<MutableByteBuffer> releaser = this::release;
+
+    public BufferPool(MemoryType memoryType) {
+        this(memoryType, DEFAULT_MIN_CAPACITY_BITS, DEFAULT_MAX_CAPACITY_BITS, DEFAULT_MAGAZINE_SIZE, DEFAULT_DEPOT_SIZE);
+    }
+
+    public BufferPool(MemoryType memoryType, int minCapacityBits, int maxCapacityBits, int magazineSize, int depotSize) {
+        Preconditions.checkArgument(minCapacityBits >= 0 && maxCapacityBits >= minCapacityBits && maxCapacityBits < Integer.SIZE - 1);
+        Preconditions.checkArgument(magazineSize > 0 && depotSize >= 0);
+
+        this.memoryType = memoryType;
+        this.minCapacityBits = minCapacityBits;
+        this.maxCapacityBits = maxCapacityBits;
+        this.magazineSize = magazineSize;
+
+        depots = new Depot[maxCapacityBits - minCapacityBits + 1];
+        for (int idx = 0; idx < depots.length; idx++) {
+            depots[idx] = new Depot(depotSize);
+        }
+        magazines = ThreadLocal.withInitial(() -> new Magazine[depots.length]);
+    }
+
+    /**
+     * Returns buffer of at least {@code minCapacity} bytes, with position at 0 and limit at capacity.
+     */
+    public MutableByteBuffer acquire(long minCapacity) {
+        Preconditions.checkArgument(minCapacity >= 0);
+        int capacityBits = minCapacity <= 1 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(minCapacity - 1);
+        capacityBits = Math.max(capacityBits, minCapacityBits);
+        if (capacityBits > maxCapacityBits) {
+            return Buffers.allocate(memoryType, minCapacity);
+        }
+
+        int sizeClass = capacityBits - minCapacityBits;
+        Magazine[] threadMagazines = magazines.get();
+        Magazine magazine = magazine(threadMagazines, sizeClass);
+        if (magazine.isEmpty()) {
+            magazine = depots[sizeClass].exchangeEmpty(magazine);
+            threadMagazines[sizeClass] = magazine;
+        }
+        if (magazine.isEmpty()) {
+            return Buffers.allocate(memoryType, 1L << capacityBits);
+        }
+        return magazine.pop();
+    }
+
+    /**
+     * Reference counted variant of {@link #acquire(long)} - the buffer comes back to this pool when its last reference
+     * is released.
+     */
+    public MutableByteBuffer acquireRefCounted(long minCapacity) {
+        return Buffers.refCounted(acquire(minCapacity), releaser);
+    }
+
+    /**
+     * Takes buffer back for reuse. Buffers not acquired from this pool must not be given here.
+     */
+    public void release(MutableByteBuffer buffer) {
+        if (!(buffer instanceof MutableByteBufferImpl)) {
+            throw new IllegalArgumentException();
+        }
+        MutableByteBufferImpl bufImpl = (MutableByteBufferImpl) buffer;
+        long capacity = bufImpl.memory.capacity();
+        int capacityBits = Long.numberOfTrailingZeros(capacity);
+        if (Long.bitCount(capacity) != 1 || capacityBits < minCapacityBits || capacityBits > maxCapacityBits) {
+            return;
+        }
+
+        int sizeClass = capacityBits - minCapacityBits;
+        Magazine[] threadMagazines = magazines.get();
+        Magazine magazine = magazine(threadMagazines, sizeClass);
+        if (magazine.isFull()) {
+            magazine = depots[sizeClass].exchangeFull(magazine);
+            threadMagazines[sizeClass] = magazine;
+        }
+        magazine.push(bufImpl);
+    }
+
+    private Magazine magazine(Magazine[] threadMagazines, int sizeClass) {
+        Magazine magazine = threadMagazines[sizeClass];
+        if (magazine == null) {
+            magazine = new Magazine(magazineSize);
+            threadMagazines[sizeClass] = magazine;
+        }
+        return magazine;
+    }
+
+    /**
+     * Stack of buffers. Their memory is kept next to them, as {@link ByteBufferBase#free()} drops it. Reference counted
+     * buffers keep their released count, so only their memory is kept and a new buffer is made for it when popped.
+     */
+    private static final class Magazine {
+        private final MutableByteBufferImpl[] buffers;
+        private final MutableMemory[] memories;
+        private int size;
+
+        Magazine(int capacity) {
+            buffers = new MutableByteBufferImpl[capacity];
+            memories = new MutableMemory[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean isFull() {
+            return size == buffers.length;
+        }
+
+        void push(MutableByteBufferImpl buffer) {
+            memories[size] = buffer.memory;
+            buffers[size++] = buffer.referenceCount == null ? buffer : null;
+            buffer.free();
+        }
+
+        MutableByteBuffer pop() {
+            MutableByteBufferImpl buffer = buffers[--size];
+            MutableMemory memory = memories[size];
+            buffers[size] = null;
+            memories[size] = null;
+            return buffer != null ? buffer.wrap(memory) : Buffers.wrap(memory);
+        }
+
+        void clear() {
+            Arrays.fill(buffers, null);
+            Arrays.fill(memories, null);
+            size = 0;
+        }
+    }
+
+    private final class Depot {
+        private final Magazine[] full;
+        private final Magazine[] empty;
+        private int fullCount;
+        private int emptyCount;
+
+        Depot(int size) {
+            full = new Magazine[size];
+            empty = new Magazine[size];
+        }
+
+        /**
+         * Swaps given empty magazine for a full one, if there's any.
+         */
+        synchronized Magazine exchangeEmpty(Magazine magazine) {
+            if (fullCount == 0) {
+                return magazine;
+            }
+            if (emptyCount < empty.length) {
+                empty[emptyCount++] = magazine;
+            }
+            Magazine result = full[--fullCount];
+            full[fullCount] = null;
+            return result;
+        }
+
+        /**
+         * Swaps given full magazine for an empty one. When depot is full, buffers in the magazine are dropped instead.
+         */
+        synchronized Magazine exchangeFull(Magazine magazine) {
+            if (fullCount == full.length) {
+                magazine.clear();
+                return magazine;
+            }
+            full[fullCount++] = magazine;
+            if (emptyCount == 0) {
+                return new Magazine(magazineSize);
+            }
+            Magazine result = empty[--emptyCount];
+            empty[emptyCount] = null;
+            return result;
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.codewise.util.buffer;
 
 import com.codewise.util.lowlevel.MemoryAccess;
+import com.codewise.util.memory.AllocationSite;
 import com.codewise.util.memory.BytesWrappingCapableMemory;
 import com.codewise.util.memory.FixedOffHeapByteBufferMemory;
 import com.codewise.util.memory.MemoryType;
 import com.codewise.util.memory.MutableMemory;
+import com.codewise.util.memory.ReleasableMemory;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
 
 public class Buffers {
 
@@ -34,6 +39,25 @@ public class Buffers {
         return new MutableByteBufferImpl(memoryType.allocatePagedMemory(pageCntGrow, pageSizeBits, initialCapacity));
     }
 
+    public static MutableByteBuffer allocateAdaptive(MemoryType memoryType, AllocationSite site, long expectedSize, long maxSize) {
+        return new MutableByteBufferImpl(memoryType.allocateAdaptiveMemory(site, expectedSize, maxSize));
+    }
+
+    public static MutableByteBuffer allocateAdaptive(AllocationSite site, long expectedSize, long maxSize) {
+        return allocateAdaptive(DEFAULT_MEMORY_TYPE, site, expectedSize, maxSize);
+    }
+
+    /**
+     * Buffer of up to {@code maxSize} bytes, starting as big as buffers allocated from the calling line usually
+     * grow and switching from array to pages when it gets large. Finding the calling line takes a stack trace, so
+     * frequent callers should keep their own {@link AllocationSite} instead.
+     */
+    public static MutableByteBuffer allocateAdaptive(long expectedSize, long maxSize) {
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        Object callSite = stack.length > 1 ? stack[1] : Buffers.class;
+        return allocateAdaptive(AllocationSite.of(callSite), expectedSize, maxSize);
+    }
+
     public static MutableByteBuffer allocate(long size) {
         return allocate(DEFAULT_MEMORY_TYPE, size);
     }
@@ -107,6 +131,32 @@ public class Buffers {
         return wrap(DEFAULT_MEMORY_TYPE, bytes, offset, size);
     }
 
+    /**
+     * Buffer sharing content of given heap or direct NIO buffer instead of copying it, with the same position and
+     * limit. Content is accessed big endian, whatever the order of the NIO buffer.
+     *
+     * @throws IllegalArgumentException when NIO buffer is read-only
+     */
+    public static MutableByteBuffer wrap(ByteBuffer buf) {
+        if (buf.isReadOnly()) {
+            throw new IllegalArgumentException("Read-only buffer can't be wrapped");
+        }
+
+        MutableMemory memory;
+        if (buf.isDirect()) {
+            memory = FixedOffHeapByteBufferMemory.wrapDirectBuffer(buf);
+        } else {
+            memory = DEFAULT_MEMORY_TYPE.getByteArrayWrappingFactory().orElseThrow(IllegalArgumentException::new).apply(buf.array());
+            if (buf.arrayOffset() != 0 || buf.capacity() != buf.array().length) {
+                memory = memory.slice(buf.arrayOffset(), buf.capacity());
+            }
+        }
+        MutableByteBuffer result = wrap(memory);
+        result.limit(buf.limit());
+        result.position(buf.position());
+        return result;
+    }
+
     public static MutableByteBuffer wrapUsing(MutableByteBuffer buffer, byte[] bytes, int offset, int size) {
         if (offset < 0 || offset > bytes.length) {
             throw new IllegalArgumentException();
@@ -128,6 +178,35 @@ public class Buffers {
         throw new IllegalArgumentException();
     }
 
+    /**
+     * Makes given buffer reference counted, with a single reference. When the count drops to zero the buffer
+     * is given to {@code deallocator}, e.g. {@link BufferPool#release(MutableByteBuffer)}.
+     */
+    public static MutableByteBuffer refCounted(MutableByteBuffer buffer, Consumer<? super MutableByteBuffer> deallocator) {
+        if (!(buffer instanceof MutableByteBufferImpl)) {
+            throw new IllegalArgumentException();
+        }
+        MutableByteBufferImpl bufImpl = (MutableByteBufferImpl) buffer;
+        bufImpl.referenceCount = new ReferenceCount(buffer, deallocator);
+        return buffer;
+    }
+
+    /**
+     * Makes given buffer reference counted, releasing its memory, if it's {@link ReleasableMemory}, and freeing
+     * the buffer when the count drops to zero.
+     */
+    public static MutableByteBuffer refCounted(MutableByteBuffer buffer) {
+        return refCounted(buffer, Buffers::releaseMemory);
+    }
+
+    private static void releaseMemory(MutableByteBuffer buffer) {
+        MutableMemory memory = ((MutableByteBufferImpl) buffer).memory;
+        if (memory instanceof ReleasableMemory) {
+            ((ReleasableMemory) memory).release();
+        }
+        buffer.free();
+    }
+
     public static MutableByteBuffer newMutable() {
         return new MutableByteBufferImpl();
     }
@@ -54,5 +54,22 @@ public interface ByteBufferBase<B extends ByteBufferBase> extends Comparable<Byt
 
     B free();
 
+    /**
+     * Adds a reference to memory of a reference counted buffer, shared with its slices and duplicates.
+     * No-op for buffers which aren't reference counted.
+     *
+     * @throws IllegalStateException when the memory was already released
+     */
+    B retain();
+
+    /**
+     * Drops a reference added by {@link #retain()} or by creating reference counted buffer. When the last one is
+     * dropped memory is given back and neither this buffer nor its slices and duplicates may be used any more.
+     *
+     * @return whether memory was given back, always false for buffers which aren't reference counted
+     * @throws IllegalStateException when the memory was already released
+     */
+    boolean release();
+
     Supplier<B> uninitializedBufferFactory();
 }
@@ -0,0 +1,36 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.MutableMemory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class ConcurrentMemoryArena extends MemoryArena {
+
+    private final AtomicLong top = new AtomicLong();
+
+    ConcurrentMemoryArena(MutableMemory memory) {
+        super(memory);
+    }
+
+    @Override
+    public long used() {
+        return top.get();
+    }
+
+    @Override
+    public void reset() {
+        top.set(0);
+    }
+
+    @Override
+    protected long claim(long alignedSize) {
+        long offset;
+        do {
+            offset = top.get();
+            if (alignedSize > capacity - offset) {
+                return -1;
+            }
+        } while (!top.compareAndSet(offset, offset + alignedSize));
+        return offset;
+    }
+}
@@ -0,0 +1,78 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.MutableMemory;
+
+import java.nio.BufferOverflowException;
+
+/**
+ * Hands out consecutive slices of a single {@link MutableMemory} by bumping a pointer. Slices aren't freed one by one -
+ * {@link #reset()} makes the whole memory available again, after which buffers allocated before must not be used.
+ * <p>
+ * Slices are {@link #ALIGNMENT} aligned relative to the start of the memory. A slice is limited to its size, its
+ * limit must not be moved past it - e.g. with {@link ByteBufferBase#clear()} - as that exposes following slices.
+ */
+public abstract class MemoryArena {
+
+    public static final int ALIGNMENT = Long.BYTES;
+
+    protected final MutableMemory memory;
+    protected final long capacity;
+
+    protected MemoryArena(MutableMemory memory) {
+        this.memory = memory;
+        this.capacity = memory.capacity();
+    }
+
+    /**
+     * Arena to be used by a single thread at a time.
+     */
+    public static MemoryArena threadConfined(MutableMemory memory) {
+        return new ThreadConfinedMemoryArena(memory);
+    }
+
+    /**
+     * Arena allocating from many threads concurrently. {@link #reset()} still needs all of them to be done with it.
+     */
+    public static MemoryArena concurrent(MutableMemory memory) {
+        return new ConcurrentMemoryArena(memory);
+    }
+
+    public MutableByteBuffer allocate(long size) {
+        return allocateUsing(new MutableByteBufferImpl(), size);
+    }
+
+    /**
+     * Points given buffer at a newly allocated slice instead of creating a new buffer.
+     */
+    public MutableByteBuffer allocateUsing(MutableByteBuffer buffer, long size) {
+        if (size < 0 || !(buffer instanceof MutableByteBufferImpl)) {
+            throw new IllegalArgumentException();
+        }
+        long offset = claim(alignedSize(size));
+        if (offset < 0) {
+            throw new BufferOverflowException();
+        }
+        return ((MutableByteBufferImpl) buffer).viewOf(memory, offset, size);
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public long remaining() {
+        return capacity - used();
+    }
+
+    public abstract long used();
+
+    public abstract void reset();
+
+    /**
+     * Returns offset of {@code alignedSize} bytes reserved for the caller, or -1 if they don't fit.
+     */
+    protected abstract long claim(long alignedSize);
+
+    private static long alignedSize(long size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
@@ -41,7 +41,7 @@ class MutableByteBufferBasedMemoryView implements MutableMemory {
 
     @Override
     public void putDouble(long index, double value) {
-        putDouble(index, value);
+        delegate.putDouble(index, value);
     }
 
     @Override
@@ -110,6 +110,11 @@ class MutableByteBufferBasedMemoryView implements MutableMemory {
         return delegate.compare(index, that, offset, length);
     }
 
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        return delegate.asNioByteBuffers(index, length);
+    }
+
     @Override
     public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
         delegate.iterateOverMemory(consumerInstance, consumerMethod, offset, length);
@@ -129,9 +129,17 @@ class MutableByteBufferImpl extends ReadOnlyByteBufferImpl<MutableByteBuffer> im
         return this;
     }
 
+    /**
+     * Memory starting at base offset of this buffer. With limit at capacity writes may grow memory, so it's a view
+     * going through this buffer. Otherwise it's a slice of memory up to the limit, which can't be written past as
+     * this buffer.
+     */
     @Override
     public MutableMemory getMemory() {
-        return baseOffset == 0 ? memory : new MutableByteBufferBasedMemoryView(this);
+        if (baseOffset == 0) {
+            return memory;
+        }
+        return isLimitAtCapacity() ? new MutableByteBufferBasedMemoryView(this) : memory.slice(baseOffset, limit());
     }
 
     @Override
@@ -140,6 +140,15 @@ class ReadOnlyByteBufferImpl<B extends ReadOnlyByteBuffer<B>> extends AbstractBy
         return memory.compare(getOffset(index), that, offset, length);
     }
 
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        if (index + length > capacity()) {
+            throw new IllegalArgumentException();
+        }
+
+        return memory.asNioByteBuffers(getOffset(index), length);
+    }
+
     @Override
     public Supplier<B> uninitializedBufferFactory() {
         //noinspection unchecked
@@ -272,6 +281,15 @@ class ReadOnlyMemoryAdapter implements MutableMemory {
         return delegate.compare(index, that, offset, length);
     }
 
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        ByteBuffer[] views = delegate.asNioByteBuffers(index, length);
+        for (int idx = 0; idx < views.length; idx++) {
+            views[idx] = views[idx].asReadOnlyBuffer();
+        }
+        return views;
+    }
+
     @Override
     public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
         delegate.iterateOverMemory(consumerInstance, consumerMethod, offset, length);
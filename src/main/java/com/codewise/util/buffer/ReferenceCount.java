@@ -0,0 +1,59 @@
+package com.codewise.util.buffer;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Consumer;
+
+/**
+ * Count of references to memory shared by a buffer, its slices and duplicates. When it drops to zero the buffer
+ * the count was created for is given to the deallocator.
+ */
+final class ReferenceCount {
+
+    private static final AtomicIntegerFieldUpdater<ReferenceCount> COUNT = AtomicIntegerFieldUpdater.newUpdater(ReferenceCount.class, "count");
+
+    private final MutableByteBuffer buffer;
+    private final Consumer<? super MutableByteBuffer> deallocator;
+
+    private volatile int count = 1;
+
+    ReferenceCount(MutableByteBuffer buffer, Consumer<? super MutableByteBuffer> deallocator) {
+        this.buffer = buffer;
+        this.deallocator = deallocator;
+    }
+
+    int count() {
+        return count;
+    }
+
+    void retain() {
+        int current;
+        do {
+            current = count;
+            if (current <= 0) {
+                throw new IllegalStateException("Buffer already released");
+            }
+        } while (!COUNT.compareAndSet(this, current, current + 1));
+    }
+
+    boolean release() {
+        int current;
+        do {
+            current = count;
+            if (current <= 0) {
+                throw new IllegalStateException("Buffer already released");
+            }
+        } while (!COUNT.compareAndSet(this, current, current - 1));
+
+        if (current == 1) {
+            deallocator.accept(buffer);
+            return true;
+        }
+        return false;
+    }
+
+    void checkAccessible() {
+        if (count <= 0) {
+            throw new IllegalStateException("Buffer used after release");
+        }
+    }
+}
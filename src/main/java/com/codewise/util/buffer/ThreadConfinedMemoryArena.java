@@ -0,0 +1,32 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.MutableMemory;
+
+class ThreadConfinedMemoryArena extends MemoryArena {
+
+    private long top;
+
+    ThreadConfinedMemoryArena(MutableMemory memory) {
+        super(memory);
+    }
+
+    @Override
+    public long used() {
+        return top;
+    }
+
+    @Override
+    public void reset() {
+        top = 0;
+    }
+
+    @Override
+    protected long claim(long alignedSize) {
+        long offset = top;
+        if (alignedSize > capacity - offset) {
+            return -1;
+        }
+        top = offset + alignedSize;
+        return offset;
+    }
+}
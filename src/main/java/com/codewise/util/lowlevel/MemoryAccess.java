@@ -3,8 +3,15 @@ package com.codewise.util.lowlevel;
 import sun.misc.Unsafe;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+/**
+ * Raw memory access through {@code Unsafe}. On Java 9+ the multi-release jar replaces this class with one accessing
+ * heap arrays through {@code VarHandle}s, so offsets should always be computed from the constants below.
+ */
 public final class MemoryAccess {
 
     public static final boolean RANGE_CHECKS = !Boolean.getBoolean("com.codewise.disableRangeChecks");
@@ -26,9 +33,29 @@ public final class MemoryAccess {
         UNSAFE = unsafe;
     }
 
+    private static final ByteBuffer DIRECT_BUFFER_TEMPLATE = ByteBuffer.allocateDirect(0);
+    private static final long BUFFER_ADDRESS_OFFSET = fieldOffset(Buffer.class, "address");
+    private static final long BUFFER_CAPACITY_OFFSET = fieldOffset(Buffer.class, "capacity");
+    private static final long DIRECT_BUFFER_ATTACHMENT_OFFSET = fieldOffset(DIRECT_BUFFER_TEMPLATE.getClass(), "att");
+
+    // Java 9+ only, Java 8 has to go through DirectBuffer.cleaner()
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Method invokeCleaner;
+        try {
+            invokeCleaner = Unsafe.class.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (NoSuchMethodException e) {
+            invokeCleaner = null;
+        }
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
     public static final long ARRAY_OBJECT_BASE_OFFSET = Unsafe.ARRAY_OBJECT_BASE_OFFSET;
     public static final long ARRAY_OBJECT_INDEX_SCALE = Unsafe.ARRAY_OBJECT_INDEX_SCALE;
     public static final long ARRAY_BYTE_BASE_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+    public static final long ARRAY_LONG_BASE_OFFSET = Unsafe.ARRAY_LONG_BASE_OFFSET;
+    public static final long ARRAY_LONG_INDEX_SCALE = Unsafe.ARRAY_LONG_INDEX_SCALE;
 
     //---------------------
     //-- byte
@@ -378,4 +405,75 @@ public final class MemoryAccess {
     public static void copyMemorySafe(byte[] mem1, int index1, byte[] mem2, int index2, int length) {
         System.arraycopy(mem1, index1, mem2, index2, length);
     }
+
+    // --------------------
+    // -- native memory
+
+    public static long allocateMemoryUnsafe(long size) {
+        return UNSAFE.allocateMemory(size);
+    }
+
+    public static long reallocateMemoryUnsafe(long address, long size) {
+        return UNSAFE.reallocateMemory(address, size);
+    }
+
+    public static void freeMemoryUnsafe(long address) {
+        UNSAFE.freeMemory(address);
+    }
+
+    public static void setMemoryUnsafe(long address, long length, byte value) {
+        UNSAFE.setMemory(address, length, value);
+    }
+
+    // --------------------
+    // -- direct buffers
+
+    public static long getDirectBufferAddressUnsafe(ByteBuffer directBuffer) {
+        return UNSAFE.getLong(directBuffer, BUFFER_ADDRESS_OFFSET);
+    }
+
+    /**
+     * Direct byte buffer over given off-heap memory, which it doesn't own - the memory isn't freed with the buffer.
+     * Buffer keeps {@code attachment}, e.g. owner of the memory, reachable.
+     */
+    public static ByteBuffer newDirectByteBufferUnsafe(long address, int capacity, Object attachment) {
+        ByteBuffer buffer = DIRECT_BUFFER_TEMPLATE.duplicate();
+        UNSAFE.putLong(buffer, BUFFER_ADDRESS_OFFSET, address);
+        UNSAFE.putInt(buffer, BUFFER_CAPACITY_OFFSET, capacity);
+        if (attachment != null && DIRECT_BUFFER_ATTACHMENT_OFFSET >= 0) {
+            UNSAFE.putObject(buffer, DIRECT_BUFFER_ATTACHMENT_OFFSET, attachment);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Frees memory of a direct (or unmaps a mapped) byte buffer without waiting for GC. Buffer must not be used afterwards.
+     */
+    public static void invokeCleanerUnsafe(ByteBuffer directBuffer) {
+        try {
+            if (INVOKE_CLEANER != null) {
+                INVOKE_CLEANER.invoke(UNSAFE, directBuffer);
+            } else {
+                Method cleanerMethod = directBuffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(directBuffer);
+                if (cleaner != null) {
+                    Method cleanMethod = cleaner.getClass().getMethod("clean");
+                    cleanMethod.setAccessible(true);
+                    cleanMethod.invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to free direct buffer", e);
+        }
+    }
+
+    private static long fieldOffset(Class<?> type, String name) {
+        try {
+            return UNSAFE.objectFieldOffset(type.getDeclaredField(name));
+        } catch (NoSuchFieldException e) {
+            return -1;
+        }
+    }
 }
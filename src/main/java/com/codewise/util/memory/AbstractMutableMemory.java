@@ -5,6 +5,8 @@ import com.codewise.util.lowlevel.MemoryAccess;
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.lang.Double.doubleToRawLongBits;
 import static java.lang.Double.longBitsToDouble;
@@ -13,11 +15,77 @@ public abstract class AbstractMutableMemory implements MutableMemory {
 
     protected long capacity;
 
+    private MemoryBudget budget;
+    private BudgetReservation reservation;
+
+    /**
+     * Memory charged, if at all, to the budget current when it first allocates. Slices and wrapped arrays, which
+     * never do, don't look up the budget.
+     */
+    protected AbstractMutableMemory() {
+    }
+
+    /**
+     * Memory charged to given budget, for memory allocating only after it's been created, e.g. on first write.
+     */
+    protected AbstractMutableMemory(MemoryBudget budget) {
+        this.budget = budget;
+    }
+
     @Override
     public long capacity() {
         return capacity;
     }
 
+    /**
+     * Budget this memory is charged to.
+     */
+    protected MemoryBudget budget() {
+        if (budget == null) {
+            budget = MemoryBudget.current();
+        }
+        return budget;
+    }
+
+    /**
+     * Reserves bytes about to be allocated from the budget of this memory.
+     *
+     * @throws MemoryBudgetExceededException when the budget can't fit them
+     */
+    protected void chargeBudget(long bytes) {
+        if (!budget().isUnbounded()) {
+            if (reservation == null) {
+                reservation = new BudgetReservation(this, budget);
+            }
+            reservation.reserve(bytes);
+        }
+    }
+
+    /**
+     * Reserves or gives back as much as it takes for this memory to be charged {@code bytes} in total, e.g. when
+     * replacing its array with one of that size. Memory wrapping an array it didn't allocate isn't charged for it,
+     * so its first own array is charged in full.
+     *
+     * @throws MemoryBudgetExceededException when the budget can't fit them
+     */
+    protected void chargeBudgetInTotal(long bytes) {
+        long charged = reservation == null ? 0 : reservation.bytes();
+        if (bytes > charged) {
+            chargeBudget(bytes - charged);
+        } else {
+            refundBudget(charged - bytes);
+        }
+    }
+
+    /**
+     * Gives bytes no longer used back to the budget of this memory.
+     */
+    protected void refundBudget(long bytes) {
+        if (reservation != null) {
+            reservation.release(bytes);
+        }
+    }
+
     @Override
     public double getDouble(long index) {
         return longBitsToDouble(getLong(index));
@@ -71,7 +139,7 @@ public abstract class AbstractMutableMemory implements MutableMemory {
     @Override
     public void put(long index, byte[] src, int offset, int length) {
         if (length > 0) {
-            ensureCapacity(index + length);
+            ensureWritable(index, length);
             while (length > 0) {
                 byte[] dstPage = this.getMemoryPageAsByteArray(index);
                 int dstPageLength = this.getPageLength(index);
@@ -92,7 +160,7 @@ public abstract class AbstractMutableMemory implements MutableMemory {
         assert src instanceof AbstractMutableMemory;
 
         if (length > 0) {
-            ensureCapacity(index + length);
+            ensureWritable(index, length);
 
             AbstractMutableMemory that = (AbstractMutableMemory) src;
             that.checkCapacity(offset + length);
@@ -202,6 +270,27 @@ public abstract class AbstractMutableMemory implements MutableMemory {
         }
     }
 
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        Preconditions.checkArgument(length >= 0);
+        checkCapacity(index + length);
+        List<ByteBuffer> views = new ArrayList<>();
+        while (length > 0) {
+            byte[] page = getMemoryPageAsByteArray(index);
+            int pageOffset = getPageOffset(index);
+            int viewLength = Math.toIntExact(Math.min(getPageLength(index) - pageOffset, length));
+            views.add(ByteBuffer.wrap(page, pageOffset, viewLength).slice());
+            index += viewLength;
+            length -= viewLength;
+        }
+        return views.toArray(new ByteBuffer[0]);
+    }
+
+    @Override
+    public MutableMemory slice(long offset, long length) {
+        return new HeapMemorySlice(this, offset, length);
+    }
+
     protected int getPageOffset(long index) {
         return (int) index;
     }
@@ -224,4 +313,11 @@ public abstract class AbstractMutableMemory implements MutableMemory {
         }
     }
 
+    /**
+     * Makes {@code length} bytes starting at {@code index} ready to be written.
+     */
+    protected void ensureWritable(long index, long length) {
+        ensureCapacity(index + length);
+    }
+
 }
\ No newline at end of file
@@ -2,7 +2,24 @@ package com.codewise.util.memory;
 
 import com.codewise.util.lowlevel.MemoryAccess;
 
-public abstract class AbstractPagedMutableMemory extends AbstractMutableMemory {
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+
+/**
+ * Memory made of equally sized heap pages. Pages are taken from a {@link PagePool} - the shared one by default -
+ * and given back by {@link #release()} or {@link #reset()}.
+ * <p>
+ * In sparse mode growing capacity only extends the page table, pointing it at the pool's shared zero page.
+ * A page is materialized when first written to, so memory use follows the data written, not the capacity.
+ * <p>
+ * {@link #trimToSize(long)} and {@link #truncate(long)} give pages beyond the new size back to the pool.
+ * <p>
+ * {@link #snapshot()} returns a read-only view sharing all the pages. Each page remembers the generation it was
+ * created in and a snapshot starts a new generation, so a page older than the current generation may be seen by
+ * a snapshot and is copied on its first write. Shared pages are left to GC instead of going back to the pool.
+ */
+public abstract class AbstractPagedMutableMemory extends AbstractMutableMemory implements ReleasableMemory, ResizableMemory {
 
     protected final int pageCntGrowMask;
     protected final int pageSizeBits;
@@ -17,8 +34,27 @@ public abstract class AbstractPagedMutableMemory extends AbstractMutableMemory {
     protected int pageCount;
     protected int pageCapacity;
 
+    protected final PagePool pagePool;
+    protected final boolean sparse;
+    private final byte[] zeroPage;
+    protected int materializedPages;
+
+    private final boolean readOnly;
+    private int generation;
+    private int[] pageGenerations;
+
     protected AbstractPagedMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+        this(pageCntGrow, pageSizeBits, initialCapacity, PagePool.shared(pageSizeBits), false);
+    }
+
+    protected AbstractPagedMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity, PagePool pagePool, boolean sparse) {
+        super(MemoryBudget.current());
         Preconditions.checkArgument(isPositiveAndPowerOf2(pageCntGrow));
+        Preconditions.checkArgument(pagePool.pageSize() == 1 << pageSizeBits);
+
+        this.pagePool = pagePool;
+        this.sparse = sparse;
+        this.zeroPage = pagePool.zeroPage();
 
         pageCntGrowMask = pageCntGrow - 1;
 
@@ -34,10 +70,34 @@ public abstract class AbstractPagedMutableMemory extends AbstractMutableMemory {
         pageCapacity = ((pageCount - 1) | pageCntGrowMask) + 1;
         byte[][] pages = new byte[pageCapacity][];
         for (int idx = 0; idx < pageCount; idx++) {
-            pages[idx] = new byte[pageSize];
+            pages[idx] = newPage();
         }
 
         memory = pages;
+        readOnly = false;
+    }
+
+    /**
+     * Read-only snapshot of given memory, sharing its pages.
+     */
+    protected AbstractPagedMutableMemory(AbstractPagedMutableMemory source) {
+        pagePool = source.pagePool;
+        sparse = source.sparse;
+        zeroPage = source.zeroPage;
+        materializedPages = source.materializedPages;
+
+        pageCntGrowMask = source.pageCntGrowMask;
+        pageSizeBits = source.pageSizeBits;
+        pageSize = source.pageSize;
+        pageAddrMask = source.pageAddrMask;
+        maxPageOffset = source.maxPageOffset;
+        lastPageOffset = source.lastPageOffset;
+
+        capacity = source.capacity;
+        pageCount = source.pageCount;
+        pageCapacity = source.pageCount;
+        memory = Arrays.copyOf(source.memory, source.pageCount);
+        readOnly = true;
     }
 
     protected AbstractPagedMutableMemory() {
@@ -60,6 +120,9 @@ public abstract class AbstractPagedMutableMemory extends AbstractMutableMemory {
 
     @Override
     protected void ensureCapacity(long requiredCapacity) {
+        if (readOnly) {
+            throw new ReadOnlyBufferException();
+        }
         if (requiredCapacity > capacity) {
             requiredCapacity = ((requiredCapacity - 1L) | pageAddrMask) + 1L;
             int requiredPageCount = Math.toIntExact(requiredCapacity >>> pageSizeBits);
@@ -69,14 +132,192 @@ public abstract class AbstractPagedMutableMemory extends AbstractMutableMemory {
                 System.arraycopy(memory, 0, newPages, 0, pageCount);
                 memory = newPages;
                 pageCapacity = requiredPageCapacity;
+                if (pageGenerations != null) {
+                    pageGenerations = Arrays.copyOf(pageGenerations, requiredPageCapacity);
+                }
             }
             while (pageCount < requiredPageCount) {
-                memory[pageCount++] = new byte[pageSize];
+                if (pageGenerations != null) {
+                    pageGenerations[pageCount] = generation;
+                }
+                memory[pageCount++] = newPage();
             }
             capacity = requiredCapacity;
         }
     }
 
+    @Override
+    protected void ensureWritable(long index, long length) {
+        ensureCapacity(index + length);
+        if (sparse || pageGenerations != null) {
+            int lastPage = Math.toIntExact((index + length - 1) >>> pageSizeBits);
+            for (int idx = (int) (index >>> pageSizeBits); idx <= lastPage; idx++) {
+                if (memory[idx] == zeroPage) {
+                    memory[idx] = takePage();
+                    materializedPages++;
+                    if (pageGenerations != null) {
+                        pageGenerations[idx] = generation;
+                    }
+                } else if (isShared(idx)) {
+                    // the copy takes over the budget charged for the page left to snapshots
+                    byte[] page = pagePool.take();
+                    System.arraycopy(memory[idx], 0, page, 0, pageSize);
+                    memory[idx] = page;
+                    pageGenerations[idx] = generation;
+                }
+            }
+        }
+    }
+
+    /**
+     * Views of the zero page and of pages shared with snapshots are read-only, as writing them would bypass
+     * copy-on-write.
+     */
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        ByteBuffer[] views = super.asNioByteBuffers(index, length);
+        if (sparse || readOnly || pageGenerations != null) {
+            int firstPage = (int) (index >>> pageSizeBits);
+            for (int idx = 0; idx < views.length; idx++) {
+                int pageIndex = firstPage + idx;
+                if (memory[pageIndex] == zeroPage || isShared(pageIndex)) {
+                    views[idx] = views[idx].asReadOnlyBuffer();
+                }
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Read-only view of current content, sharing pages with this memory. Taking it copies the page table only,
+     * later writes to this memory copy each page they touch first and are not visible in the snapshot.
+     *
+     * @throws UnsupportedOperationException for memory which can't share its pages, e.g. {@link TieredPagedMutableMemory}
+     */
+    public ReadOnlyMemory snapshot() {
+        if (readOnly) {
+            return this;
+        }
+        if (pageGenerations == null) {
+            pageGenerations = new int[pageCapacity];
+        }
+        generation++;
+        return newSnapshot();
+    }
+
+    /**
+     * Creates read-only memory of the same kind, sharing pages with this one.
+     */
+    protected abstract AbstractPagedMutableMemory newSnapshot();
+
+    private boolean isShared(int pageIndex) {
+        return readOnly || pageGenerations != null && pageGenerations[pageIndex] != generation;
+    }
+
+    /**
+     * Takes a page from the pool, charging it to the budget of this memory.
+     */
+    protected byte[] takePage() {
+        chargeBudget(pageSize);
+        return pagePool.take();
+    }
+
+    /**
+     * Gives page back to the pool, unless it's the zero page or may be seen by a snapshot.
+     */
+    private void givePage(int pageIndex) {
+        if (memory[pageIndex] != zeroPage && !readOnly) {
+            refundBudget(pageSize);
+            if (!isShared(pageIndex)) {
+                pagePool.give(memory[pageIndex]);
+            }
+        }
+    }
+
+    /**
+     * Grows to {@code capacity} rounded up to page size, extending the page table once for all the new pages.
+     */
+    @Override
+    public void reserve(long capacity) {
+        ensureCapacity(capacity);
+    }
+
+    @Override
+    public void trimToSize(long size) {
+        Preconditions.checkArgument(size >= 0);
+        if (readOnly) {
+            throw new ReadOnlyBufferException();
+        }
+        int newPageCount = Math.toIntExact((size + pageAddrMask) >>> pageSizeBits);
+        if (newPageCount >= pageCount) {
+            return;
+        }
+        for (int idx = newPageCount; idx < pageCount; idx++) {
+            if (sparse && memory[idx] != zeroPage) {
+                materializedPages--;
+            }
+            givePage(idx);
+        }
+        int newPageCapacity = newPageCount > 0 ? ((newPageCount - 1) | pageCntGrowMask) + 1 : 0;
+        if (newPageCapacity < pageCapacity) {
+            memory = Arrays.copyOf(memory, newPageCapacity);
+            pageCapacity = newPageCapacity;
+            if (pageGenerations != null) {
+                pageGenerations = Arrays.copyOf(pageGenerations, newPageCapacity);
+            }
+        } else {
+            Arrays.fill(memory, newPageCount, pageCount, null);
+        }
+        pageCount = newPageCount;
+        capacity = (long) newPageCount << pageSizeBits;
+    }
+
+    @Override
+    public void truncate(long size) {
+        trimToSize(size);
+        if (size < capacity && memory[pageCount - 1] != zeroPage) {
+            int pageOffset = getPageOffset(size);
+            ensureWritable(size, pageSize - pageOffset);
+            Arrays.fill(memory[pageCount - 1], pageOffset, pageSize, (byte) 0);
+        }
+    }
+
+    /**
+     * Bytes in pages actually allocated - in sparse mode only the pages written to so far.
+     */
+    public long materializedBytes() {
+        return sparse ? (long) materializedPages << pageSizeBits : capacity;
+    }
+
+    private byte[] newPage() {
+        return sparse ? zeroPage : takePage();
+    }
+
+    /**
+     * Gives all pages back to the pool and drops the page table. Memory is empty afterwards, but can grow again.
+     * A snapshot only drops its page table.
+     */
+    @Override
+    public void release() {
+        reset();
+        memory = new byte[0][];
+        pageCapacity = 0;
+        pageGenerations = null;
+    }
+
+    /**
+     * Gives all pages back to the pool, keeping the page table for the memory to grow again.
+     */
+    public void reset() {
+        for (int idx = 0; idx < pageCount; idx++) {
+            givePage(idx);
+        }
+        Arrays.fill(memory, 0, pageCount, null);
+        pageCount = 0;
+        materializedPages = 0;
+        capacity = 0;
+    }
+
     public static boolean isPositiveAndPowerOf2(int x) {
         return (x > 0) && ((x & (x - 1)) == 0);
     }
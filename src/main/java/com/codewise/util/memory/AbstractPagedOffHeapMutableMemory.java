@@ -0,0 +1,393 @@
+package com.codewise.util.memory;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.codewise.util.lowlevel.MemoryAccess.*;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+
+/**
+ * Paged memory keeping its pages in native memory - however large it grows, GC only sees a single {@code long[]}
+ * table of page addresses. Growing allocates new pages only, content is never copied. Trimming frees pages beyond
+ * the new size right away.
+ */
+public abstract class AbstractPagedOffHeapMutableMemory implements ReleasableMemory, ResizableMemory {
+
+    public static final int ARRAY_LONG_INDEX_SCALE_BITS = Long.numberOfTrailingZeros(ARRAY_LONG_INDEX_SCALE);
+
+    protected final int pageCntGrowMask;
+    protected final int pageSizeBits;
+    protected final int pageSize;
+    protected final long pageAddrMask;
+
+    private final long pageIndexMask;
+    private final int pageIndexScaleBits;
+
+    protected long[] memory = new long[0];
+
+    protected int pageCount;
+    protected int pageCapacity;
+    protected long capacity;
+
+    private NativePages ownedPages;
+
+    protected AbstractPagedOffHeapMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+        Preconditions.checkArgument(AbstractPagedMutableMemory.isPositiveAndPowerOf2(pageCntGrow));
+        Preconditions.checkArgument(pageSizeBits >= ARRAY_LONG_INDEX_SCALE_BITS && pageSizeBits < Integer.SIZE - 1);
+
+        pageCntGrowMask = pageCntGrow - 1;
+
+        this.pageSizeBits = pageSizeBits;
+        pageSize = 1 << pageSizeBits;
+        pageAddrMask = pageSize - 1;
+
+        pageIndexMask = ~pageAddrMask;
+        pageIndexScaleBits = pageSizeBits - ARRAY_LONG_INDEX_SCALE_BITS;
+
+        ownedPages = new NativePages(this, pageSize);
+        if (initialCapacity > 0) {
+            allocatePages(initialCapacity);
+        }
+    }
+
+    /**
+     * Memory over pages owned by someone else - it can't grow and {@link #release()} only forgets the pages.
+     */
+    protected AbstractPagedOffHeapMutableMemory(int pageSizeBits, long[] pages, long capacity) {
+        Preconditions.checkArgument(pageSizeBits >= ARRAY_LONG_INDEX_SCALE_BITS && pageSizeBits < Integer.SIZE - 1);
+        Preconditions.checkArgument(capacity <= (long) pages.length << pageSizeBits);
+
+        pageCntGrowMask = 0;
+
+        this.pageSizeBits = pageSizeBits;
+        pageSize = 1 << pageSizeBits;
+        pageAddrMask = pageSize - 1;
+
+        pageIndexMask = ~pageAddrMask;
+        pageIndexScaleBits = pageSizeBits - ARRAY_LONG_INDEX_SCALE_BITS;
+
+        memory = pages;
+        pageCount = pages.length;
+        pageCapacity = pages.length;
+        this.capacity = capacity;
+    }
+
+    protected AbstractPagedOffHeapMutableMemory() {
+        this(64, 10, 0);
+    }
+
+    protected AbstractPagedOffHeapMutableMemory(long size) {
+        this(64, 10, size);
+    }
+
+    @Override
+    public long capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void release() {
+        if (ownedPages != null) {
+            ownedPages.free();
+            ownedPages = new NativePages(this, pageSize, ownedPages.budget());
+        }
+        memory = new long[0];
+        pageCount = 0;
+        pageCapacity = 0;
+        capacity = 0;
+    }
+
+    /**
+     * Grows to {@code capacity} rounded up to page size, extending the page table once for all the new pages.
+     */
+    @Override
+    public void reserve(long capacity) {
+        ensureCapacity(capacity);
+    }
+
+    /**
+     * @throws UnsupportedOperationException for memory over pages owned by someone else
+     */
+    @Override
+    public void trimToSize(long size) {
+        Preconditions.checkArgument(size >= 0);
+        if (ownedPages == null) {
+            throw new UnsupportedOperationException();
+        }
+        int newPageCount = Math.toIntExact((size + pageAddrMask) >>> pageSizeBits);
+        if (newPageCount >= pageCount) {
+            return;
+        }
+        ownedPages.freePages(newPageCount);
+        int newPageCapacity = newPageCount > 0 ? ((newPageCount - 1) | pageCntGrowMask) + 1 : 0;
+        if (newPageCapacity < pageCapacity) {
+            memory = Arrays.copyOf(memory, newPageCapacity);
+            pageCapacity = newPageCapacity;
+        }
+        pageCount = newPageCount;
+        ownedPages.track(memory, pageCount);
+        capacity = (long) newPageCount << pageSizeBits;
+    }
+
+    /**
+     * @throws UnsupportedOperationException for memory over pages owned by someone else
+     */
+    @Override
+    public void truncate(long size) {
+        trimToSize(size);
+        if (size < capacity) {
+            setMemoryUnsafe(address(size), contiguousBytes(size), (byte) 0);
+        }
+    }
+
+    private long toScaledMemoryPageIndex(long index) {
+        return (index & pageIndexMask) >>> pageIndexScaleBits;
+    }
+
+    protected long pageAddress(long index) {
+        return getNativeByteOrderLongUnsafe(memory, ARRAY_LONG_BASE_OFFSET + toScaledMemoryPageIndex(index));
+    }
+
+    protected long address(long index) {
+        return pageAddress(index) + (index & pageAddrMask);
+    }
+
+    protected int contiguousBytes(long index) {
+        return pageSize - (int) (index & pageAddrMask);
+    }
+
+    /**
+     * Writes {@code size} lowest bytes of given value, most significant first, when they span two pages.
+     */
+    protected void putAcrossPages(long index, long bigEndianBytes, int size) {
+        long address = address(index);
+        int bytesOnFirstPage = contiguousBytes(index);
+        for (int idx = 0; idx < size; idx++) {
+            if (idx == bytesOnFirstPage) {
+                address = pageAddress(index + idx);
+            }
+            setByteUnsafe(null, address++, (byte) (bigEndianBytes >>> ((size - 1 - idx) << 3)));
+        }
+    }
+
+    @Override
+    public double getDouble(long index) {
+        return longBitsToDouble(getLong(index));
+    }
+
+    @Override
+    public void putDouble(long index, double value) {
+        putLong(index, doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void get(long index, byte[] dst, int offset, int length) {
+        if (length > 0) {
+            checkCapacity(index + 1);
+            length = Math.toIntExact(Math.min(capacity - index, length));
+            while (length > 0) {
+                int bytesToCopy = Math.min(contiguousBytes(index), length);
+                copyMemoryUnsafe(null, address(index), dst, ARRAY_BYTE_BASE_OFFSET + offset, bytesToCopy);
+                index += bytesToCopy;
+                offset += bytesToCopy;
+                length -= bytesToCopy;
+            }
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public void get(long index, ByteBuffer buf) {
+        int length = buf.remaining();
+        if (length > 0) {
+            checkCapacity(index + 1);
+            length = Math.toIntExact(Math.min(capacity - index, length));
+            while (length > 0) {
+                int bytesToCopy = Math.min(contiguousBytes(index), length);
+                if (buf.isDirect()) {
+                    copyMemoryUnsafe(address(index), getDirectBufferAddressUnsafe(buf) + buf.position(), bytesToCopy);
+                } else {
+                    copyMemoryUnsafe(null, address(index), buf.array(), ARRAY_BYTE_BASE_OFFSET + buf.arrayOffset() + buf.position(), bytesToCopy);
+                }
+                buf.position(buf.position() + bytesToCopy);
+                index += bytesToCopy;
+                length -= bytesToCopy;
+            }
+        }
+    }
+
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        Preconditions.checkArgument(length >= 0);
+        checkCapacity(index + length);
+        List<ByteBuffer> views = new ArrayList<>();
+        while (length > 0) {
+            int viewLength = (int) Math.min(contiguousBytes(index), length);
+            views.add(newDirectByteBufferUnsafe(address(index), viewLength, this));
+            index += viewLength;
+            length -= viewLength;
+        }
+        return views.toArray(new ByteBuffer[0]);
+    }
+
+    @Override
+    public void put(long index, byte[] src, int offset, int length) {
+        if (length > 0) {
+            ensureCapacity(index + length);
+            while (length > 0) {
+                int bytesToCopy = Math.min(contiguousBytes(index), length);
+                copyMemoryUnsafe(src, ARRAY_BYTE_BASE_OFFSET + offset, null, address(index), bytesToCopy);
+                index += bytesToCopy;
+                offset += bytesToCopy;
+                length -= bytesToCopy;
+            }
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public void put(long index, ReadOnlyMemory src, long offset, long length) {
+        if (length > 0) {
+            ensureCapacity(index + length);
+            if (src instanceof OffHeapMutableMemory) {
+                long srcAddress = ((OffHeapMutableMemory) src).addressOffset() + offset;
+                while (length > 0) {
+                    long bytesToCopy = Math.min(contiguousBytes(index), length);
+                    copyMemoryUnsafe(srcAddress, address(index), bytesToCopy);
+                    srcAddress += bytesToCopy;
+                    index += bytesToCopy;
+                    length -= bytesToCopy;
+                }
+            } else if (src instanceof AbstractPagedOffHeapMutableMemory) {
+                AbstractPagedOffHeapMutableMemory that = (AbstractPagedOffHeapMutableMemory) src;
+                that.checkCapacity(offset + length);
+                while (length > 0) {
+                    long bytesToCopy = Math.min(Math.min(contiguousBytes(index), that.contiguousBytes(offset)), length);
+                    copyMemoryUnsafe(that.address(offset), address(index), bytesToCopy);
+                    offset += bytesToCopy;
+                    index += bytesToCopy;
+                    length -= bytesToCopy;
+                }
+            } else {
+                src.iterateOverMemory(new PutCursor(this, index), PutCursor::put, offset, length);
+            }
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public int compare(long index, ReadOnlyMemory that, long offset, long length) {
+        if (length > 0) {
+            checkCapacity(index + length);
+            while (length > 0) {
+                long bytesToCompare = Math.min(contiguousBytes(index), length);
+                int cmp;
+                if (that instanceof OffHeapMutableMemory) {
+                    cmp = MemoryUtils.compare(address(index), ((OffHeapMutableMemory) that).addressOffset() + offset, bytesToCompare);
+                } else if (that instanceof AbstractPagedOffHeapMutableMemory) {
+                    AbstractPagedOffHeapMutableMemory thatMemory = (AbstractPagedOffHeapMutableMemory) that;
+                    bytesToCompare = Math.min(bytesToCompare, thatMemory.contiguousBytes(offset));
+                    cmp = MemoryUtils.compare(address(index), thatMemory.address(offset), bytesToCompare);
+                } else {
+                    cmp = 0;
+                    for (long idx = 0; cmp == 0 && idx < bytesToCompare; idx++) {
+                        cmp = Integer.compare((int) get(index + idx) & 0xFF, (int) that.get(offset + idx) & 0xFF);
+                    }
+                }
+                if (cmp != 0) {
+                    return cmp;
+                }
+                index += bytesToCompare;
+                offset += bytesToCompare;
+                length -= bytesToCompare;
+            }
+            return 0;
+        } else if (length == 0) {
+            return 0;
+        } else {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
+        byte[] tempArray = OffHeapMutableMemory.THREAD_LOCAL_TEMP_BUFFER ? OffHeapMutableMemory.threadLocalTempBuffer.get() : new byte[Math.min((int) Math.min(length, Integer.MAX_VALUE), OffHeapMutableMemory.TEMP_BUFFER_MAX_SIZE)];
+        iterateOverMemory(consumerInstance, consumerMethod, offset, length, tempArray);
+    }
+
+    @Override
+    public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length, byte[] tempArray) {
+        if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        while (length > 0) {
+            int toCopy = Math.min((int) Math.min(length, Integer.MAX_VALUE), tempArray.length);
+            get(offset, tempArray, 0, toCopy);
+            consumerMethod.accept(consumerInstance, tempArray, 0, toCopy);
+            length -= toCopy;
+            offset += toCopy;
+        }
+    }
+
+    protected void checkCapacity(long size) {
+        if (RANGE_CHECKS && size > capacity) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    protected void ensureCapacity(long requiredCapacity) {
+        if (requiredCapacity > capacity) {
+            if (ownedPages == null) {
+                throw new BufferOverflowException();
+            }
+            allocatePages(requiredCapacity);
+        }
+    }
+
+    private void allocatePages(long requiredCapacity) {
+        requiredCapacity = ((requiredCapacity - 1L) | pageAddrMask) + 1L;
+        int requiredPageCount = Math.toIntExact(requiredCapacity >>> pageSizeBits);
+        int requiredPageCapacity = ((requiredPageCount - 1) | pageCntGrowMask) + 1;
+        if (requiredPageCapacity > pageCapacity) {
+            memory = Arrays.copyOf(memory, requiredPageCapacity);
+            pageCapacity = requiredPageCapacity;
+        }
+        try {
+            while (pageCount < requiredPageCount) {
+                long page = ownedPages.allocatePage();
+                memory[pageCount++] = page;
+            }
+        } finally {
+            ownedPages.track(memory, pageCount);
+        }
+        capacity = requiredCapacity;
+    }
+
+    /**
+     * Index of a put from memory of another type, advanced by each chunk the source memory hands over.
+     */
+    private static final class PutCursor {
+
+        private final AbstractPagedOffHeapMutableMemory memory;
+        private long index;
+
+        PutCursor(AbstractPagedOffHeapMutableMemory memory, long index) {
+            this.memory = memory;
+            this.index = index;
+        }
+
+        static void put(PutCursor cursor, byte[] src, int offset, int length) {
+            cursor.memory.put(cursor.index, src, offset, length);
+            cursor.index += length;
+        }
+    }
+}
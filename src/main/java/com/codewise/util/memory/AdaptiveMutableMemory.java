@@ -0,0 +1,64 @@
+package com.codewise.util.memory;
+
+import java.nio.BufferOverflowException;
+
+/**
+ * Heap memory choosing its representation by size, up to {@code maxSize} bytes. It starts as an array of the size
+ * memory from the same {@link AllocationSite} usually needs, or the expected size if that's more, and is promoted
+ * to paged memory once it grows past {@link #PROMOTION_THRESHOLD}. Sites whose memory usually grows that much start
+ * paged right away.
+ * <p>
+ * Memory reports its size to the site whenever it doubles since the last report, and when released.
+ * <p>
+ * The array never grows beyond {@code maxSize}; paged memory may end up to a page bigger, as it grows page by page.
+ */
+public class AdaptiveMutableMemory extends PromotingGrowableMutableMemory {
+
+    public static final long PROMOTION_THRESHOLD = 1 << 20;
+    public static final int PAGE_SIZE_BITS = 16;
+
+    private final AllocationSite site;
+    private final long maxSize;
+
+    protected AdaptiveMutableMemory(MemoryType memoryType, AllocationSite site, long expectedSize, long maxSize) {
+        super(memoryType, initialSize(site, expectedSize, maxSize), PROMOTION_THRESHOLD, PAGE_SIZE_BITS,
+                GrowthPolicy.DEFAULT.withMaxCapacity(maxSize));
+        this.site = site;
+        this.maxSize = maxSize;
+
+        site.allocated();
+        capacityLimit = Math.min(capacity(), maxSize);
+    }
+
+    private static long initialSize(AllocationSite site, long expectedSize, long maxSize) {
+        Preconditions.checkArgument(expectedSize >= 0 && expectedSize <= maxSize);
+        return Math.min(Math.max(expectedSize, site.sizeHint()), maxSize);
+    }
+
+    public long maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @throws BufferOverflowException when growing beyond max size
+     */
+    @Override
+    protected void capacityLimitExceeded(long requiredCapacity) {
+        if (requiredCapacity > maxSize) {
+            throw new BufferOverflowException();
+        }
+        site.observed(requiredCapacity);
+        if (requiredCapacity > promotionThreshold) {
+            super.capacityLimitExceeded(requiredCapacity);
+        }
+        long nextReport = requiredCapacity > maxSize >>> 1 ? maxSize : requiredCapacity << 1;
+        capacityLimit = isPromoted() ? nextReport : Math.min(nextReport, promotionThreshold);
+    }
+
+    @Override
+    public void release() {
+        site.observed(capacity());
+        super.release();
+        capacityLimit = 0;
+    }
+}
@@ -0,0 +1,66 @@
+package com.codewise.util.memory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sizes memory allocated at one place in code turned out to need, telling {@link AdaptiveMutableMemory} how big
+ * to start. The hint is the largest size seen over the last {@link #WINDOW} allocations, halving after a window
+ * in which nothing outgrew it, so a single outlier doesn't inflate allocations forever.
+ * <p>
+ * Statistics are updated without locking, concurrent updates may get lost.
+ */
+public final class AllocationSite {
+
+    public static final int WINDOW = 64;
+    public static final int MAX_SITES = 4096;
+
+    private static final ConcurrentMap<Object, AllocationSite> SITES = new ConcurrentHashMap<>();
+
+    private final AtomicLong allocations = new AtomicLong();
+    private volatile long sizeHint;
+    private volatile long windowPeak;
+
+    /**
+     * Site shared by everyone using the same key, e.g. a {@link StackTraceElement}. Sites are never forgotten, so
+     * once {@link #MAX_SITES} keys are known, new keys get a fresh site which isn't shared.
+     */
+    public static AllocationSite of(Object key) {
+        AllocationSite site = SITES.get(key);
+        if (site != null) {
+            return site;
+        }
+        if (SITES.size() >= MAX_SITES) {
+            return new AllocationSite();
+        }
+        return SITES.computeIfAbsent(key, k -> new AllocationSite());
+    }
+
+    public long sizeHint() {
+        return sizeHint;
+    }
+
+    public long allocations() {
+        return allocations.get();
+    }
+
+    void allocated() {
+        if (allocations.incrementAndGet() % WINDOW == 0) {
+            sizeHint = Math.max(windowPeak, sizeHint >>> 1);
+            windowPeak = 0;
+        }
+    }
+
+    /**
+     * Records that memory allocated here needed at least {@code size} bytes.
+     */
+    void observed(long size) {
+        if (size > windowPeak) {
+            windowPeak = size;
+        }
+        if (size > sizeHint) {
+            sizeHint = size;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.codewise.util.memory;
+
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+
+/**
+ * Buddy system allocator handing out power-of-two sized blocks of an off-heap region, e.g. one obtained with
+ * {@link Memory#wrapOffHeapAddress(long, long)} or {@link Memory#allocateOffHeap(long)}. Freed blocks are merged
+ * with their free buddies, so both allocation and freeing take O(log(max block size / min block size)).
+ * <p>
+ * Free blocks are kept on per-size doubly linked lists stored in the blocks themselves, the only heap bookkeeping
+ * is a byte per minimal block. All methods are synchronized.
+ */
+public class BuddyAllocator {
+
+    public static final int MIN_BLOCK_SIZE_BITS = 4;
+
+    private static final long NULL = -1L;
+    private static final int NEXT = 0;
+    private static final int PREV = Long.BYTES;
+
+    private final OffHeapMutableMemory region;
+    private final int minBlockSizeBits;
+    private final int maxOrder;
+
+    /**
+     * Per minimal block: {@code order + 1} if a free block of that order starts there, {@code -(order + 1)} if an
+     * allocated one does, 0 otherwise.
+     */
+    private final byte[] blocks;
+    private final long[] freeLists;
+
+    private long allocatedBytes;
+
+    public BuddyAllocator(OffHeapMutableMemory region, int minBlockSizeBits, int maxBlockSizeBits) {
+        Preconditions.checkArgument(minBlockSizeBits >= MIN_BLOCK_SIZE_BITS && maxBlockSizeBits >= minBlockSizeBits && maxBlockSizeBits < Long.SIZE - 1);
+        Preconditions.checkArgument(maxBlockSizeBits - minBlockSizeBits < Byte.MAX_VALUE);
+
+        this.region = region;
+        this.minBlockSizeBits = minBlockSizeBits;
+        this.maxOrder = maxBlockSizeBits - minBlockSizeBits;
+
+        long topBlocks = region.capacity() >>> maxBlockSizeBits;
+        blocks = new byte[Math.toIntExact(topBlocks << maxOrder)];
+        freeLists = new long[maxOrder + 1];
+        Arrays.fill(freeLists, NULL);
+        for (long idx = topBlocks - 1; idx >= 0; idx--) {
+            addFree(idx << maxOrder, maxOrder);
+        }
+    }
+
+    public OffHeapMutableMemory allocate(long size) {
+        return allocateUsing(new FixedOffHeapByteBufferMemory(0, 0), size);
+    }
+
+    /**
+     * Wraps given memory around a newly allocated block of {@code size} bytes, releasing what it owned before.
+     *
+     * @throws BufferOverflowException when there's no free block large enough
+     */
+    public synchronized FixedOffHeapByteBufferMemory allocateUsing(FixedOffHeapByteBufferMemory memory, long size) {
+        Preconditions.checkArgument(size > 0 && size <= blockSize(maxOrder));
+        int order = orderOf(size);
+        int freeOrder = order;
+        while (freeOrder <= maxOrder && freeLists[freeOrder] == NULL) {
+            freeOrder++;
+        }
+        if (freeOrder > maxOrder) {
+            throw new BufferOverflowException();
+        }
+
+        long block = removeFree(freeLists[freeOrder], freeOrder);
+        while (freeOrder > order) {
+            freeOrder--;
+            addFree(block + (1L << freeOrder), freeOrder);
+        }
+        blocks[(int) block] = (byte) -(order + 1);
+        allocatedBytes += blockSize(order);
+
+        memory.wrap(region.addressOffset() + (block << minBlockSizeBits), size);
+        return memory;
+    }
+
+    /**
+     * Gives back block returned by this allocator. Given memory is left empty.
+     */
+    public synchronized void free(OffHeapMutableMemory memory) {
+        long offset = memory.addressOffset() - region.addressOffset();
+        long block = offset >>> minBlockSizeBits;
+        Preconditions.checkArgument(offset >= 0 && block < blocks.length && (offset & ((1L << minBlockSizeBits) - 1)) == 0);
+        int order = -blocks[(int) block] - 1;
+        Preconditions.checkArgument(order >= 0);
+
+        blocks[(int) block] = 0;
+        allocatedBytes -= blockSize(order);
+        memory.wrap(0, 0);
+
+        while (order < maxOrder) {
+            long buddy = block ^ (1L << order);
+            if (blocks[(int) buddy] != order + 1) {
+                break;
+            }
+            removeFree(buddy, order);
+            block = Math.min(block, buddy);
+            order++;
+        }
+        addFree(block, order);
+    }
+
+    public long capacity() {
+        return (long) blocks.length << minBlockSizeBits;
+    }
+
+    public synchronized long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Size of the largest block that can be allocated right now, 0 if none.
+     */
+    public synchronized long largestFreeBlock() {
+        for (int order = maxOrder; order >= 0; order--) {
+            if (freeLists[order] != NULL) {
+                return blockSize(order);
+            }
+        }
+        return 0;
+    }
+
+    private long blockSize(int order) {
+        return 1L << (order + minBlockSizeBits);
+    }
+
+    private int orderOf(long size) {
+        int sizeBits = Long.SIZE - Long.numberOfLeadingZeros(size - 1);
+        return Math.max(sizeBits - minBlockSizeBits, 0);
+    }
+
+    private void addFree(long block, int order) {
+        long offset = block << minBlockSizeBits;
+        long head = freeLists[order];
+        region.putLong(offset + NEXT, head);
+        region.putLong(offset + PREV, NULL);
+        if (head != NULL) {
+            region.putLong((head << minBlockSizeBits) + PREV, block);
+        }
+        freeLists[order] = block;
+        blocks[(int) block] = (byte) (order + 1);
+    }
+
+    private long removeFree(long block, int order) {
+        long offset = block << minBlockSizeBits;
+        long next = region.getLong(offset + NEXT);
+        long prev = region.getLong(offset + PREV);
+        if (prev == NULL) {
+            freeLists[order] = next;
+        } else {
+            region.putLong((prev << minBlockSizeBits) + NEXT, next);
+        }
+        if (next != NULL) {
+            region.putLong((next << minBlockSizeBits) + PREV, prev);
+        }
+        blocks[(int) block] = 0;
+        return block;
+    }
+}
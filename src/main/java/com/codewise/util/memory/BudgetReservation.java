@@ -0,0 +1,39 @@
+package com.codewise.util.memory;
+
+/**
+ * Heap memory of an owner charged to a {@link MemoryBudget}, given back to the budget once the owner is gone.
+ */
+final class BudgetReservation extends NativeAllocation {
+
+    private final MemoryBudget budget;
+    private long bytes;
+
+    BudgetReservation(Object owner, MemoryBudget budget) {
+        super(owner);
+        this.budget = budget;
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized void reserve(long bytes) {
+        budget.reserve(bytes);
+        this.bytes += bytes;
+    }
+
+    /**
+     * Gives back up to given number of bytes, never more than reserved.
+     */
+    synchronized void release(long bytes) {
+        bytes = Math.min(bytes, this.bytes);
+        this.bytes -= bytes;
+        budget.release(bytes);
+    }
+
+    @Override
+    protected void deallocate() {
+        budget.release(bytes);
+        bytes = 0;
+    }
+}
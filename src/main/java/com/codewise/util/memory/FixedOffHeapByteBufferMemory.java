@@ -1,7 +1,5 @@
 package com.codewise.util.memory;
 
-import sun.nio.ch.DirectBuffer;
-
 import java.nio.BufferOverflowException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
@@ -10,20 +8,63 @@ import static com.codewise.util.lowlevel.MemoryAccess.*;
 import static java.lang.Double.doubleToRawLongBits;
 import static java.lang.Double.longBitsToDouble;
 
-public class FixedOffHeapByteBufferMemory implements OffHeapMutableMemory {
+public class FixedOffHeapByteBufferMemory implements OffHeapMutableMemory, ReleasableMemory {
 
     private long capacity;
     private long addressOffset;
 
+    private NativeMemory ownedMemory;
+    /**
+     * Kept reachable while its memory is wrapped, e.g. a direct buffer or the memory this one is a slice of.
+     */
+    private Object owner;
+
     public FixedOffHeapByteBufferMemory(long addressOffset, long capacity) {
         this.addressOffset = addressOffset;
         this.capacity = capacity;
     }
 
+    protected FixedOffHeapByteBufferMemory(long capacity) {
+        ownedMemory = NativeMemory.allocate(this, capacity);
+        addressOffset = ownedMemory.address();
+        this.capacity = capacity;
+    }
+
+    static FixedOffHeapByteBufferMemory allocateAligned(long capacity, long alignment) {
+        FixedOffHeapByteBufferMemory memory = new FixedOffHeapByteBufferMemory(0, 0);
+        memory.ownedMemory = NativeMemory.allocateAligned(memory, capacity, alignment);
+        memory.addressOffset = memory.ownedMemory.alignedAddress(alignment);
+        memory.capacity = capacity;
+        return memory;
+    }
+
+    /**
+     * Memory of given direct buffer, sharing its content. Buffer is kept reachable, so that its memory isn't freed
+     * while in use.
+     */
+    public static FixedOffHeapByteBufferMemory wrapDirectBuffer(ByteBuffer directBuffer) {
+        Preconditions.checkArgument(directBuffer.isDirect());
+        FixedOffHeapByteBufferMemory memory = new FixedOffHeapByteBufferMemory(getDirectBufferAddressUnsafe(directBuffer), directBuffer.capacity());
+        memory.owner = directBuffer;
+        return memory;
+    }
+
     @Override
     public void wrap(long addressOffset, long capacity) {
+        release();
         this.addressOffset = addressOffset;
         this.capacity = capacity;
+        owner = null;
+    }
+
+    @Override
+    public void release() {
+        if (ownedMemory != null) {
+            ownedMemory.free();
+            ownedMemory = null;
+            addressOffset = 0;
+            capacity = 0;
+        }
     }
 
     @Override
@@ -116,12 +157,33 @@ public class FixedOffHeapByteBufferMemory implements OffHeapMutableMemory {
 
     @Override
     public void get(long index, ByteBuffer buf) {
-        checkCapacity(index + buf.remaining());
+        int length = buf.remaining();
+        checkCapacity(index + length);
         if (buf.isDirect()) {
-            copyMemoryUnsafe(null, addressOffset + index, ((DirectBuffer) buf).address(), buf.position(), buf.remaining());
+            copyMemoryUnsafe(addressOffset + index, getDirectBufferAddressUnsafe(buf) + buf.position(), length);
         } else {
-            copyMemoryUnsafe(null, addressOffset + index, buf.array(), ARRAY_BYTE_BASE_OFFSET + buf.position(), buf.remaining());
+            copyMemoryUnsafe(null, addressOffset + index, buf.array(), ARRAY_BYTE_BASE_OFFSET + buf.arrayOffset() + buf.position(), length);
         }
+        buf.position(buf.position() + length);
+    }
+
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        Preconditions.checkArgument(length >= 0);
+        checkCapacity(index + length);
+        return MemoryUtils.directByteBuffers(addressOffset + index, length, this);
+    }
+
+    /**
+     * Slice is memory of the same type wrapping part of this one, so it's as fast as this memory. It keeps this
+     * memory reachable, but must not be used after this memory is released.
+     */
+    @Override
+    public MutableMemory slice(long offset, long length) {
+        MemoryUtils.checkSlice(this, offset, length);
+        FixedOffHeapByteBufferMemory slice = new FixedOffHeapByteBufferMemory(addressOffset + offset, length);
+        slice.owner = this;
+        return slice;
     }
 
     @Override
@@ -209,6 +271,22 @@ public class FixedOffHeapByteBufferMemory implements OffHeapMutableMemory {
         }
     }
 
+    /**
+     * Moves content to a block of given capacity owned by this instance, so that it can also outgrow wrapped memory.
+     */
+    protected void reallocate(long newCapacity) {
+        if (ownedMemory == null) {
+            NativeMemory newMemory = NativeMemory.allocate(this, newCapacity);
+            copyMemoryUnsafe(addressOffset, newMemory.address(), Math.min(capacity, newCapacity));
+            ownedMemory = newMemory;
+            addressOffset = newMemory.address();
+            owner = null;
+        } else {
+            addressOffset = ownedMemory.reallocate(newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
     @Override
     public long addressOffset() {
         return addressOffset;
@@ -7,6 +7,7 @@ public class FixedSafeMutableMemory extends AbstractMutableMemory implements Byt
     protected byte[] memory;
 
     protected FixedSafeMutableMemory(long size) {
+        chargeBudget(size);
         memory = new byte[Math.toIntExact(size)];
         capacity = size;
     }
@@ -18,6 +19,7 @@ public class FixedSafeMutableMemory extends AbstractMutableMemory implements Byt
 
     @Override
     public void wrap(byte[] bytes) {
+        refundBudget(capacity);
         memory = bytes;
         capacity = bytes.length;
     }
@@ -9,6 +9,7 @@ public class FixedUnsafeMutableMemory extends AbstractMutableMemory implements B
     protected byte[] memory;
 
     protected FixedUnsafeMutableMemory(long size) {
+        chargeBudget(size);
         memory = new byte[Math.toIntExact(size)];
         capacity = size;
     }
@@ -20,6 +21,7 @@ public class FixedUnsafeMutableMemory extends AbstractMutableMemory implements B
 
     @Override
     public void wrap(byte[] bytes) {
+        refundBudget(capacity);
         memory = bytes;
         capacity = bytes.length;
     }
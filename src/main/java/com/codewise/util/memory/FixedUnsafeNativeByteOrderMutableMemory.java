@@ -9,6 +9,7 @@ public class FixedUnsafeNativeByteOrderMutableMemory extends AbstractMutableMemo
     protected byte[] memory;
 
     protected FixedUnsafeNativeByteOrderMutableMemory(long size) {
+        chargeBudget(size);
         memory = new byte[Math.toIntExact(size)];
         capacity = size;
     }
@@ -20,6 +21,7 @@ public class FixedUnsafeNativeByteOrderMutableMemory extends AbstractMutableMemo
 
     @Override
     public void wrap(byte[] bytes) {
+        refundBudget(capacity);
         memory = bytes;
         capacity = bytes.length;
     }
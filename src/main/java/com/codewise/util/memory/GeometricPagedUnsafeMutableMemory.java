@@ -0,0 +1,240 @@
+package com.codewise.util.memory;
+
+import java.util.Arrays;
+
+import static com.codewise.util.lowlevel.MemoryAccess.*;
+
+/**
+ * Paged memory whose pages grow geometrically - page {@code k} has {@code basePageSize << k} bytes, up to
+ * {@code 2^maxPageSizeBits}, after which all pages are of that size. Small memory takes a single small page,
+ * large one takes few pages, and growing never copies content.
+ * <p>
+ * Page of an index is found in O(1): pages before page {@code k} hold {@code basePageSize * (2^k - 1)} bytes, so
+ * {@code k} is the position of the highest bit of {@code index / basePageSize + 1}.
+ */
+public class GeometricPagedUnsafeMutableMemory extends AbstractMutableMemory implements ReleasableMemory {
+
+    public static final int DEFAULT_BASE_PAGE_SIZE_BITS = 8;
+    public static final int MAX_PAGE_SIZE_BITS = 30;
+
+    protected final int basePageSizeBits;
+    protected final int maxPageSizeBits;
+
+    /**
+     * First page of the maximal size and its index in memory.
+     */
+    private final int maxPageIndex;
+    private final long maxPageStart;
+
+    protected byte[][] pages = new byte[0][];
+    protected int pageCount;
+
+    protected GeometricPagedUnsafeMutableMemory(int basePageSizeBits, long initialCapacity) {
+        this(basePageSizeBits, MAX_PAGE_SIZE_BITS, initialCapacity);
+    }
+
+    protected GeometricPagedUnsafeMutableMemory(int basePageSizeBits, int maxPageSizeBits, long initialCapacity) {
+        super(MemoryBudget.current());
+        Preconditions.checkArgument(basePageSizeBits >= Long.numberOfTrailingZeros(Long.BYTES));
+        Preconditions.checkArgument(maxPageSizeBits >= basePageSizeBits && maxPageSizeBits <= MAX_PAGE_SIZE_BITS);
+
+        this.basePageSizeBits = basePageSizeBits;
+        this.maxPageSizeBits = maxPageSizeBits;
+        maxPageIndex = maxPageSizeBits - basePageSizeBits;
+        maxPageStart = ((1L << maxPageIndex) - 1) << basePageSizeBits;
+
+        if (initialCapacity > 0) {
+            ensureCapacity(initialCapacity);
+        }
+    }
+
+    protected GeometricPagedUnsafeMutableMemory() {
+        this(DEFAULT_BASE_PAGE_SIZE_BITS, 0);
+    }
+
+    /**
+     * Memory of at least {@code initialCapacity} bytes with page {@code k} of {@code 2^basePageSizeBits << k} bytes, up
+     * to {@code 2^maxPageSizeBits}.
+     */
+    public static GeometricPagedUnsafeMutableMemory allocate(int basePageSizeBits, int maxPageSizeBits, long initialCapacity) {
+        return new GeometricPagedUnsafeMutableMemory(basePageSizeBits, maxPageSizeBits, initialCapacity);
+    }
+
+    protected int pageIndex(long index) {
+        if (index < maxPageStart) {
+            return Long.SIZE - 1 - Long.numberOfLeadingZeros((index >>> basePageSizeBits) + 1);
+        }
+        return maxPageIndex + Math.toIntExact((index - maxPageStart) >>> maxPageSizeBits);
+    }
+
+    protected long pageStart(int pageIndex) {
+        if (pageIndex <= maxPageIndex) {
+            return ((1L << pageIndex) - 1) << basePageSizeBits;
+        }
+        return maxPageStart + ((long) (pageIndex - maxPageIndex) << maxPageSizeBits);
+    }
+
+    protected int pageSize(int pageIndex) {
+        return 1 << (basePageSizeBits + Math.min(pageIndex, maxPageIndex));
+    }
+
+    @Override
+    protected int getPageOffset(long index) {
+        return (int) (index - pageStart(pageIndex(index)));
+    }
+
+    @Override
+    protected int getPageLength(long index) {
+        return pageSize(pageIndex(index));
+    }
+
+    @Override
+    protected byte[] getMemoryPageAsByteArray(long offset) {
+        return pages[pageIndex(offset)];
+    }
+
+    @Override
+    protected void ensureCapacity(long requiredCapacity) {
+        while (requiredCapacity > capacity) {
+            if (pageCount == pages.length) {
+                pages = Arrays.copyOf(pages, Math.max(2 * pageCount, Long.SIZE));
+            }
+            chargeBudget(pageSize(pageCount));
+            byte[] page = new byte[pageSize(pageCount)];
+            pages[pageCount++] = page;
+            capacity += page.length;
+        }
+    }
+
+    /**
+     * Drops all pages. Memory is empty afterwards, but can grow again.
+     */
+    @Override
+    public void release() {
+        refundBudget(capacity);
+        pages = new byte[0][];
+        pageCount = 0;
+        capacity = 0;
+    }
+
+    /**
+     * Writes {@code size} lowest bytes of given value, most significant first, when they span page {@code pageIndex}
+     * and the next one.
+     */
+    private void putAcrossPages(int pageIndex, long pageAddr, long bigEndianBytes, int size) {
+        byte[] page = pages[pageIndex];
+        long pageOffset = ARRAY_BYTE_BASE_OFFSET + pageAddr;
+        int bytesOnFirstPage = page.length - (int) pageAddr;
+        for (int idx = 0; idx < size; idx++) {
+            if (idx == bytesOnFirstPage) {
+                page = pages[pageIndex + 1];
+                pageOffset = ARRAY_BYTE_BASE_OFFSET;
+            }
+            setByteUnsafe(page, pageOffset++, (byte) (bigEndianBytes >>> ((size - 1 - idx) << 3)));
+        }
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        int pageIndex = pageIndex(index);
+        return getByteUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + index - pageStart(pageIndex));
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        ensureWritable(index, Byte.BYTES);
+        int pageIndex = pageIndex(index);
+        setByteUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + index - pageStart(pageIndex), b);
+    }
+
+    @Override
+    public char getChar(long index) {
+        return (char) getShort(index);
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        putShort(index, (short) value);
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        int pageIndex = pageIndex(index);
+        long pageAddr = index - pageStart(pageIndex);
+        if (pageAddr + Short.BYTES <= pageSize(pageIndex)) {
+            return getShortUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageAddr);
+        }
+        byte b1 = getByteUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageAddr);
+        byte b0 = getByteUnsafe(pages[pageIndex + 1], ARRAY_BYTE_BASE_OFFSET);
+        return (short) ((b1 << 8) | (b0 & 0xff));
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        ensureWritable(index, Short.BYTES);
+        int pageIndex = pageIndex(index);
+        long pageAddr = index - pageStart(pageIndex);
+        if (pageAddr + Short.BYTES <= pageSize(pageIndex)) {
+            setShortUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageAddr, value);
+        } else {
+            putAcrossPages(pageIndex, pageAddr, value, Short.BYTES);
+        }
+    }
+
+    @Override
+    public int getInt(long index) {
+        checkCapacity(index + Integer.BYTES);
+        int pageIndex = pageIndex(index);
+        long pageAddr = index - pageStart(pageIndex);
+        if (pageAddr + Integer.BYTES <= pageSize(pageIndex)) {
+            return getIntUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageAddr);
+        }
+        // pages are multiples of 8 bytes, see PagedUnsafeMutableMemory.getInt()
+        int msw = getIntUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageSize(pageIndex) - Integer.BYTES);
+        int lsw = getIntUnsafe(pages[pageIndex + 1], ARRAY_BYTE_BASE_OFFSET);
+
+        int lswBits = (int) (pageAddr & 0x3) << 3;
+        return (msw << lswBits) | (lsw >>> (32 - lswBits));
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        ensureWritable(index, Integer.BYTES);
+        int pageIndex = pageIndex(index);
+        long pageAddr = index - pageStart(pageIndex);
+        if (pageAddr + Integer.BYTES <= pageSize(pageIndex)) {
+            setIntUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageAddr, value);
+        } else {
+            putAcrossPages(pageIndex, pageAddr, value, Integer.BYTES);
+        }
+    }
+
+    @Override
+    public long getLong(long index) {
+        checkCapacity(index + Long.BYTES);
+        int pageIndex = pageIndex(index);
+        long pageAddr = index - pageStart(pageIndex);
+        if (pageAddr + Long.BYTES <= pageSize(pageIndex)) {
+            return getLongUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageAddr);
+        }
+        long msw = getLongUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageSize(pageIndex) - Long.BYTES);
+        long lsw = getLongUnsafe(pages[pageIndex + 1], ARRAY_BYTE_BASE_OFFSET);
+
+        int lswBits = (int) (pageAddr & 0x7) << 3;
+        return (msw << lswBits) | (lsw >>> (64 - lswBits));
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        ensureWritable(index, Long.BYTES);
+        int pageIndex = pageIndex(index);
+        long pageAddr = index - pageStart(pageIndex);
+        if (pageAddr + Long.BYTES <= pageSize(pageIndex)) {
+            setLongUnsafe(pages[pageIndex], ARRAY_BYTE_BASE_OFFSET + pageAddr, value);
+        } else {
+            putAcrossPages(pageIndex, pageAddr, value, Long.BYTES);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+
+/**
+ * Native memory growing in place with {@code realloc} - no heap is touched and large blocks are usually remapped
+ * rather than copied. Capacity is not limited to {@link Integer#MAX_VALUE}.
+ */
+public class GrowableOffHeapMutableMemory extends FixedOffHeapByteBufferMemory implements ResizableMemory {
+
+    private final GrowthPolicy growthPolicy;
+
+    protected GrowableOffHeapMutableMemory(long size) {
+        this(size, GrowthPolicy.DEFAULT);
+    }
+
+    protected GrowableOffHeapMutableMemory(long size, GrowthPolicy growthPolicy) {
+        super(size);
+        this.growthPolicy = growthPolicy;
+    }
+
+    @Override
+    protected void ensureCapacity(long size) {
+        if (size > capacity()) {
+            reallocate(growthPolicy.newCapacity(capacity(), size));
+        }
+    }
+
+    /**
+     * Memory moves as it grows, so slice goes through this instance instead of wrapping its address.
+     */
+    @Override
+    public MutableMemory slice(long offset, long length) {
+        return new MutableMemorySlice(this, offset, length);
+    }
+
+    @Override
+    public void reserve(long capacity) {
+        if (capacity > capacity()) {
+            reallocate(GrowthPolicy.roundUp(capacity, GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY));
+        }
+    }
+
+    @Override
+    public void trimToSize(long size) {
+        Preconditions.checkArgument(size >= 0);
+        long newCapacity = GrowthPolicy.roundUp(size, GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY);
+        if (newCapacity < capacity()) {
+            reallocate(newCapacity);
+        }
+    }
+
+    @Override
+    public void truncate(long size) {
+        trimToSize(size);
+        if (size < capacity()) {
+            MemoryAccess.setMemoryUnsafe(addressOffset() + size, capacity() - size, (byte) 0);
+        }
+    }
+}
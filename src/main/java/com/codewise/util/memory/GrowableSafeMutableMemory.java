@@ -1,23 +1,64 @@
 package com.codewise.util.memory;
 
-public class GrowableSafeMutableMemory extends FixedSafeMutableMemory {
+import java.util.Arrays;
+
+public class GrowableSafeMutableMemory extends FixedSafeMutableMemory implements ResizableMemory {
+
+    private final GrowthPolicy growthPolicy;
 
     protected GrowableSafeMutableMemory(long size) {
+        this(size, GrowthPolicy.DEFAULT);
+    }
+
+    protected GrowableSafeMutableMemory(long size, GrowthPolicy growthPolicy) {
         super(size);
+        this.growthPolicy = growthPolicy;
     }
 
     protected GrowableSafeMutableMemory(byte[] buffer) {
         super(buffer);
+        this.growthPolicy = GrowthPolicy.DEFAULT;
     }
 
     @Override
     protected void ensureCapacity(long size) {
         if (size > capacity) {
-            int newCapacity = Math.toIntExact(((size - 1) | (GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY - 1)) + 1L);
+            int newCapacity = GrowableUnsafeMutableMemory.newArrayCapacity(growthPolicy, capacity, size);
+            chargeBudgetInTotal(newCapacity);
             byte[] newMemory = new byte[newCapacity];
             System.arraycopy(memory, 0, newMemory, 0, (int) capacity);
             memory = newMemory;
             capacity = newCapacity;
         }
     }
+
+    @Override
+    public void reserve(long capacity) {
+        if (capacity > this.capacity) {
+            resize(GrowthPolicy.roundUp(capacity, GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY));
+        }
+    }
+
+    @Override
+    public void trimToSize(long size) {
+        Preconditions.checkArgument(size >= 0);
+        long newCapacity = GrowthPolicy.roundUp(size, GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY);
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    @Override
+    public void truncate(long size) {
+        trimToSize(size);
+        if (size < capacity) {
+            Arrays.fill(memory, (int) size, (int) capacity, (byte) 0);
+        }
+    }
+
+    private void resize(long newCapacity) {
+        chargeBudgetInTotal(newCapacity);
+        memory = Arrays.copyOf(memory, Math.toIntExact(newCapacity));
+        capacity = newCapacity;
+    }
 }
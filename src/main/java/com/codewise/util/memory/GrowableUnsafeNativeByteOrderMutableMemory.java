@@ -1,25 +1,66 @@
 package com.codewise.util.memory;
 
-public class GrowableUnsafeNativeByteOrderMutableMemory extends FixedUnsafeNativeByteOrderMutableMemory {
+import java.util.Arrays;
+
+public class GrowableUnsafeNativeByteOrderMutableMemory extends FixedUnsafeNativeByteOrderMutableMemory implements ResizableMemory {
 
     public static final int CAPACITY_INCREMENT_GRANULARITY = 0x100;
 
+    private final GrowthPolicy growthPolicy;
+
     public GrowableUnsafeNativeByteOrderMutableMemory(long size) {
+        this(size, GrowthPolicy.DEFAULT);
+    }
+
+    public GrowableUnsafeNativeByteOrderMutableMemory(long size, GrowthPolicy growthPolicy) {
         super(size);
+        this.growthPolicy = growthPolicy;
     }
 
     public GrowableUnsafeNativeByteOrderMutableMemory(byte[] buffer) {
         super(buffer);
+        this.growthPolicy = GrowthPolicy.DEFAULT;
     }
 
     @Override
     protected void ensureCapacity(long size) {
         if (size > capacity) {
-            int newCapacity = Math.toIntExact(((size - 1) | (CAPACITY_INCREMENT_GRANULARITY - 1)) + 1L);
+            int newCapacity = GrowableUnsafeMutableMemory.newArrayCapacity(growthPolicy, capacity, size);
+            chargeBudgetInTotal(newCapacity);
             byte[] newMemory = new byte[newCapacity];
             System.arraycopy(memory, 0, newMemory, 0, (int) capacity);
             memory = newMemory;
             capacity = newCapacity;
         }
     }
+
+    @Override
+    public void reserve(long capacity) {
+        if (capacity > this.capacity) {
+            resize(GrowthPolicy.roundUp(capacity, CAPACITY_INCREMENT_GRANULARITY));
+        }
+    }
+
+    @Override
+    public void trimToSize(long size) {
+        Preconditions.checkArgument(size >= 0);
+        long newCapacity = GrowthPolicy.roundUp(size, CAPACITY_INCREMENT_GRANULARITY);
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    @Override
+    public void truncate(long size) {
+        trimToSize(size);
+        if (size < capacity) {
+            Arrays.fill(memory, (int) size, (int) capacity, (byte) 0);
+        }
+    }
+
+    private void resize(long newCapacity) {
+        chargeBudgetInTotal(newCapacity);
+        memory = Arrays.copyOf(memory, Math.toIntExact(newCapacity));
+        capacity = newCapacity;
+    }
 }
@@ -0,0 +1,60 @@
+package com.codewise.util.memory;
+
+import java.nio.BufferOverflowException;
+
+/**
+ * Decides how much growable memory grows when it runs out of capacity.
+ */
+@FunctionalInterface
+public interface GrowthPolicy {
+
+    /**
+     * Grows by half of current capacity, giving amortized O(1) appends.
+     */
+    GrowthPolicy DEFAULT = geometric(1.5);
+
+    /**
+     * @return new capacity, not less than {@code requiredCapacity}
+     * @throws BufferOverflowException when memory is not allowed to grow that much
+     */
+    long newCapacity(long capacity, long requiredCapacity);
+
+    /**
+     * Multiplies capacity by {@code factor}, or grows to the required capacity if that's more, rounding up to
+     * {@link GrowableUnsafeMutableMemory#CAPACITY_INCREMENT_GRANULARITY}.
+     */
+    static GrowthPolicy geometric(double factor) {
+        Preconditions.checkArgument(factor > 1.0);
+        return (capacity, requiredCapacity) -> {
+            long newCapacity = Math.max(requiredCapacity, (long) (capacity * factor));
+            return roundUp(newCapacity, GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY);
+        };
+    }
+
+    /**
+     * Rounds required capacity up to a multiple of {@code increment}. Appending is O(n^2) with this policy, but no
+     * more than {@code increment - 1} bytes are ever wasted.
+     */
+    static GrowthPolicy fixedIncrement(long increment) {
+        Preconditions.checkArgument(increment > 0);
+        return (capacity, requiredCapacity) -> roundUp(requiredCapacity, increment);
+    }
+
+    /**
+     * This policy never growing memory beyond {@code maxCapacity} bytes.
+     */
+    default GrowthPolicy withMaxCapacity(long maxCapacity) {
+        Preconditions.checkArgument(maxCapacity >= 0);
+        return (capacity, requiredCapacity) -> {
+            if (requiredCapacity > maxCapacity) {
+                throw new BufferOverflowException();
+            }
+            return Math.min(newCapacity(capacity, requiredCapacity), maxCapacity);
+        };
+    }
+
+    static long roundUp(long capacity, long increment) {
+        long remainder = capacity % increment;
+        return remainder == 0 || capacity > Long.MAX_VALUE - increment ? capacity : capacity - remainder + increment;
+    }
+}
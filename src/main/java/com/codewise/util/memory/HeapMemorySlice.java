@@ -0,0 +1,129 @@
+package com.codewise.util.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Slice of heap memory, fixed or paged. Pages are those of the sliced memory, so bulk copies and comparisons with
+ * other heap memory work page by page, as they do for the memory itself.
+ */
+class HeapMemorySlice extends AbstractMutableMemory {
+
+    private final AbstractMutableMemory memory;
+    private final long offset;
+
+    HeapMemorySlice(AbstractMutableMemory memory, long offset, long length) {
+        MemoryUtils.checkSlice(memory, offset, length);
+        this.memory = memory;
+        this.offset = offset;
+        this.capacity = length;
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        return memory.get(offset + index);
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        ensureCapacity(index + Byte.BYTES);
+        memory.put(offset + index, b);
+    }
+
+    @Override
+    public char getChar(long index) {
+        checkCapacity(index + Character.BYTES);
+        return memory.getChar(offset + index);
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        ensureCapacity(index + Character.BYTES);
+        memory.putChar(offset + index, value);
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        return memory.getShort(offset + index);
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        ensureCapacity(index + Short.BYTES);
+        memory.putShort(offset + index, value);
+    }
+
+    @Override
+    public int getInt(long index) {
+        checkCapacity(index + Integer.BYTES);
+        return memory.getInt(offset + index);
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        ensureCapacity(index + Integer.BYTES);
+        memory.putInt(offset + index, value);
+    }
+
+    @Override
+    public long getLong(long index) {
+        checkCapacity(index + Long.BYTES);
+        return memory.getLong(offset + index);
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        ensureCapacity(index + Long.BYTES);
+        memory.putLong(offset + index, value);
+    }
+
+    @Override
+    public double getDouble(long index) {
+        checkCapacity(index + Double.BYTES);
+        return memory.getDouble(offset + index);
+    }
+
+    @Override
+    public void putDouble(long index, double value) {
+        ensureCapacity(index + Double.BYTES);
+        memory.putDouble(offset + index, value);
+    }
+
+    /**
+     * Views are those of the sliced memory, e.g. read-only for pages shared with snapshots.
+     */
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        Preconditions.checkArgument(length >= 0);
+        checkCapacity(index + length);
+        return memory.asNioByteBuffers(offset + index, length);
+    }
+
+    @Override
+    public MutableMemory slice(long offset, long length) {
+        MemoryUtils.checkSlice(this, offset, length);
+        return memory.slice(this.offset + offset, length);
+    }
+
+    @Override
+    protected int getPageOffset(long index) {
+        return memory.getPageOffset(offset + index);
+    }
+
+    @Override
+    protected int getPageLength(long index) {
+        return memory.getPageLength(offset + index);
+    }
+
+    @Override
+    protected byte[] getMemoryPageAsByteArray(long offset) {
+        return memory.getMemoryPageAsByteArray(this.offset + offset);
+    }
+
+    @Override
+    protected void ensureWritable(long index, long length) {
+        ensureCapacity(index + length);
+        memory.ensureWritable(offset + index, length);
+    }
+}
@@ -0,0 +1,149 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File of any size mapped into memory as consecutive segments, each of them being a single page of
+ * {@link PagedOffHeapMutableMemory} - values spanning two segments are handled like ones spanning two pages.
+ * <p>
+ * Segments are unmapped by {@link #close()} or, at the latest, when this memory becomes garbage. Memory must not be
+ * accessed concurrently with or after {@link #close()}.
+ */
+public class MappedFileMutableMemory extends PagedOffHeapMutableMemory implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE_BITS = 30;
+
+    private final boolean readOnly;
+
+    private MappedByteBuffer[] segments;
+
+    protected MappedFileMutableMemory(MappedByteBuffer[] segments, int segmentSizeBits, long size, boolean readOnly) {
+        super(segmentSizeBits, addressesOf(segments), size);
+        this.segments = segments;
+        this.readOnly = readOnly;
+    }
+
+    public static MappedFileMutableMemory mapReadOnly(Path file) throws IOException {
+        return mapReadOnly(file, DEFAULT_SEGMENT_SIZE_BITS);
+    }
+
+    public static MappedFileMutableMemory mapReadOnly(Path file, int segmentSizeBits) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            return new MappedFileMutableMemory(map(channel, FileChannel.MapMode.READ_ONLY, size, segmentSizeBits), segmentSizeBits, size, true);
+        }
+    }
+
+    /**
+     * Maps given file, creating it or changing its size to {@code size} bytes if needed.
+     */
+    public static MappedFileMutableMemory mapReadWrite(Path file, long size) throws IOException {
+        return mapReadWrite(file, size, DEFAULT_SEGMENT_SIZE_BITS);
+    }
+
+    public static MappedFileMutableMemory mapReadWrite(Path file, long size, int segmentSizeBits) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            return new MappedFileMutableMemory(map(channel, FileChannel.MapMode.READ_WRITE, size, segmentSizeBits), segmentSizeBits, size, false);
+        }
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long size, int segmentSizeBits) throws IOException {
+        Preconditions.checkArgument(segmentSizeBits < Integer.SIZE - 1);
+        long segmentSize = 1L << segmentSizeBits;
+        MappedByteBuffer[] segments = new MappedByteBuffer[Math.toIntExact((size + segmentSize - 1) >>> segmentSizeBits)];
+        try {
+            for (int idx = 0; idx < segments.length; idx++) {
+                long position = (long) idx << segmentSizeBits;
+                segments[idx] = channel.map(mode, position, Math.min(segmentSize, size - position));
+            }
+        } catch (IOException | RuntimeException e) {
+            unmap(segments);
+            throw e;
+        }
+        return segments;
+    }
+
+    private static long[] addressesOf(MappedByteBuffer[] segments) {
+        long[] addresses = new long[segments.length];
+        for (int idx = 0; idx < segments.length; idx++) {
+            addresses[idx] = MemoryAccess.getDirectBufferAddressUnsafe(segments[idx]);
+        }
+        return addresses;
+    }
+
+    private static void unmap(MappedByteBuffer[] segments) {
+        for (MappedByteBuffer segment : segments) {
+            if (segment != null) {
+                MemoryAccess.invokeCleanerUnsafe(segment);
+            }
+        }
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Writes changes made to given range back to the file. As Java 8 can't force part of a mapping,
+     * whole segments overlapping the range are forced.
+     */
+    public void force(long index, long length) {
+        if (length > 0 && !readOnly) {
+            checkCapacity(index + length);
+            int lastSegment = (int) ((index + length - 1) >>> pageSizeBits);
+            for (int idx = (int) (index >>> pageSizeBits); idx <= lastSegment; idx++) {
+                segments[idx].force();
+            }
+        }
+    }
+
+    public void force() {
+        force(0, capacity);
+    }
+
+    @Override
+    public void close() {
+        if (segments != null) {
+            MappedByteBuffer[] segments = this.segments;
+            this.segments = null;
+            super.release();
+            unmap(segments);
+        }
+    }
+
+    @Override
+    public void release() {
+        close();
+    }
+
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        ByteBuffer[] views = super.asNioByteBuffers(index, length);
+        if (readOnly) {
+            for (int idx = 0; idx < views.length; idx++) {
+                views[idx] = views[idx].asReadOnlyBuffer();
+            }
+        }
+        return views;
+    }
+
+    @Override
+    protected void ensureCapacity(long requiredCapacity) {
+        if (readOnly) {
+            throw new ReadOnlyBufferException();
+        }
+        super.ensureCapacity(requiredCapacity);
+    }
+}
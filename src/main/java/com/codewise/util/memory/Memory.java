@@ -2,6 +2,9 @@ package com.codewise.util.memory;
 
 public class Memory {
 
+    public static final long CACHE_LINE_ALIGNMENT = 64;
+    public static final long PAGE_ALIGNMENT = 4096;
+
     public static OffHeapMutableMemory wrapOffHeapAddress(long addressOffset, long capacity) {
         return new FixedOffHeapByteBufferMemory(addressOffset, capacity);
     }
@@ -9,4 +12,35 @@ public class Memory {
     public static OffHeapMutableMemory wrapOffHeapAddressNativeByteOrder(long addressOffset, long capacity) {
         return new FixedOffHeapNativeByteOrderMutableMemory(addressOffset, capacity);
     }
+
+    /**
+     * Allocates zeroed native memory. It is freed by {@link ReleasableMemory#release()} or, at the latest,
+     * after returned instance becomes unreachable.
+     */
+    public static OffHeapMutableMemory allocateOffHeap(long capacity) {
+        return new FixedOffHeapByteBufferMemory(capacity);
+    }
+
+    /**
+     * Native byte order counterpart of {@link #allocateOffHeap(long)}.
+     */
+    public static OffHeapMutableMemory allocateOffHeapNativeByteOrder(long capacity) {
+        return new FixedOffHeapNativeByteOrderMutableMemory(capacity);
+    }
+
+    /**
+     * Allocates zeroed native memory starting at an address aligned to {@code alignment}, which has to be a power
+     * of two - e.g. {@link #CACHE_LINE_ALIGNMENT} to avoid false sharing or {@link #PAGE_ALIGNMENT} for direct I/O.
+     * Up to {@code alignment - 1} extra bytes are allocated. Released like memory of {@link #allocateOffHeap(long)}.
+     */
+    public static OffHeapMutableMemory allocateAligned(long capacity, long alignment) {
+        return FixedOffHeapByteBufferMemory.allocateAligned(capacity, alignment);
+    }
+
+    /**
+     * Native byte order counterpart of {@link #allocateAligned(long, long)}.
+     */
+    public static OffHeapMutableMemory allocateAlignedNativeByteOrder(long capacity, long alignment) {
+        return FixedOffHeapNativeByteOrderMutableMemory.allocateAligned(capacity, alignment);
+    }
 }
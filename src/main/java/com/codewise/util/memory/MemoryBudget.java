@@ -0,0 +1,242 @@
+package com.codewise.util.memory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on memory allocated by memories charged to it. Every allocation and growth - heap arrays and pages as well
+ * as native blocks and pages - reserves its bytes up front, giving them back when memory shrinks, is released or
+ * becomes unreachable. When a reservation doesn't fit, the budget's {@link OverloadPolicy} decides whether to fail,
+ * wait or spill, so overload shows up as backpressure on allocating threads rather than as an
+ * {@link OutOfMemoryError}.
+ * <p>
+ * Sub-budgets created with {@link #child(String, long)} share the limit of their parent: a reservation has to fit
+ * in the budget and in all its ancestors.
+ * <p>
+ * Memory is charged to the budget current on the thread creating it - the one {@link #enter() entered} last or
+ * {@link #global()} - for its whole life:
+ * <pre>
+ * try (MemoryBudget.Scope ignored = ingestBudget.enter()) {
+ *     buffer = Buffers.allocateGrowable(1024);
+ * }
+ * </pre>
+ */
+public final class MemoryBudget {
+
+    public static final long GLOBAL_MAX_BYTES = Long.getLong("com.codewise.memoryBudgetMaxBytes", Long.MAX_VALUE);
+    public static final long GLOBAL_BLOCK_MILLIS = Long.getLong("com.codewise.memoryBudgetBlockMillis", 0);
+
+    private static final MemoryBudget GLOBAL = new MemoryBudget("global", GLOBAL_MAX_BYTES,
+            GLOBAL_BLOCK_MILLIS > 0 ? OverloadPolicy.block(GLOBAL_BLOCK_MILLIS, TimeUnit.MILLISECONDS) : OverloadPolicy.FAIL_FAST);
+
+    private static final ThreadLocal<MemoryBudget> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final long limit;
+    private final OverloadPolicy policy;
+    private final MemoryBudget parent;
+    private final Waiters waiters;
+
+    private final AtomicLong used = new AtomicLong();
+
+    public MemoryBudget(String name, long limit, OverloadPolicy policy) {
+        this(name, limit, policy, null);
+    }
+
+    private MemoryBudget(String name, long limit, OverloadPolicy policy, MemoryBudget parent) {
+        Preconditions.checkArgument(limit >= 0);
+
+        this.name = name;
+        this.limit = limit;
+        this.policy = policy;
+        this.parent = parent;
+        waiters = parent == null ? new Waiters() : parent.waiters;
+    }
+
+    /**
+     * Root budget used when no other has been entered. It is limited to {@code com.codewise.memoryBudgetMaxBytes}
+     * bytes and waits {@code com.codewise.memoryBudgetBlockMillis} for memory, if those are set. Unlimited, it
+     * doesn't count anything but the sub-budgets.
+     */
+    public static MemoryBudget global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Budget memory allocated by current thread is charged to.
+     */
+    public static MemoryBudget current() {
+        MemoryBudget budget = CURRENT.get();
+        return budget != null ? budget : GLOBAL;
+    }
+
+    /**
+     * Makes this budget current on this thread until returned scope is closed.
+     */
+    public Scope enter() {
+        MemoryBudget previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Sub-budget with given limit and the overload policy of this one.
+     */
+    public MemoryBudget child(String name, long limit) {
+        return child(name, limit, policy);
+    }
+
+    public MemoryBudget child(String name, long limit, OverloadPolicy policy) {
+        return new MemoryBudget(name, limit, policy, this);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public long limit() {
+        return limit;
+    }
+
+    public MemoryBudget parent() {
+        return parent;
+    }
+
+    public long used() {
+        return used.get();
+    }
+
+    /**
+     * Bytes that can still be reserved, taking limits of all ancestors into account.
+     */
+    public long available() {
+        long available = Long.MAX_VALUE;
+        for (MemoryBudget budget = this; budget != null && !budget.isUnbounded(); budget = budget.parent) {
+            available = Math.min(available, budget.limit - budget.used.get());
+        }
+        return Math.max(available, 0);
+    }
+
+    /**
+     * Whether this is a root budget without limit, which doesn't have to count anything.
+     */
+    boolean isUnbounded() {
+        return parent == null && limit == Long.MAX_VALUE;
+    }
+
+    /**
+     * Reserves given number of bytes, applying the overload policy if they don't fit.
+     *
+     * @throws MemoryBudgetExceededException when the policy gives up
+     */
+    public void reserve(long bytes) {
+        Preconditions.checkArgument(bytes >= 0);
+        if (!tryReserve(bytes)) {
+            policy.onExhausted(this, bytes);
+        }
+    }
+
+    /**
+     * Reserves given number of bytes if they fit right away.
+     */
+    public boolean tryReserve(long bytes) {
+        Preconditions.checkArgument(bytes >= 0);
+        for (MemoryBudget budget = this; budget != null && !budget.isUnbounded(); budget = budget.parent) {
+            if (!budget.tryAdd(bytes)) {
+                for (MemoryBudget reserved = this; reserved != budget; reserved = reserved.parent) {
+                    reserved.used.addAndGet(-bytes);
+                }
+                waiters.signal();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reserves given number of bytes, waiting up to given time for them to be given back if they don't fit.
+     */
+    public boolean tryReserve(long bytes, long timeout, TimeUnit unit) throws InterruptedException {
+        if (tryReserve(bytes)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (waiters) {
+            waiters.count++;
+            try {
+                while (!tryReserve(bytes)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(waiters, remaining);
+                }
+                return true;
+            } finally {
+                waiters.count--;
+            }
+        }
+    }
+
+    /**
+     * Gives back bytes reserved earlier, waking up anyone waiting for them.
+     */
+    public void release(long bytes) {
+        Preconditions.checkArgument(bytes >= 0);
+        for (MemoryBudget budget = this; budget != null && !budget.isUnbounded(); budget = budget.parent) {
+            budget.used.addAndGet(-bytes);
+        }
+        waiters.signal();
+    }
+
+    private boolean tryAdd(long bytes) {
+        long used;
+        do {
+            used = this.used.get();
+            if (bytes > limit - used) {
+                return false;
+            }
+        } while (!this.used.compareAndSet(used, used + bytes));
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + used() + "/" + limit + ")";
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final MemoryBudget previous;
+
+        private Scope(MemoryBudget previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Threads waiting for memory anywhere in a budget tree. Waiters count is checked after giving memory back and
+     * updated before trying to reserve it, so no wake-up is lost even though releasing doesn't lock.
+     */
+    private static final class Waiters {
+
+        volatile int count;
+
+        void signal() {
+            if (count > 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.codewise.util.memory;
+
+import java.nio.BufferOverflowException;
+
+/**
+ * Thrown when memory can't grow or be allocated because its {@link MemoryBudget} is exhausted.
+ */
+public class MemoryBudgetExceededException extends BufferOverflowException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String budgetName;
+    private final long requestedBytes;
+    private final long limit;
+
+    public MemoryBudgetExceededException(MemoryBudget budget, long requestedBytes) {
+        this.budgetName = budget.name();
+        this.requestedBytes = requestedBytes;
+        this.limit = budget.limit();
+    }
+
+    public String getBudgetName() {
+        return budgetName;
+    }
+
+    public long getRequestedBytes() {
+        return requestedBytes;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Can't reserve " + requestedBytes + " bytes from budget " + budgetName + " limited to " + limit + " bytes";
+    }
+}
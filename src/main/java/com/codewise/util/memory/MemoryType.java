@@ -1,5 +1,7 @@
 package com.codewise.util.memory;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -11,8 +13,8 @@ public enum MemoryType {
         }
 
         @Override
-        public MutableMemory allocateGrowableMemory(long size) {
-            return new GrowableSafeMutableMemory(size);
+        public MutableMemory allocateGrowableMemory(long size, GrowthPolicy growthPolicy) {
+            return new GrowableSafeMutableMemory(size, growthPolicy);
         }
 
         @Override
@@ -30,6 +32,21 @@ public enum MemoryType {
             return new PagedSafeMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
         }
 
+        @Override
+        public MutableMemory allocateSparsePagedMemory(int pageSizeBits, long capacity) {
+            return new PagedSafeMutableMemory(64, pageSizeBits, capacity, PagePool.shared(pageSizeBits), true);
+        }
+
+        @Override
+        public MutableMemory allocatePromotingGrowableMemory(long size) {
+            return new PromotingGrowableMutableMemory(this, size);
+        }
+
+        @Override
+        public MutableMemory allocateAdaptiveMemory(AllocationSite site, long expectedSize, long maxSize) {
+            return new AdaptiveMutableMemory(this, site, expectedSize, maxSize);
+        }
+
         @Override
         public Optional<Function<byte[], MutableMemory>> getByteArrayWrappingFactory() {
             return Constants.FNC_BYTE_ARRAY_TO_FIXED_SAFE;
@@ -42,8 +59,8 @@ public enum MemoryType {
         }
 
         @Override
-        public MutableMemory allocateGrowableMemory(long size) {
-            return new GrowableUnsafeMutableMemory(size);
+        public MutableMemory allocateGrowableMemory(long size, GrowthPolicy growthPolicy) {
+            return new GrowableUnsafeMutableMemory(size, growthPolicy);
         }
 
         @Override
@@ -61,6 +78,21 @@ public enum MemoryType {
             return new PagedUnsafeMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
         }
 
+        @Override
+        public MutableMemory allocateSparsePagedMemory(int pageSizeBits, long capacity) {
+            return new PagedUnsafeMutableMemory(64, pageSizeBits, capacity, PagePool.shared(pageSizeBits), true);
+        }
+
+        @Override
+        public MutableMemory allocatePromotingGrowableMemory(long size) {
+            return new PromotingGrowableMutableMemory(this, size);
+        }
+
+        @Override
+        public MutableMemory allocateAdaptiveMemory(AllocationSite site, long expectedSize, long maxSize) {
+            return new AdaptiveMutableMemory(this, site, expectedSize, maxSize);
+        }
+
         @Override
         public Optional<Function<byte[], MutableMemory>> getByteArrayWrappingFactory() {
             return Constants.FNC_BYTE_ARRAY_TO_FIXED_UNSAFE;
@@ -73,8 +105,8 @@ public enum MemoryType {
         }
 
         @Override
-        public MutableMemory allocateGrowableMemory(long size) {
-            return new GrowableUnsafeNativeByteOrderMutableMemory(size);
+        public MutableMemory allocateGrowableMemory(long size, GrowthPolicy growthPolicy) {
+            return new GrowableUnsafeNativeByteOrderMutableMemory(size, growthPolicy);
         }
 
         @Override
@@ -92,15 +124,143 @@ public enum MemoryType {
             return new PagedUnsafeNativeByteOrderMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
         }
 
+        @Override
+        public MutableMemory allocateSparsePagedMemory(int pageSizeBits, long capacity) {
+            return new PagedUnsafeNativeByteOrderMutableMemory(64, pageSizeBits, capacity, PagePool.shared(pageSizeBits), true);
+        }
+
+        @Override
+        public MutableMemory allocatePromotingGrowableMemory(long size) {
+            return new PromotingGrowableMutableMemory(this, size);
+        }
+
+        @Override
+        public MutableMemory allocateAdaptiveMemory(AllocationSite site, long expectedSize, long maxSize) {
+            return new AdaptiveMutableMemory(this, site, expectedSize, maxSize);
+        }
+
         @Override
         public Optional<Function<byte[], MutableMemory>> getByteArrayWrappingFactory() {
             return Constants.FNC_BYTE_ARRAY_TO_FIXED_UNSAFE_NATIVE_BYTE_ORDER;
         }
+    },
+    OFF_HEAP {
+        @Override
+        public MutableMemory allocateFixedMemory(long size) {
+            return new FixedOffHeapByteBufferMemory(size);
+        }
+
+        @Override
+        public MutableMemory allocateGrowableMemory(long size, GrowthPolicy growthPolicy) {
+            return new GrowableOffHeapMutableMemory(size, growthPolicy);
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory() {
+            return new PagedOffHeapMutableMemory();
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory(long size) {
+            return new PagedOffHeapMutableMemory(size);
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+            return new PagedOffHeapMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
+        }
+
+        @Override
+        public MutableMemory mapReadWrite(Path file, long size) throws IOException {
+            return MappedFileMutableMemory.mapReadWrite(file, size);
+        }
+    },
+    OFF_HEAP_NATIVE_BYTE_ORDER {
+        @Override
+        public MutableMemory allocateFixedMemory(long size) {
+            return new FixedOffHeapNativeByteOrderMutableMemory(size);
+        }
+
+        @Override
+        public MutableMemory allocateGrowableMemory(long size, GrowthPolicy growthPolicy) {
+            return new GrowableOffHeapNativeByteOrderMutableMemory(size, growthPolicy);
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory() {
+            return new PagedOffHeapNativeByteOrderMutableMemory();
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory(long size) {
+            return new PagedOffHeapNativeByteOrderMutableMemory(size);
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+            return new PagedOffHeapNativeByteOrderMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
+        }
+    },
+    /**
+     * Heap memory accessed through {@code java.lang.foreign.MemorySegment} instead of {@code Unsafe}, with bounds
+     * checked by the segments. Supported on Java 22 and newer only.
+     */
+    SEGMENT {
+        @Override
+        public boolean isSupported() {
+            return SegmentMemories.isSupported();
+        }
+
+        @Override
+        public MutableMemory allocateFixedMemory(long size) {
+            return SegmentMemories.allocateFixed(size);
+        }
+
+        @Override
+        public MutableMemory allocateGrowableMemory(long size, GrowthPolicy growthPolicy) {
+            return SegmentMemories.allocateGrowable(size, growthPolicy);
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory() {
+            return SegmentMemories.allocatePaged(64, 10, 0);
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory(long size) {
+            return SegmentMemories.allocatePaged(64, 10, size);
+        }
+
+        @Override
+        public MutableMemory allocatePagedMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+            return SegmentMemories.allocatePaged(pageCntGrow, pageSizeBits, initialCapacity);
+        }
+
+        @Override
+        public MutableMemory mapReadWrite(Path file, long size) throws IOException {
+            return SegmentMemories.mapReadWrite(file, size);
+        }
+
+        @Override
+        public Optional<Function<byte[], MutableMemory>> getByteArrayWrappingFactory() {
+            return SegmentMemories.isSupported() ? Constants.FNC_BYTE_ARRAY_TO_SEGMENT : Optional.empty();
+        }
     };
 
+    /**
+     * Whether memory of this type can be allocated on current JVM.
+     */
+    public boolean isSupported() {
+        return true;
+    }
+
     public abstract MutableMemory allocateFixedMemory(long size);
 
-    public abstract MutableMemory allocateGrowableMemory(long size);
+    public MutableMemory allocateGrowableMemory(long size) {
+        return allocateGrowableMemory(size, GrowthPolicy.DEFAULT);
+    }
+
+    public abstract MutableMemory allocateGrowableMemory(long size, GrowthPolicy growthPolicy);
 
     public abstract MutableMemory allocatePagedMemory();
 
@@ -108,6 +268,43 @@ public enum MemoryType {
 
     public abstract MutableMemory allocatePagedMemory(int pageCntGrow, int pageSizeBits, long initialCapacity);
 
+    /**
+     * Paged memory whose pages are allocated only when first written to, reading as zeros until then.
+     *
+     * @throws UnsupportedOperationException for off-heap memory types
+     */
+    public MutableMemory allocateSparsePagedMemory(int pageSizeBits, long capacity) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Growable memory starting as a single array and switching to paged memory when growing past the largest array.
+     *
+     * @throws UnsupportedOperationException for off-heap memory types
+     */
+    public MutableMemory allocatePromotingGrowableMemory(long size) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Memory starting as big as memory from given site usually needs, growing up to {@code maxSize} bytes and
+     * switching from array to pages when it gets large, see {@link AdaptiveMutableMemory}.
+     *
+     * @throws UnsupportedOperationException for off-heap memory types
+     */
+    public MutableMemory allocateAdaptiveMemory(AllocationSite site, long expectedSize, long maxSize) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Maps given file, creating it or changing its size to {@code size} bytes if needed.
+     *
+     * @throws UnsupportedOperationException for memory types other than {@link #OFF_HEAP} and {@link #SEGMENT}
+     */
+    public MutableMemory mapReadWrite(Path file, long size) throws IOException {
+        throw new UnsupportedOperationException();
+    }
+
     public Optional<Function<byte[], MutableMemory>> getByteArrayWrappingFactory() {
         return Optional.empty();
     }
@@ -117,5 +314,6 @@ public enum MemoryType {
         public static final Optional<Function<byte[], MutableMemory>> FNC_BYTE_ARRAY_TO_FIXED_SAFE = Optional.of(FixedSafeMutableMemory::new);
         public static final Optional<Function<byte[], MutableMemory>> FNC_BYTE_ARRAY_TO_FIXED_UNSAFE = Optional.of(FixedUnsafeMutableMemory::new);
         public static final Optional<Function<byte[], MutableMemory>> FNC_BYTE_ARRAY_TO_FIXED_UNSAFE_NATIVE_BYTE_ORDER = Optional.of(FixedUnsafeNativeByteOrderMutableMemory::new);
+        public static final Optional<Function<byte[], MutableMemory>> FNC_BYTE_ARRAY_TO_SEGMENT = Optional.of(SegmentMemories::wrap);
     }
 }
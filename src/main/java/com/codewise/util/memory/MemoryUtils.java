@@ -2,6 +2,9 @@ package com.codewise.util.memory;
 
 import com.codewise.util.lowlevel.MemoryAccess;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
 public class MemoryUtils {
 
     public static int compare(byte[] memory1, int offset1, byte[] memory2, int offset2, int length) {
@@ -43,4 +46,49 @@ public class MemoryUtils {
             return 0;
         }
     }
+
+    public static int compare(long address1, long address2, long length) {
+        for (long idx = length >>> 3; idx > 0; idx--) {
+            int cmp = Long.compareUnsigned(MemoryAccess.getLongUnsafe(null, address1), MemoryAccess.getLongUnsafe(null, address2));
+            if (cmp != 0) {
+                return cmp;
+            }
+            address1 += 8;
+            address2 += 8;
+        }
+        for (long idx = length & 0x7; idx > 0; idx--) {
+            int cmp = Integer.compare((int) MemoryAccess.getByteUnsafe(null, address1) & 0xFF, (int) MemoryAccess.getByteUnsafe(null, address2) & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+            address1++;
+            address2++;
+        }
+        return 0;
+    }
+
+    /**
+     * Views of contiguous off-heap memory, as few as size limit of a direct buffer allows. Views keep {@code owner}
+     * of the memory reachable.
+     */
+    static ByteBuffer[] directByteBuffers(long address, long length, Object owner) {
+        ByteBuffer[] views = new ByteBuffer[Math.toIntExact((length + Integer.MAX_VALUE - 1) / Integer.MAX_VALUE)];
+        for (int idx = 0; idx < views.length; idx++) {
+            int viewLength = (int) Math.min(length, Integer.MAX_VALUE);
+            views[idx] = MemoryAccess.newDirectByteBufferUnsafe(address, viewLength, owner);
+            address += viewLength;
+            length -= viewLength;
+        }
+        return views;
+    }
+
+    /**
+     * Checks that a slice of {@code length} bytes starting at {@code offset} fits in given memory.
+     */
+    static void checkSlice(ReadOnlyMemory memory, long offset, long length) {
+        Preconditions.checkArgument(offset >= 0 && length >= 0);
+        if (MemoryAccess.RANGE_CHECKS && offset + length > memory.capacity()) {
+            throw new BufferUnderflowException();
+        }
+    }
 }
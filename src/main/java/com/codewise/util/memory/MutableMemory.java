@@ -22,6 +22,11 @@ public interface MutableMemory extends ReadOnlyMemory {
 
     void put(long index, ReadOnlyMemory src, long offset, long length);
 
+    @Override
+    default MutableMemory slice(long offset, long length) {
+        return new MutableMemorySlice(this, offset, length);
+    }
+
     default void put(int index, byte b) {
         put((long) index, b);
     }
@@ -53,4 +58,9 @@ public interface MutableMemory extends ReadOnlyMemory {
     default void put(int index, ReadOnlyMemory src, int offset, int length) {
         put((long) index, src, (long) offset, (long) length);
     }
+
+    @Override
+    default MutableMemory slice(int offset, int length) {
+        return slice((long) offset, (long) length);
+    }
 }
@@ -0,0 +1,82 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+
+import java.nio.BufferOverflowException;
+
+/**
+ * Writable slice of any memory. Writes can't go past the slice, even if the memory could grow.
+ */
+class MutableMemorySlice extends ReadOnlyMemorySlice implements MutableMemory {
+
+    private final MutableMemory memory;
+
+    MutableMemorySlice(MutableMemory memory, long offset, long length) {
+        super(memory, offset, length);
+        this.memory = memory;
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        ensureCapacity(index + Byte.BYTES);
+        memory.put(offset + index, b);
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        ensureCapacity(index + Character.BYTES);
+        memory.putChar(offset + index, value);
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        ensureCapacity(index + Short.BYTES);
+        memory.putShort(offset + index, value);
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        ensureCapacity(index + Integer.BYTES);
+        memory.putInt(offset + index, value);
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        ensureCapacity(index + Long.BYTES);
+        memory.putLong(offset + index, value);
+    }
+
+    @Override
+    public void putDouble(long index, double value) {
+        ensureCapacity(index + Double.BYTES);
+        memory.putDouble(offset + index, value);
+    }
+
+    @Override
+    public void put(long index, byte[] src, int offset, int length) {
+        if (length > 0) {
+            ensureCapacity(index + length);
+        }
+        memory.put(this.offset + index, src, offset, length);
+    }
+
+    @Override
+    public void put(long index, ReadOnlyMemory src, long offset, long length) {
+        if (length > 0) {
+            ensureCapacity(index + length);
+        }
+        memory.put(this.offset + index, src, offset, length);
+    }
+
+    @Override
+    public MutableMemory slice(long offset, long length) {
+        MemoryUtils.checkSlice(this, offset, length);
+        return memory.slice(this.offset + offset, length);
+    }
+
+    private void ensureCapacity(long size) {
+        if (MemoryAccess.RANGE_CHECKS && size > length) {
+            throw new BufferOverflowException();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.codewise.util.memory;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Native memory owned by an off-heap {@link MutableMemory}, or heap memory charged to a {@link MemoryBudget}.
+ * <p>
+ * Memory is freed either explicitly with {@link #free()} or, as a safety net, by a daemon thread once its owner
+ * becomes phantom reachable - subclasses must never reference the owner, only the addresses.
+ */
+abstract class NativeAllocation extends PhantomReference<Object> {
+
+    private static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+    private static final Set<NativeAllocation> LIVE = ConcurrentHashMap.newKeySet();
+
+    static {
+        Thread cleaner = new Thread(NativeAllocation::cleanUp, "codewise-native-memory-cleaner");
+        cleaner.setDaemon(true);
+        cleaner.start();
+    }
+
+    private boolean freed;
+
+    protected NativeAllocation(Object owner) {
+        super(owner, QUEUE);
+        LIVE.add(this);
+    }
+
+    protected abstract void deallocate();
+
+    protected synchronized boolean isFreed() {
+        return freed;
+    }
+
+    synchronized void free() {
+        if (!freed) {
+            deallocate();
+            freed = true;
+        }
+        LIVE.remove(this);
+    }
+
+    private static void cleanUp() {
+        while (true) {
+            try {
+                ((NativeAllocation) QUEUE.remove()).free();
+            } catch (InterruptedException e) {
+                // daemon thread - keep draining the queue
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+
+/**
+ * Single block of zeroed native memory.
+ */
+final class NativeMemory extends NativeAllocation {
+
+    /**
+     * Alignment of every block returned by {@code Unsafe.allocateMemory}, enough for any primitive value.
+     */
+    static final long MALLOC_ALIGNMENT = Long.BYTES;
+
+    private final MemoryBudget budget;
+    private long address;
+    private long size;
+
+    private NativeMemory(Object owner, MemoryBudget budget, long address, long size) {
+        super(owner);
+        this.budget = budget;
+        this.address = address;
+        this.size = size;
+    }
+
+    /**
+     * Allocates block charged to the current {@link MemoryBudget}.
+     */
+    static NativeMemory allocate(Object owner, long size) {
+        Preconditions.checkArgument(size >= 0);
+        MemoryBudget budget = MemoryBudget.current();
+        budget.reserve(size);
+        long address;
+        try {
+            address = MemoryAccess.allocateMemoryUnsafe(size);
+        } catch (OutOfMemoryError e) {
+            budget.release(size);
+            throw e;
+        }
+        MemoryAccess.setMemoryUnsafe(address, size, (byte) 0);
+        return new NativeMemory(owner, budget, address, size);
+    }
+
+    /**
+     * Allocates block large enough to hold {@code size} bytes starting at the first address of the block aligned
+     * to {@code alignment}, see {@link #alignedAddress(long)}.
+     */
+    static NativeMemory allocateAligned(Object owner, long size, long alignment) {
+        Preconditions.checkArgument(alignment > 0 && Long.bitCount(alignment) == 1);
+        return allocate(owner, alignment <= MALLOC_ALIGNMENT ? size : size + alignment - 1);
+    }
+
+    synchronized long alignedAddress(long alignment) {
+        return (address + alignment - 1) & -alignment;
+    }
+
+    synchronized long address() {
+        return address;
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Resizes the block, zeroing any newly added bytes. Content up to the smaller of the sizes is preserved,
+     * but the block may be moved so the returned address has to be used from now on.
+     */
+    synchronized long reallocate(long newSize) {
+        Preconditions.checkArgument(newSize >= 0);
+        Preconditions.checkState(!isFreed());
+        long grownBy = Math.max(newSize - size, 0);
+        budget.reserve(grownBy);
+        long newAddress;
+        try {
+            newAddress = MemoryAccess.reallocateMemoryUnsafe(address, newSize);
+        } catch (OutOfMemoryError e) {
+            budget.release(grownBy);
+            throw e;
+        }
+        if (newSize < size) {
+            budget.release(size - newSize);
+        }
+        if (newSize > size) {
+            MemoryAccess.setMemoryUnsafe(newAddress + size, newSize - size, (byte) 0);
+        }
+        address = newAddress;
+        size = newSize;
+        return newAddress;
+    }
+
+    @Override
+    protected void deallocate() {
+        MemoryAccess.freeMemoryUnsafe(address);
+        budget.release(size);
+        address = 0;
+        size = 0;
+    }
+}
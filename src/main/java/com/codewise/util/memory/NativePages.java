@@ -0,0 +1,72 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+
+/**
+ * Equally sized blocks of zeroed native memory, tracked through the page table of their owner.
+ */
+final class NativePages extends NativeAllocation {
+
+    private final long pageSize;
+    private final MemoryBudget budget;
+
+    private long[] pages = new long[0];
+    private int pageCount;
+
+    /**
+     * Pages charged to the current {@link MemoryBudget}.
+     */
+    NativePages(Object owner, long pageSize) {
+        this(owner, pageSize, MemoryBudget.current());
+    }
+
+    NativePages(Object owner, long pageSize, MemoryBudget budget) {
+        super(owner);
+        this.pageSize = pageSize;
+        this.budget = budget;
+    }
+
+    MemoryBudget budget() {
+        return budget;
+    }
+
+    long allocatePage() {
+        budget.reserve(pageSize);
+        long address;
+        try {
+            address = MemoryAccess.allocateMemoryUnsafe(pageSize);
+        } catch (OutOfMemoryError e) {
+            budget.release(pageSize);
+            throw e;
+        }
+        MemoryAccess.setMemoryUnsafe(address, pageSize, (byte) 0);
+        return address;
+    }
+
+    /**
+     * Has to be called whenever the owner changes its page table, so that the pages can be freed on its behalf.
+     */
+    synchronized void track(long[] pages, int pageCount) {
+        this.pages = pages;
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * Frees tracked pages from given index on, clearing their entries in the page table.
+     */
+    synchronized void freePages(int fromIndex) {
+        for (int idx = fromIndex; idx < pageCount; idx++) {
+            if (pages[idx] != 0) {
+                MemoryAccess.freeMemoryUnsafe(pages[idx]);
+                budget.release(pageSize);
+                pages[idx] = 0;
+            }
+        }
+        pageCount = Math.min(pageCount, fromIndex);
+    }
+
+    @Override
+    protected void deallocate() {
+        freePages(0);
+    }
+}
@@ -10,6 +10,13 @@ public interface OffHeapMutableMemory extends MutableMemory {
 
     void wrap(long address, long capacity);
 
+    /**
+     * Largest power of two the address of this memory is a multiple of, 0 when there's no memory.
+     */
+    default long alignment() {
+        return Long.lowestOneBit(addressOffset());
+    }
+
     @Override
     default <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
         byte[] tempArray = THREAD_LOCAL_TEMP_BUFFER ? threadLocalTempBuffer.get() : new byte[Math.min((int) Math.min(length, Integer.MAX_VALUE), TEMP_BUFFER_MAX_SIZE)];
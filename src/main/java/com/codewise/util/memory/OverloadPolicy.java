@@ -0,0 +1,67 @@
+package com.codewise.util.memory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides what happens when an allocation doesn't fit in its {@link MemoryBudget}.
+ */
+@FunctionalInterface
+public interface OverloadPolicy {
+
+    /**
+     * Fails the allocation right away.
+     */
+    OverloadPolicy FAIL_FAST = (budget, bytes) -> {
+        throw new MemoryBudgetExceededException(budget, bytes);
+    };
+
+    /**
+     * Called when {@code bytes} can't be reserved from given budget. Returns only once they have been reserved.
+     *
+     * @throws MemoryBudgetExceededException when they can't be
+     */
+    void onExhausted(MemoryBudget budget, long bytes);
+
+    /**
+     * Waits up to given time for other allocations to give memory back to the budget, failing if they don't.
+     */
+    static OverloadPolicy block(long timeout, TimeUnit unit) {
+        Preconditions.checkArgument(timeout >= 0);
+        long timeoutNanos = unit.toNanos(timeout);
+        return (budget, bytes) -> {
+            try {
+                if (budget.tryReserve(bytes, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new MemoryBudgetExceededException(budget, bytes);
+        };
+    }
+
+    /**
+     * Asks the spiller to free memory, e.g. by moving cold data to disk, for as long as it manages to free anything.
+     * Spiller runs on the allocating thread.
+     */
+    static OverloadPolicy spill(Spiller spiller) {
+        return (budget, bytes) -> {
+            while (!budget.tryReserve(bytes)) {
+                if (spiller.spill(bytes) <= 0) {
+                    throw new MemoryBudgetExceededException(budget, bytes);
+                }
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Spiller {
+
+        /**
+         * Gives back to the budget at least {@code bytes}, if it can.
+         *
+         * @return number of bytes given back, zero when there is nothing left to spill
+         */
+        long spill(long bytes);
+    }
+}
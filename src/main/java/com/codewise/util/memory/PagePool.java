@@ -0,0 +1,180 @@
+package com.codewise.util.memory;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of zeroed heap pages of a single size. Each thread first uses its own small cache, pages that don't
+ * fit there go to a shared lock-free stack, pages that don't fit there either are left to GC.
+ * <p>
+ * Pool shared by all paged memories with given page size is returned by {@link #shared(int)}.
+ */
+public final class PagePool {
+
+    public static final long SHARED_POOL_MAX_BYTES = Long.getLong("com.codewise.pagePoolMaxBytes", 64L << 20);
+    public static final int THREAD_CACHE_SIZE = Integer.getInteger("com.codewise.pagePoolThreadCacheSize", 16);
+
+    private static final AtomicReferenceArray<PagePool> SHARED_POOLS = new AtomicReferenceArray<>(Integer.SIZE - 1);
+
+    private final int pageSize;
+    private final byte[] zeroPage;
+    private final int maxPooledPages;
+    private final ThreadLocal<ThreadCache> threadCache;
+
+    private final AtomicReference<Node> top = new AtomicReference<>();
+    private final AtomicInteger pooledPages = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PagePool(int pageSizeBits, long maxPooledBytes, int threadCacheSize) {
+        Preconditions.checkArgument(pageSizeBits >= 0 && pageSizeBits < Integer.SIZE - 1);
+        Preconditions.checkArgument(maxPooledBytes >= 0);
+        Preconditions.checkArgument(threadCacheSize >= 0);
+
+        pageSize = 1 << pageSizeBits;
+        zeroPage = new byte[pageSize];
+        maxPooledPages = (int) Math.min(maxPooledBytes >>> pageSizeBits, Integer.MAX_VALUE);
+        threadCache = ThreadLocal.withInitial(() -> new ThreadCache(threadCacheSize));
+    }
+
+    public static PagePool shared(int pageSizeBits) {
+        PagePool pool = SHARED_POOLS.get(pageSizeBits);
+        if (pool == null) {
+            SHARED_POOLS.compareAndSet(pageSizeBits, null, new PagePool(pageSizeBits, SHARED_POOL_MAX_BYTES, THREAD_CACHE_SIZE));
+            pool = SHARED_POOLS.get(pageSizeBits);
+        }
+        return pool;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Page of zeros shared by everyone using this pool. It must never be written to.
+     */
+    public byte[] zeroPage() {
+        return zeroPage;
+    }
+
+    /**
+     * Returns a zeroed page, reusing a pooled one if there is any.
+     */
+    public byte[] take() {
+        byte[] page = threadCache.get().pop();
+        if (page == null) {
+            page = popShared();
+        }
+        if (page != null) {
+            hits.increment();
+            return page;
+        }
+        misses.increment();
+        return new byte[pageSize];
+    }
+
+    /**
+     * Gives the page back to the pool. Caller must not use it any more.
+     */
+    public void give(byte[] page) {
+        Preconditions.checkArgument(page.length == pageSize);
+        ThreadCache cache = threadCache.get();
+        if (cache.hasRoom()) {
+            Arrays.fill(page, (byte) 0);
+            cache.push(page);
+        } else if (reserveSharedSlot()) {
+            Arrays.fill(page, (byte) 0);
+            pushShared(page);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * Number of pages in the shared part of the pool, not counting thread caches.
+     */
+    public int pooledPages() {
+        return pooledPages.get();
+    }
+
+    private boolean reserveSharedSlot() {
+        int pooled;
+        do {
+            pooled = pooledPages.get();
+            if (pooled >= maxPooledPages) {
+                return false;
+            }
+        } while (!pooledPages.compareAndSet(pooled, pooled + 1));
+        return true;
+    }
+
+    private void pushShared(byte[] page) {
+        Node node = new Node(page);
+        do {
+            node.next = top.get();
+        } while (!top.compareAndSet(node.next, node));
+    }
+
+    private byte[] popShared() {
+        Node node;
+        do {
+            node = top.get();
+            if (node == null) {
+                return null;
+            }
+        } while (!top.compareAndSet(node, node.next));
+        pooledPages.decrementAndGet();
+        return node.page;
+    }
+
+    private static final class Node {
+        final byte[] page;
+        Node next;
+
+        Node(byte[] page) {
+            this.page = page;
+        }
+    }
+
+    private static final class ThreadCache {
+        private final byte[][] pages;
+        private int size;
+
+        ThreadCache(int capacity) {
+            pages = new byte[capacity][];
+        }
+
+        boolean hasRoom() {
+            return size < pages.length;
+        }
+
+        void push(byte[] page) {
+            pages[size++] = page;
+        }
+
+        byte[] pop() {
+            if (size == 0) {
+                return null;
+            }
+            byte[] page = pages[--size];
+            pages[size] = null;
+            return page;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.codewise.util.memory;
+
+import static com.codewise.util.lowlevel.MemoryAccess.*;
+
+public class PagedOffHeapMutableMemory extends AbstractPagedOffHeapMutableMemory {
+
+    protected PagedOffHeapMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+        super(pageCntGrow, pageSizeBits, initialCapacity);
+    }
+
+    protected PagedOffHeapMutableMemory(int pageSizeBits, long[] pages, long capacity) {
+        super(pageSizeBits, pages, capacity);
+    }
+
+    protected PagedOffHeapMutableMemory() {
+        super();
+    }
+
+    protected PagedOffHeapMutableMemory(long size) {
+        super(size);
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        return getByteUnsafe(null, address(index));
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        ensureCapacity(index + Byte.BYTES);
+        setByteUnsafe(null, address(index), b);
+    }
+
+    @Override
+    public char getChar(long index) {
+        checkCapacity(index + Character.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            return getCharUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            byte b1 = getByteUnsafe(null, pageAddress(index) + pageAddr);
+            byte b0 = getByteUnsafe(null, pageAddress(index + 1));
+            return (char) ((b1 << 8) | (b0 & 0xff));
+        }
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        ensureCapacity(index + Character.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            setCharUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, value, Character.BYTES);
+        }
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            return getShortUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            byte b1 = getByteUnsafe(null, pageAddress(index) + pageAddr);
+            byte b0 = getByteUnsafe(null, pageAddress(index + 1));
+            return (short) ((b1 << 8) | (b0 & 0xff));
+        }
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        ensureCapacity(index + Short.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            setShortUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, value, Short.BYTES);
+        }
+    }
+
+    @Override
+    public int getInt(long index) {
+        long nextIndex = index + Integer.BYTES;
+        checkCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 3) {
+            return getIntUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            // see PagedUnsafeMutableMemory.getInt(long)
+            int msw = getIntUnsafe(null, pageAddress(index) + pageAddrMask - 3);
+            int lsw = getIntUnsafe(null, pageAddress(nextIndex - 1));
+
+            int lswBits = (int) (pageAddr & 0x3) << 3;
+            return (msw << lswBits) | (lsw >>> (32 - lswBits));
+        }
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        long nextIndex = index + Integer.BYTES;
+        ensureCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 3) {
+            setIntUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, value, Integer.BYTES);
+        }
+    }
+
+    @Override
+    public long getLong(long index) {
+        long nextIndex = index + Long.BYTES;
+        checkCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 7) {
+            return getLongUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            long msw = getLongUnsafe(null, pageAddress(index) + pageAddrMask - 7);
+            long lsw = getLongUnsafe(null, pageAddress(nextIndex - 1));
+
+            int lswBits = (int) (pageAddr & 0x7) << 3;
+            return (msw << lswBits) | (lsw >>> (64 - lswBits));
+        }
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        long nextIndex = index + Long.BYTES;
+        ensureCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 7) {
+            setLongUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, value, Long.BYTES);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.Bits;
+
+import static com.codewise.util.lowlevel.MemoryAccess.*;
+
+public class PagedOffHeapNativeByteOrderMutableMemory extends AbstractPagedOffHeapMutableMemory {
+
+    protected PagedOffHeapNativeByteOrderMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+        super(pageCntGrow, pageSizeBits, initialCapacity);
+    }
+
+    protected PagedOffHeapNativeByteOrderMutableMemory() {
+        super();
+    }
+
+    protected PagedOffHeapNativeByteOrderMutableMemory(long size) {
+        super(size);
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        return getByteUnsafe(null, address(index));
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        ensureCapacity(index + Byte.BYTES);
+        setByteUnsafe(null, address(index), b);
+    }
+
+    @Override
+    public char getChar(long index) {
+        checkCapacity(index + Character.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            return getNativeByteOrderCharUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            byte b0 = getByteUnsafe(null, pageAddress(index) + pageAddr);
+            byte b1 = getByteUnsafe(null, pageAddress(index + 1));
+            return Bits.asChar(b0, b1);
+        }
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        ensureCapacity(index + Character.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            setNativeByteOrderCharUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, Bits.correctBites(value), Character.BYTES);
+        }
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            return getNativeByteOrderShortUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            byte b0 = getByteUnsafe(null, pageAddress(index) + pageAddr);
+            byte b1 = getByteUnsafe(null, pageAddress(index + 1));
+            return Bits.asShort(b0, b1);
+        }
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        ensureCapacity(index + Short.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            setNativeByteOrderShortUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, Bits.correctBites(value), Short.BYTES);
+        }
+    }
+
+    @Override
+    public int getInt(long index) {
+        long nextIndex = index + Integer.BYTES;
+        checkCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 3) {
+            return getNativeByteOrderIntUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            int i0 = getNativeByteOrderIntUnsafe(null, pageAddress(index) + pageAddrMask - 3);
+            int i1 = getNativeByteOrderIntUnsafe(null, pageAddress(nextIndex - 1));
+
+            return Bits.asInt(i0, i1, (int) (pageAddr & 0x3) << 3);
+        }
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        long nextIndex = index + Integer.BYTES;
+        ensureCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 3) {
+            setNativeByteOrderIntUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, Bits.correctBites(value), Integer.BYTES);
+        }
+    }
+
+    @Override
+    public long getLong(long index) {
+        long nextIndex = index + Long.BYTES;
+        checkCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 7) {
+            return getNativeByteOrderLongUnsafe(null, pageAddress(index) + pageAddr);
+        } else {
+            long l0 = getNativeByteOrderLongUnsafe(null, pageAddress(index) + pageAddrMask - 7);
+            long l1 = getNativeByteOrderLongUnsafe(null, pageAddress(nextIndex - 1));
+
+            return Bits.asLong(l0, l1, (int) (pageAddr & 0x7) << 3);
+        }
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        long nextIndex = index + Long.BYTES;
+        ensureCapacity(nextIndex);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - 7) {
+            setNativeByteOrderLongUnsafe(null, pageAddress(index) + pageAddr, value);
+        } else {
+            putAcrossPages(index, Bits.correctBites(value), Long.BYTES);
+        }
+    }
+}
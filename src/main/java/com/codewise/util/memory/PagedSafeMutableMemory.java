@@ -10,6 +10,10 @@ public class PagedSafeMutableMemory extends AbstractPagedMutableMemory {
         super(pageCntGrow, pageSizeBits, initialCapacity);
     }
 
+    protected PagedSafeMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity, PagePool pagePool, boolean sparse) {
+        super(pageCntGrow, pageSizeBits, initialCapacity, pagePool, sparse);
+    }
+
     protected PagedSafeMutableMemory() {
     }
 
@@ -17,6 +21,15 @@ public class PagedSafeMutableMemory extends AbstractPagedMutableMemory {
         super(size);
     }
 
+    protected PagedSafeMutableMemory(PagedSafeMutableMemory source) {
+        super(source);
+    }
+
+    @Override
+    protected AbstractPagedMutableMemory newSnapshot() {
+        return new PagedSafeMutableMemory(this);
+    }
+
     @Override
     protected byte[] getMemoryPageAsByteArray(long offset) {
         return memory[toIntExact(offset >>> pageSizeBits)];
@@ -31,7 +44,7 @@ public class PagedSafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void put(long index, byte b) {
-        ensureCapacity(index + Byte.BYTES);
+        ensureWritable(index, Byte.BYTES);
         byte[] page = memory[toIntExact(index >>> pageSizeBits)];
         page[(int) (index & pageAddrMask)] = b;
     }
@@ -56,7 +69,7 @@ public class PagedSafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void putChar(long index, char value) {
-        ensureCapacity(index + Character.BYTES);
+        ensureWritable(index, Character.BYTES);
         long pageAddrMask = this.pageAddrMask;
         int pageAddr = (int) (index & pageAddrMask);
         if (pageAddr < pageAddrMask) {
@@ -93,7 +106,7 @@ public class PagedSafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void putShort(long index, short value) {
-        ensureCapacity(index + Short.BYTES);
+        ensureWritable(index, Short.BYTES);
         long pageAddrMask = this.pageAddrMask;
         int pageAddr = (int) (index & pageAddrMask);
         if (pageAddr < pageAddrMask) {
@@ -148,7 +161,7 @@ public class PagedSafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void putInt(long index, int value) {
-        ensureCapacity(index + Integer.BYTES);
+        ensureWritable(index, Integer.BYTES);
         long pageAddrMask = this.pageAddrMask;
         int pageAddr = (int) (index & pageAddrMask);
         if (pageAddr <= pageAddrMask - 3) {
@@ -239,7 +252,7 @@ public class PagedSafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void putLong(long index, long value) {
-        ensureCapacity(index + Long.BYTES);
+        ensureWritable(index, Long.BYTES);
         long pageAddrMask = this.pageAddrMask;
         int pageAddr = (int) (index & pageAddrMask);
         if (pageAddr <= pageAddrMask - 7) {
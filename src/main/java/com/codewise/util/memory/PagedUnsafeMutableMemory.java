@@ -1,7 +1,6 @@
 package com.codewise.util.memory;
 
 import com.codewise.util.lowlevel.MemoryAccess;
-import sun.misc.Unsafe;
 
 import static com.codewise.util.lowlevel.MemoryAccess.*;
 
@@ -10,8 +9,8 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
     public static final int ARRAY_OBJECT_INDEX_SCALE_BITS;
 
     static {
-        Preconditions.checkArgument(isPositiveAndPowerOf2(Unsafe.ARRAY_OBJECT_INDEX_SCALE));
-        ARRAY_OBJECT_INDEX_SCALE_BITS = Integer.numberOfTrailingZeros(Unsafe.ARRAY_OBJECT_INDEX_SCALE);
+        Preconditions.checkArgument(isPositiveAndPowerOf2((int) ARRAY_OBJECT_INDEX_SCALE));
+        ARRAY_OBJECT_INDEX_SCALE_BITS = Long.numberOfTrailingZeros(ARRAY_OBJECT_INDEX_SCALE);
     }
 
     private final long pageIndexMask;
@@ -23,6 +22,12 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
         pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
     }
 
+    protected PagedUnsafeMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity, PagePool pagePool, boolean sparse) {
+        super(pageCntGrow, pageSizeBits, initialCapacity, pagePool, sparse);
+        pageIndexMask = ~pageAddrMask;
+        pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
+    }
+
     protected PagedUnsafeMutableMemory() {
         super();
         pageIndexMask = ~pageAddrMask;
@@ -35,6 +40,17 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
         pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
     }
 
+    protected PagedUnsafeMutableMemory(PagedUnsafeMutableMemory source) {
+        super(source);
+        pageIndexMask = ~pageAddrMask;
+        pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
+    }
+
+    @Override
+    protected AbstractPagedMutableMemory newSnapshot() {
+        return new PagedUnsafeMutableMemory(this);
+    }
+
     private long toScaledMemoryPageIndex(long index) {
         return (index & pageIndexMask) >>> pageIndexScaleBits;
     }
@@ -53,7 +69,7 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void put(long index, byte b) {
-        ensureCapacity(index + Byte.BYTES);
+        ensureWritable(index, Byte.BYTES);
         Object page = getObjectUnsafe(memory, ARRAY_OBJECT_BASE_OFFSET + toScaledMemoryPageIndex(index));
         setByteUnsafe(page, ARRAY_BYTE_BASE_OFFSET + (index & pageAddrMask), b);
     }
@@ -78,7 +94,7 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void putChar(long index, char value) {
-        ensureCapacity(index + Character.BYTES);
+        ensureWritable(index, Character.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long pageOffset = ARRAY_OBJECT_BASE_OFFSET + toScaledMemoryPageIndex(index);
@@ -115,7 +131,7 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
 
     @Override
     public void putShort(long index, short value) {
-        ensureCapacity(index + Short.BYTES);
+        ensureWritable(index, Short.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long pageOffset = ARRAY_OBJECT_BASE_OFFSET + toScaledMemoryPageIndex(index);
@@ -180,7 +196,7 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
     @Override
     public void putInt(long index, int value) {
         long nextIndex = index + Integer.BYTES;
-        ensureCapacity(nextIndex);
+        ensureWritable(index, Integer.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long memoryOffset = toScaledMemoryPageIndex(index);
@@ -244,7 +260,7 @@ public class PagedUnsafeMutableMemory extends AbstractPagedMutableMemory {
     @Override
     public void putLong(long index, long value) {
         long nextIndex = index + Long.BYTES;
-        ensureCapacity(nextIndex);
+        ensureWritable(index, Long.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long memoryOffset = toScaledMemoryPageIndex(index);
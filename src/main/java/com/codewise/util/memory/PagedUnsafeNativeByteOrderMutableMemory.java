@@ -2,7 +2,6 @@ package com.codewise.util.memory;
 
 import com.codewise.util.lowlevel.Bits;
 import com.codewise.util.lowlevel.MemoryAccess;
-import sun.misc.Unsafe;
 
 import static com.codewise.util.lowlevel.MemoryAccess.*;
 
@@ -11,8 +10,8 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
     public static final int ARRAY_OBJECT_INDEX_SCALE_BITS;
 
     static {
-        Preconditions.checkArgument(isPositiveAndPowerOf2(Unsafe.ARRAY_OBJECT_INDEX_SCALE));
-        ARRAY_OBJECT_INDEX_SCALE_BITS = Integer.numberOfTrailingZeros(Unsafe.ARRAY_OBJECT_INDEX_SCALE);
+        Preconditions.checkArgument(isPositiveAndPowerOf2((int) ARRAY_OBJECT_INDEX_SCALE));
+        ARRAY_OBJECT_INDEX_SCALE_BITS = Long.numberOfTrailingZeros(ARRAY_OBJECT_INDEX_SCALE);
     }
 
     private final long pageIndexMask;
@@ -24,6 +23,12 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
         pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
     }
 
+    protected PagedUnsafeNativeByteOrderMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity, PagePool pagePool, boolean sparse) {
+        super(pageCntGrow, pageSizeBits, initialCapacity, pagePool, sparse);
+        pageIndexMask = ~pageAddrMask;
+        pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
+    }
+
     protected PagedUnsafeNativeByteOrderMutableMemory() {
         super();
         pageIndexMask = ~pageAddrMask;
@@ -36,6 +41,17 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
         pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
     }
 
+    protected PagedUnsafeNativeByteOrderMutableMemory(PagedUnsafeNativeByteOrderMutableMemory source) {
+        super(source);
+        pageIndexMask = ~pageAddrMask;
+        pageIndexScaleBits = pageSizeBits - ARRAY_OBJECT_INDEX_SCALE_BITS;
+    }
+
+    @Override
+    protected AbstractPagedMutableMemory newSnapshot() {
+        return new PagedUnsafeNativeByteOrderMutableMemory(this);
+    }
+
     private long toScaledMemoryPageIndex(long index) {
         return (index & pageIndexMask) >>> pageIndexScaleBits;
     }
@@ -54,7 +70,7 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
 
     @Override
     public void put(long index, byte b) {
-        ensureCapacity(index + Byte.BYTES);
+        ensureWritable(index, Byte.BYTES);
         Object page = getObjectUnsafe(memory, ARRAY_OBJECT_BASE_OFFSET + toScaledMemoryPageIndex(index));
         setByteUnsafe(page, ARRAY_BYTE_BASE_OFFSET + (index & pageAddrMask), b);
     }
@@ -79,7 +95,7 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
 
     @Override
     public void putChar(long index, char value) {
-        ensureCapacity(index + Character.BYTES);
+        ensureWritable(index, Character.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long pageOffset = ARRAY_OBJECT_BASE_OFFSET + toScaledMemoryPageIndex(index);
@@ -114,7 +130,7 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
 
     @Override
     public void putShort(long index, short value) {
-        ensureCapacity(index + Short.BYTES);
+        ensureWritable(index, Short.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long pageOffset = ARRAY_OBJECT_BASE_OFFSET + toScaledMemoryPageIndex(index);
@@ -155,7 +171,7 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
     @Override
     public void putInt(long index, int value) {
         long nextIndex = index + Integer.BYTES;
-        ensureCapacity(nextIndex);
+        ensureWritable(index, Integer.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long memoryOffset = toScaledMemoryPageIndex(index);
@@ -219,7 +235,7 @@ public class PagedUnsafeNativeByteOrderMutableMemory extends AbstractPagedMutabl
     @Override
     public void putLong(long index, long value) {
         long nextIndex = index + Long.BYTES;
-        ensureCapacity(nextIndex);
+        ensureWritable(index, Long.BYTES);
         long pageAddrMask = this.pageAddrMask;
         long pageAddr = index & pageAddrMask;
         long memoryOffset = toScaledMemoryPageIndex(index);
@@ -0,0 +1,244 @@
+package com.codewise.util.memory;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Growable heap memory starting as a single array, which switches to paged memory once it has to grow past
+ * the promotion threshold - by default the largest array. Small memory keeps fast array access, large one is no
+ * longer limited to {@link Integer#MAX_VALUE} bytes. Content is copied once, on promotion; users of this instance,
+ * e.g. a buffer wrapping it, don't notice the switch.
+ */
+public class PromotingGrowableMutableMemory extends AbstractMutableMemory implements ReleasableMemory {
+
+    public static final int DEFAULT_PAGE_SIZE_BITS = 20;
+
+    protected final MemoryType memoryType;
+    protected final long promotionThreshold;
+    protected final int pageSizeBits;
+    protected final GrowthPolicy growthPolicy;
+
+    private AbstractMutableMemory memory;
+    private boolean promoted;
+
+    /**
+     * Writes and growth beyond this capacity go through {@link #capacityLimitExceeded(long)}.
+     */
+    protected long capacityLimit;
+
+    protected PromotingGrowableMutableMemory(MemoryType memoryType, long size) {
+        this(memoryType, size, GrowableUnsafeMutableMemory.MAX_ARRAY_SIZE, DEFAULT_PAGE_SIZE_BITS);
+    }
+
+    protected PromotingGrowableMutableMemory(MemoryType memoryType, long size, long promotionThreshold, int pageSizeBits) {
+        this(memoryType, size, promotionThreshold, pageSizeBits, GrowthPolicy.DEFAULT);
+    }
+
+    /**
+     * @param growthPolicy how the array grows before promotion, paged memory grows page by page
+     */
+    protected PromotingGrowableMutableMemory(MemoryType memoryType, long size, long promotionThreshold, int pageSizeBits,
+                                             GrowthPolicy growthPolicy) {
+        super(MemoryBudget.current());
+        Preconditions.checkArgument(promotionThreshold > 0 && promotionThreshold <= GrowableUnsafeMutableMemory.MAX_ARRAY_SIZE);
+
+        this.memoryType = memoryType;
+        this.promotionThreshold = promotionThreshold;
+        this.pageSizeBits = pageSizeBits;
+        this.growthPolicy = growthPolicy;
+
+        if (size > promotionThreshold) {
+            memory = (AbstractMutableMemory) memoryType.allocatePagedMemory(64, pageSizeBits, size);
+            promoted = true;
+            capacityLimit = Long.MAX_VALUE;
+        } else {
+            memory = (AbstractMutableMemory) memoryType.allocateGrowableMemory(size, growthPolicy);
+            capacityLimit = promotionThreshold;
+        }
+    }
+
+    /**
+     * Whether content has been moved to paged memory.
+     */
+    public boolean isPromoted() {
+        return promoted;
+    }
+
+    /**
+     * Called before memory grows to {@code requiredCapacity} beyond the capacity limit. Promotes memory, if that's
+     * not been done yet.
+     */
+    protected void capacityLimitExceeded(long requiredCapacity) {
+        if (!promoted) {
+            promote(requiredCapacity);
+        }
+    }
+
+    private void promote(long requiredCapacity) {
+        AbstractMutableMemory paged;
+        MemoryBudget.Scope scope = budget().enter();
+        try {
+            paged = (AbstractMutableMemory) memoryType.allocatePagedMemory(64, pageSizeBits, Math.max(requiredCapacity, memory.capacity()));
+        } finally {
+            scope.close();
+        }
+        paged.put(0, memory, 0, memory.capacity());
+        memory.refundBudget(memory.capacity());
+        memory = paged;
+        promoted = true;
+        capacityLimit = Long.MAX_VALUE;
+    }
+
+    /**
+     * Gives back all memory, starting over as an empty array.
+     */
+    @Override
+    public void release() {
+        if (memory instanceof ReleasableMemory) {
+            ((ReleasableMemory) memory).release();
+        } else {
+            memory.refundBudget(memory.capacity());
+        }
+        MemoryBudget.Scope scope = budget().enter();
+        try {
+            memory = (AbstractMutableMemory) memoryType.allocateGrowableMemory(0, growthPolicy);
+        } finally {
+            scope.close();
+        }
+        promoted = false;
+        capacityLimit = promotionThreshold;
+    }
+
+    @Override
+    public long capacity() {
+        return memory.capacity();
+    }
+
+    @Override
+    protected int getPageOffset(long index) {
+        return memory.getPageOffset(index);
+    }
+
+    @Override
+    protected int getPageLength(long index) {
+        return memory.getPageLength(index);
+    }
+
+    @Override
+    protected byte[] getMemoryPageAsByteArray(long offset) {
+        return memory.getMemoryPageAsByteArray(offset);
+    }
+
+    @Override
+    protected void checkCapacity(long size) {
+        memory.checkCapacity(size);
+    }
+
+    @Override
+    protected void ensureCapacity(long size) {
+        if (size > capacityLimit) {
+            capacityLimitExceeded(size);
+        }
+        memory.ensureCapacity(size);
+    }
+
+    @Override
+    public byte get(long index) {
+        return memory.get(index);
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        if (index + Byte.BYTES > capacityLimit) {
+            capacityLimitExceeded(index + Byte.BYTES);
+        }
+        memory.put(index, b);
+    }
+
+    @Override
+    public char getChar(long index) {
+        return memory.getChar(index);
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        if (index + Character.BYTES > capacityLimit) {
+            capacityLimitExceeded(index + Character.BYTES);
+        }
+        memory.putChar(index, value);
+    }
+
+    @Override
+    public short getShort(long index) {
+        return memory.getShort(index);
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        if (index + Short.BYTES > capacityLimit) {
+            capacityLimitExceeded(index + Short.BYTES);
+        }
+        memory.putShort(index, value);
+    }
+
+    @Override
+    public int getInt(long index) {
+        return memory.getInt(index);
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        if (index + Integer.BYTES > capacityLimit) {
+            capacityLimitExceeded(index + Integer.BYTES);
+        }
+        memory.putInt(index, value);
+    }
+
+    @Override
+    public long getLong(long index) {
+        return memory.getLong(index);
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        if (index + Long.BYTES > capacityLimit) {
+            capacityLimitExceeded(index + Long.BYTES);
+        }
+        memory.putLong(index, value);
+    }
+
+    @Override
+    public void get(long index, byte[] dst, int offset, int length) {
+        memory.get(index, dst, offset, length);
+    }
+
+    @Override
+    public void get(long index, ByteBuffer buf) {
+        memory.get(index, buf);
+    }
+
+    @Override
+    public void put(long index, byte[] src, int offset, int length) {
+        if (index + length > capacityLimit) {
+            capacityLimitExceeded(index + length);
+        }
+        memory.put(index, src, offset, length);
+    }
+
+    @Override
+    public void put(long index, ReadOnlyMemory src, long offset, long length) {
+        if (index + length > capacityLimit) {
+            capacityLimitExceeded(index + length);
+        }
+        memory.put(index, src, offset, length);
+    }
+
+    @Override
+    public int compare(long index, ReadOnlyMemory src, long offset, long length) {
+        return memory.compare(index, src, offset, length);
+    }
+
+    @Override
+    public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
+        memory.iterateOverMemory(consumerInstance, consumerMethod, offset, length);
+    }
+}
@@ -1,5 +1,6 @@
 package com.codewise.util.memory;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 
 public interface ReadOnlyMemory extends MemoryIterator {
@@ -28,6 +29,45 @@ public interface ReadOnlyMemory extends MemoryIterator {
 
     int compare(long index, ReadOnlyMemory that, long offset, long length);
 
+    /**
+     * NIO views of {@code length} bytes starting at {@code index}, one for each contiguous part of this memory, e.g.
+     * a page. Views share content with this memory instead of copying it and are big endian, whatever the byte order
+     * of the memory. They are valid until the memory is resized or released.
+     * <p>
+     * By default the bytes are copied to heap buffers instead, so they don't see later changes; memory which can
+     * share its content should override it.
+     *
+     * @throws BufferUnderflowException when the bytes exceed capacity
+     */
+    default ByteBuffer[] asNioByteBuffers(long index, long length) {
+        Preconditions.checkArgument(index >= 0 && length >= 0);
+        if (index + length > capacity()) {
+            throw new BufferUnderflowException();
+        }
+        int maxBufferSize = GrowableUnsafeMutableMemory.MAX_ARRAY_SIZE;
+        ByteBuffer[] buffers = new ByteBuffer[(int) ((length + maxBufferSize - 1) / maxBufferSize)];
+        for (int idx = 0; idx < buffers.length; idx++) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, maxBufferSize));
+            get(index, buffer);
+            buffer.flip();
+            buffers[idx] = buffer;
+            index += buffer.limit();
+            length -= buffer.limit();
+        }
+        return buffers;
+    }
+
+    /**
+     * View of {@code length} bytes starting at {@code offset}, sharing content with this memory. Indexes of the view
+     * start at {@code offset} and are range checked against the view only. Like NIO views, it is valid until this
+     * memory is resized or released.
+     *
+     * @throws java.nio.BufferUnderflowException when the bytes exceed capacity
+     */
+    default ReadOnlyMemory slice(long offset, long length) {
+        return new ReadOnlyMemorySlice(this, offset, length);
+    }
+
     default byte get(int index) {
         return get((long) index);
     }
@@ -63,4 +103,12 @@ public interface ReadOnlyMemory extends MemoryIterator {
     default int compare(int index, ReadOnlyMemory that, int offset, int length) {
         return compare((long) index, that, (long) offset, (long) length);
     }
+
+    default ByteBuffer[] asNioByteBuffers(int index, int length) {
+        return asNioByteBuffers((long) index, (long) length);
+    }
+
+    default ReadOnlyMemory slice(int offset, int length) {
+        return slice((long) offset, (long) length);
+    }
 }
@@ -0,0 +1,131 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Slice of any memory, adding its offset to indexes and delegating to the typed accessors of the memory.
+ */
+class ReadOnlyMemorySlice implements ReadOnlyMemory {
+
+    private final ReadOnlyMemory memory;
+    protected final long offset;
+    protected final long length;
+
+    ReadOnlyMemorySlice(ReadOnlyMemory memory, long offset, long length) {
+        MemoryUtils.checkSlice(memory, offset, length);
+        this.memory = memory;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public long capacity() {
+        return length;
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        return memory.get(offset + index);
+    }
+
+    @Override
+    public char getChar(long index) {
+        checkCapacity(index + Character.BYTES);
+        return memory.getChar(offset + index);
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        return memory.getShort(offset + index);
+    }
+
+    @Override
+    public int getInt(long index) {
+        checkCapacity(index + Integer.BYTES);
+        return memory.getInt(offset + index);
+    }
+
+    @Override
+    public long getLong(long index) {
+        checkCapacity(index + Long.BYTES);
+        return memory.getLong(offset + index);
+    }
+
+    @Override
+    public double getDouble(long index) {
+        checkCapacity(index + Double.BYTES);
+        return memory.getDouble(offset + index);
+    }
+
+    @Override
+    public void get(long index, byte[] dst, int offset, int length) {
+        if (length > 0) {
+            checkCapacity(index + 1);
+            memory.get(this.offset + index, dst, offset, (int) Math.min(this.length - index, length));
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public void get(long index, ByteBuffer buf) {
+        if (buf.hasRemaining()) {
+            checkCapacity(index + 1);
+            int limit = buf.limit();
+            buf.limit(buf.position() + (int) Math.min(length - index, buf.remaining()));
+            try {
+                memory.get(offset + index, buf);
+            } finally {
+                buf.limit(limit);
+            }
+        }
+    }
+
+    @Override
+    public int compare(long index, ReadOnlyMemory that, long offset, long length) {
+        if (length > 0) {
+            checkCapacity(index + length);
+        }
+        return memory.compare(this.offset + index, that, offset, length);
+    }
+
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        Preconditions.checkArgument(length >= 0);
+        checkCapacity(index + length);
+        return memory.asNioByteBuffers(offset + index, length);
+    }
+
+    @Override
+    public ReadOnlyMemory slice(long offset, long length) {
+        MemoryUtils.checkSlice(this, offset, length);
+        return memory.slice(this.offset + offset, length);
+    }
+
+    @Override
+    public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
+        if (length > 0) {
+            checkCapacity(offset + length);
+        }
+        memory.iterateOverMemory(consumerInstance, consumerMethod, this.offset + offset, length);
+    }
+
+    @Override
+    public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length, byte[] tempArray) {
+        if (length > 0) {
+            checkCapacity(offset + length);
+        }
+        memory.iterateOverMemory(consumerInstance, consumerMethod, this.offset + offset, length, tempArray);
+    }
+
+    protected void checkCapacity(long size) {
+        if (MemoryAccess.RANGE_CHECKS && size > length) {
+            throw new BufferUnderflowException();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.codewise.util.memory;
+
+/**
+ * Memory owning resources that can be given back before it becomes garbage.
+ */
+public interface ReleasableMemory extends MutableMemory {
+
+    /**
+     * Gives back memory owned by this instance. Idempotent - after the first call the memory is empty
+     * and must not be accessed any more.
+     */
+    void release();
+}
@@ -0,0 +1,24 @@
+package com.codewise.util.memory;
+
+/**
+ * Memory whose capacity, besides growing on demand, can be set up front and given back.
+ */
+public interface ResizableMemory extends MutableMemory {
+
+    /**
+     * Grows capacity to at least {@code capacity} bytes in one go.
+     */
+    void reserve(long capacity);
+
+    /**
+     * Gives back capacity beyond {@code size} bytes, rounded up to the memory's unit of allocation. Content up to
+     * the new capacity is kept.
+     */
+    void trimToSize(long size);
+
+    /**
+     * Discards content from {@code size} on and gives back capacity beyond it, like {@link #trimToSize(long)}.
+     * Bytes from {@code size} on read as zeros afterwards, also after the memory grows again.
+     */
+    void truncate(long size);
+}
@@ -0,0 +1,43 @@
+package com.codewise.util.memory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Factories of {@link MemoryType#SEGMENT} memory. This is the Java 8 version - memory built on
+ * {@code java.lang.foreign.MemorySegment} needs Java 22 and comes from {@code META-INF/versions/22} of the
+ * multi-release jar.
+ */
+final class SegmentMemories {
+
+    private SegmentMemories() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    static MutableMemory allocateFixed(long size) {
+        throw unsupported();
+    }
+
+    static MutableMemory allocateGrowable(long size, GrowthPolicy growthPolicy) {
+        throw unsupported();
+    }
+
+    static MutableMemory allocatePaged(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+        throw unsupported();
+    }
+
+    static MutableMemory wrap(byte[] bytes) {
+        throw unsupported();
+    }
+
+    static MutableMemory mapReadWrite(Path file, long size) throws IOException {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("MemorySegment based memory needs Java 22");
+    }
+}
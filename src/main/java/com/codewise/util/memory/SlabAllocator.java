@@ -0,0 +1,185 @@
+package com.codewise.util.memory;
+
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+
+/**
+ * Allocates variable size blocks inside a region of a {@link MutableMemory}. The region is split into equally sized
+ * slabs, each slab is given to a single size class on first need and then cut into blocks of that class. Sizes are
+ * rounded up to one of 4 classes per power of two (8, 16, 24, 32, 40, 48, 56, 64, 80, 96, ...), so at most 20% of
+ * a larger block is wasted.
+ * <p>
+ * Freed blocks are kept on per-class lists linked through their first 8 bytes, so no bookkeeping is allocated on
+ * the heap per block. Slabs stay with their class once given to it. Not thread safe.
+ */
+public class SlabAllocator {
+
+    public static final int MIN_BLOCK_SIZE = Long.BYTES;
+    public static final int MIN_SLAB_SIZE_BITS = 6;
+
+    private static final long NULL = -1L;
+    private static final byte UNASSIGNED = -1;
+
+    private final MutableMemory memory;
+    private final long regionOffset;
+    private final int slabSizeBits;
+    private final long slabSize;
+
+    private final int[] classSizes;
+    private final byte[] slabClasses;
+    private int assignedSlabs;
+
+    private final long[] freeLists;
+    private final long[] bumpOffsets;
+    private final long[] bumpLimits;
+    private final long[] allocatedBlocks;
+
+    private long usedBytes;
+
+    public SlabAllocator(MutableMemory memory, int slabSizeBits) {
+        this(memory, 0, memory.capacity(), slabSizeBits);
+    }
+
+    public SlabAllocator(MutableMemory memory, long regionOffset, long regionLength, int slabSizeBits) {
+        Preconditions.checkArgument(slabSizeBits >= MIN_SLAB_SIZE_BITS && slabSizeBits < Integer.SIZE - 1);
+        Preconditions.checkArgument(regionOffset >= 0 && regionLength >= 0 && regionOffset + regionLength <= memory.capacity());
+
+        this.memory = memory;
+        this.regionOffset = regionOffset;
+        this.slabSizeBits = slabSizeBits;
+        this.slabSize = 1L << slabSizeBits;
+
+        classSizes = new int[4 + (slabSizeBits - 5) * 4];
+        for (int idx = 0; idx < classSizes.length; idx++) {
+            classSizes[idx] = idx < 4 ? (idx + 1) << 3 : (1 << (idx / 4 + 4)) + ((idx % 4 + 1) << (idx / 4 + 2));
+        }
+
+        slabClasses = new byte[Math.toIntExact(regionLength >>> slabSizeBits)];
+        Arrays.fill(slabClasses, UNASSIGNED);
+
+        freeLists = new long[classSizes.length];
+        Arrays.fill(freeLists, NULL);
+        bumpOffsets = new long[classSizes.length];
+        bumpLimits = new long[classSizes.length];
+        allocatedBlocks = new long[classSizes.length];
+    }
+
+    public MutableMemory memory() {
+        return memory;
+    }
+
+    /**
+     * Returns offset in {@link #memory()} of a block of at least {@code size} bytes.
+     *
+     * @throws BufferOverflowException when the region has no room left for such block
+     */
+    public long allocate(int size) {
+        int sizeClass = sizeClass(size);
+        long offset = freeLists[sizeClass];
+        if (offset != NULL) {
+            freeLists[sizeClass] = memory.getLong(offset);
+        } else {
+            if (bumpOffsets[sizeClass] == bumpLimits[sizeClass]) {
+                assignSlab(sizeClass);
+            }
+            offset = bumpOffsets[sizeClass];
+            bumpOffsets[sizeClass] = offset + classSizes[sizeClass];
+        }
+        allocatedBlocks[sizeClass]++;
+        usedBytes += classSizes[sizeClass];
+        return offset;
+    }
+
+    /**
+     * Gives back block returned by {@link #allocate(int)}. The block must not be used nor freed again afterwards.
+     */
+    public void free(long offset) {
+        int sizeClass = sizeClassOf(offset);
+        memory.putLong(offset, freeLists[sizeClass]);
+        freeLists[sizeClass] = offset;
+        allocatedBlocks[sizeClass]--;
+        usedBytes -= classSizes[sizeClass];
+    }
+
+    /**
+     * Usable size of allocated block, which may be larger than requested.
+     */
+    public int blockSize(long offset) {
+        return classSizes[sizeClassOf(offset)];
+    }
+
+    public int sizeClassCount() {
+        return classSizes.length;
+    }
+
+    public int sizeClassBlockSize(int sizeClass) {
+        return classSizes[sizeClass];
+    }
+
+    public long allocatedBlocks(int sizeClass) {
+        return allocatedBlocks[sizeClass];
+    }
+
+    /**
+     * Bytes in allocated blocks, including rounding up to size class.
+     */
+    public long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Bytes in slabs given to size classes so far.
+     */
+    public long reservedBytes() {
+        return (long) assignedSlabs << slabSizeBits;
+    }
+
+    public long capacity() {
+        return (long) slabClasses.length << slabSizeBits;
+    }
+
+    /**
+     * Part of reserved bytes not in allocated blocks - free blocks, unused slab tails and not yet cut slab space.
+     */
+    public double fragmentation() {
+        long reserved = reservedBytes();
+        return reserved == 0 ? 0.0 : 1.0 - (double) usedBytes / reserved;
+    }
+
+    int sizeClass(int size) {
+        if (size <= 0 || size > slabSize) {
+            throw new IllegalArgumentException();
+        }
+        if (size <= 4 * MIN_BLOCK_SIZE) {
+            return (size - 1) >>> 3;
+        }
+        int group = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(size - 1);
+        int stepBits = group - 2;
+        int step = ((size - (1 << group)) + (1 << stepBits) - 1) >>> stepBits;
+        return 4 + ((group - 5) << 2) + step - 1;
+    }
+
+    private int sizeClassOf(long offset) {
+        long slabOffset = offset - regionOffset;
+        int slab = (int) (slabOffset >>> slabSizeBits);
+        if (slabOffset < 0 || slab >= assignedSlabs) {
+            throw new IllegalArgumentException();
+        }
+        int sizeClass = slabClasses[slab];
+        if ((slabOffset & (slabSize - 1)) % classSizes[sizeClass] != 0) {
+            throw new IllegalArgumentException();
+        }
+        return sizeClass;
+    }
+
+    private void assignSlab(int sizeClass) {
+        if (assignedSlabs == slabClasses.length) {
+            throw new BufferOverflowException();
+        }
+        int slab = assignedSlabs++;
+        slabClasses[slab] = (byte) sizeClass;
+        long slabStart = regionOffset + ((long) slab << slabSizeBits);
+        bumpOffsets[sizeClass] = slabStart;
+        bumpLimits[sizeClass] = slabStart + slabSize / classSizes[sizeClass] * classSizes[sizeClass];
+    }
+}
@@ -0,0 +1,351 @@
+package com.codewise.util.memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Sparse paged memory keeping at most {@code maxResidentPages} pages on heap. Least recently used pages are
+ * evicted to a memory-mapped spill file - page {@code k} at offset {@code k * pageSize} - and faulted back in when
+ * accessed again. Pages not modified since they were faulted in are dropped without writing them again.
+ * <p>
+ * Every access goes through the page it touches, so values spanning two pages need at least two resident pages.
+ * Snapshots and NIO views are not supported. Spill file is deleted by {@link #release()} or {@link #close()}.
+ */
+public class TieredPagedMutableMemory extends PagedUnsafeMutableMemory implements Closeable {
+
+    private static final int NIL = -1;
+    private static final byte LINKED = 1;
+    private static final byte DIRTY = 2;
+
+    private final Path spillFile;
+    private final int maxResidentPages;
+    private final byte[] zeroPage;
+
+    private MappedFileMutableMemory spill;
+
+    private int[] lruPrev = new int[0];
+    private int[] lruNext = new int[0];
+    private byte[] pageFlags = new byte[0];
+    private int mostRecent = NIL;
+    private int leastRecent = NIL;
+    private int residentPages;
+
+    private long spills;
+    private long faults;
+
+    protected TieredPagedMutableMemory(int pageSizeBits, int maxResidentPages, Path spillFile) {
+        super(64, pageSizeBits, 0, PagePool.shared(pageSizeBits), true);
+        Preconditions.checkArgument(maxResidentPages >= 2);
+
+        this.spillFile = spillFile;
+        this.maxResidentPages = maxResidentPages;
+        zeroPage = pagePool.zeroPage();
+    }
+
+    /**
+     * Memory keeping up to {@code maxResidentBytes}, rounded down to whole pages, on heap and spilling the rest
+     * to given file, which is created or overwritten.
+     */
+    public static TieredPagedMutableMemory spillingTo(Path spillFile, int pageSizeBits, long maxResidentBytes) {
+        return new TieredPagedMutableMemory(pageSizeBits, Math.toIntExact(maxResidentBytes >>> pageSizeBits), spillFile);
+    }
+
+    /**
+     * Number of pages written to the spill file.
+     */
+    public long spills() {
+        return spills;
+    }
+
+    /**
+     * Number of pages read back from the spill file.
+     */
+    public long faults() {
+        return faults;
+    }
+
+    public long residentBytes() {
+        return (long) residentPages << pageSizeBits;
+    }
+
+    @Override
+    public ReadOnlyMemory snapshot() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported, pages under the views could be evicted and reused at any time.
+     */
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void ensureCapacity(long requiredCapacity) {
+        super.ensureCapacity(requiredCapacity);
+        if (pageFlags.length < pageCapacity) {
+            lruPrev = Arrays.copyOf(lruPrev, pageCapacity);
+            lruNext = Arrays.copyOf(lruNext, pageCapacity);
+            pageFlags = Arrays.copyOf(pageFlags, pageCapacity);
+        }
+    }
+
+    @Override
+    protected void ensureWritable(long index, long length) {
+        super.ensureWritable(index, length);
+        int lastPage = Math.toIntExact((index + length - 1) >>> pageSizeBits);
+        for (int idx = (int) (index >>> pageSizeBits); idx <= lastPage; idx++) {
+            touch(idx, true);
+        }
+    }
+
+    /**
+     * Pages are marked modified by {@link #ensureWritable}, so ones only read here aren't spilled again.
+     */
+    @Override
+    protected byte[] getMemoryPageAsByteArray(long offset) {
+        touch(Math.toIntExact(offset >>> pageSizeBits), false);
+        return super.getMemoryPageAsByteArray(offset);
+    }
+
+    /**
+     * Writes page by page, so no page made writable can be evicted before it's written.
+     */
+    @Override
+    public void put(long index, byte[] src, int offset, int length) {
+        while (length > pageSize - (index & pageAddrMask)) {
+            int bytesToCopy = pageSize - (int) (index & pageAddrMask);
+            super.put(index, src, offset, bytesToCopy);
+            index += bytesToCopy;
+            offset += bytesToCopy;
+            length -= bytesToCopy;
+        }
+        super.put(index, src, offset, length);
+    }
+
+    /**
+     * Writes page by page, so no page made writable can be evicted before it's written.
+     */
+    @Override
+    public void put(long index, ReadOnlyMemory src, long offset, long length) {
+        while (length > pageSize - (index & pageAddrMask)) {
+            int bytesToCopy = pageSize - (int) (index & pageAddrMask);
+            super.put(index, src, offset, bytesToCopy);
+            index += bytesToCopy;
+            offset += bytesToCopy;
+            length -= bytesToCopy;
+        }
+        super.put(index, src, offset, length);
+    }
+
+    /**
+     * Slice goes through this instance, so its writes are split into pages too.
+     */
+    @Override
+    public MutableMemory slice(long offset, long length) {
+        return new MutableMemorySlice(this, offset, length);
+    }
+
+    private void touchRange(long index, int size) {
+        int firstPage = (int) (index >>> pageSizeBits);
+        int lastPage = (int) ((index + size - 1) >>> pageSizeBits);
+        touch(firstPage, false);
+        if (lastPage != firstPage) {
+            touch(lastPage, false);
+        }
+    }
+
+    /**
+     * Makes the page resident, unless it has never been written, and the most recently used one.
+     */
+    private void touch(int pageIndex, boolean dirty) {
+        if (pageIndex != mostRecent) {
+            byte[] page = memory[pageIndex];
+            if (page == zeroPage) {
+                return;
+            }
+            if (page == null) {
+                faultIn(pageIndex);
+            } else if ((pageFlags[pageIndex] & LINKED) == 0) {
+                link(pageIndex);
+                evictExcess();
+            } else {
+                unlink(pageIndex);
+                link(pageIndex);
+            }
+        }
+        if (dirty) {
+            pageFlags[pageIndex] |= DIRTY;
+        }
+    }
+
+    private void faultIn(int pageIndex) {
+        byte[] page = takePage();
+        spill.get((long) pageIndex << pageSizeBits, page, 0, pageSize);
+        memory[pageIndex] = page;
+        faults++;
+        link(pageIndex);
+        evictExcess();
+    }
+
+    private void evictExcess() {
+        while (residentPages > maxResidentPages) {
+            evict(leastRecent);
+        }
+    }
+
+    private void evict(int pageIndex) {
+        unlink(pageIndex);
+        byte[] page = memory[pageIndex];
+        if ((pageFlags[pageIndex] & DIRTY) != 0) {
+            long spillOffset = (long) pageIndex << pageSizeBits;
+            ensureSpillCapacity(spillOffset + pageSize);
+            spill.put(spillOffset, page, 0, pageSize);
+            pageFlags[pageIndex] &= ~DIRTY;
+            spills++;
+        }
+        memory[pageIndex] = null;
+        refundBudget(pageSize);
+        pagePool.give(page);
+    }
+
+    private void ensureSpillCapacity(long requiredCapacity) {
+        if (spill == null || spill.capacity() < requiredCapacity) {
+            long newCapacity = spill == null ? requiredCapacity : Math.max(requiredCapacity, 2 * spill.capacity());
+            MappedFileMutableMemory oldSpill = spill;
+            try {
+                spill = MappedFileMutableMemory.mapReadWrite(spillFile, newCapacity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (oldSpill != null) {
+                oldSpill.close();
+            }
+        }
+    }
+
+    private void link(int pageIndex) {
+        lruPrev[pageIndex] = NIL;
+        lruNext[pageIndex] = mostRecent;
+        if (mostRecent != NIL) {
+            lruPrev[mostRecent] = pageIndex;
+        } else {
+            leastRecent = pageIndex;
+        }
+        mostRecent = pageIndex;
+        pageFlags[pageIndex] |= LINKED;
+        residentPages++;
+    }
+
+    private void unlink(int pageIndex) {
+        int prev = lruPrev[pageIndex];
+        int next = lruNext[pageIndex];
+        if (prev != NIL) {
+            lruNext[prev] = next;
+        } else {
+            mostRecent = next;
+        }
+        if (next != NIL) {
+            lruPrev[next] = prev;
+        } else {
+            leastRecent = prev;
+        }
+        pageFlags[pageIndex] &= ~LINKED;
+        residentPages--;
+    }
+
+    /**
+     * Takes pages from given one on out of LRU order, making spilled ones look never written.
+     */
+    private void forgetPages(int fromPage) {
+        for (int idx = fromPage; idx < pageCount; idx++) {
+            if (memory[idx] == null) {
+                memory[idx] = zeroPage;
+                materializedPages--;
+            } else if ((pageFlags[idx] & LINKED) != 0) {
+                unlink(idx);
+            }
+            pageFlags[idx] = 0;
+        }
+    }
+
+    @Override
+    public void trimToSize(long size) {
+        Preconditions.checkArgument(size >= 0);
+        int newPageCount = Math.toIntExact((size + pageAddrMask) >>> pageSizeBits);
+        if (newPageCount < pageCount) {
+            forgetPages(newPageCount);
+        }
+        super.trimToSize(size);
+    }
+
+    @Override
+    public void reset() {
+        forgetPages(0);
+        super.reset();
+    }
+
+    /**
+     * Gives all pages back to the pool, unmaps and deletes the spill file. Memory is empty afterwards, but can
+     * grow again.
+     */
+    @Override
+    public void release() {
+        super.release();
+        if (spill != null) {
+            spill.close();
+            spill = null;
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        touchRange(index, Byte.BYTES);
+        return super.get(index);
+    }
+
+    @Override
+    public char getChar(long index) {
+        checkCapacity(index + Character.BYTES);
+        touchRange(index, Character.BYTES);
+        return super.getChar(index);
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        touchRange(index, Short.BYTES);
+        return super.getShort(index);
+    }
+
+    @Override
+    public int getInt(long index) {
+        checkCapacity(index + Integer.BYTES);
+        touchRange(index, Integer.BYTES);
+        return super.getInt(index);
+    }
+
+    @Override
+    public long getLong(long index) {
+        checkCapacity(index + Long.BYTES);
+        touchRange(index, Long.BYTES);
+        return super.getLong(index);
+    }
+}
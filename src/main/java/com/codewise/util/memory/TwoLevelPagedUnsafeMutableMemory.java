@@ -0,0 +1,273 @@
+package com.codewise.util.memory;
+
+import java.nio.BufferOverflowException;
+import java.util.Arrays;
+
+import static com.codewise.util.lowlevel.MemoryAccess.*;
+
+/**
+ * Paged memory addressing its pages through a directory of fixed size leaf tables instead of a single page table.
+ * The directory holds one entry per {@code 2^leafSizeBits} pages and is allocated up front for {@code maxCapacity},
+ * so growing only adds leaves and pages, never copying any table. Page count is not limited to
+ * {@link Integer#MAX_VALUE}.
+ * <p>
+ * Pages come from a {@link PagePool} and go back there on {@link #release()} or {@link #reset()}.
+ */
+public class TwoLevelPagedUnsafeMutableMemory extends AbstractMutableMemory implements ReleasableMemory {
+
+    public static final int DEFAULT_LEAF_SIZE_BITS = 16;
+    public static final long DEFAULT_MAX_CAPACITY = 1L << 36;
+    public static final int MIN_PAGE_SIZE_BITS = Math.max(3, PagedUnsafeMutableMemory.ARRAY_OBJECT_INDEX_SCALE_BITS);
+
+    protected final int pageSizeBits;
+    protected final int pageSize;
+    protected final long pageAddrMask;
+
+    protected final int leafSizeBits;
+    protected final int leafShift;
+
+    private final long leafPageIndexMask;
+    private final int pageIndexScaleBits;
+
+    protected final PagePool pagePool;
+
+    protected final long maxCapacity;
+    protected final byte[][][] directory;
+    protected long pageCount;
+
+    protected TwoLevelPagedUnsafeMutableMemory(int pageSizeBits, int leafSizeBits, long initialCapacity, long maxCapacity) {
+        this(pageSizeBits, leafSizeBits, initialCapacity, maxCapacity, PagePool.shared(pageSizeBits));
+    }
+
+    protected TwoLevelPagedUnsafeMutableMemory(int pageSizeBits, int leafSizeBits, long initialCapacity, long maxCapacity, PagePool pagePool) {
+        super(MemoryBudget.current());
+        Preconditions.checkArgument(pageSizeBits >= MIN_PAGE_SIZE_BITS && pageSizeBits < Integer.SIZE - 1);
+        Preconditions.checkArgument(leafSizeBits >= 0 && leafSizeBits < Integer.SIZE - 1);
+        Preconditions.checkArgument(initialCapacity >= 0 && initialCapacity <= maxCapacity);
+        Preconditions.checkArgument(((maxCapacity - 1) >>> (pageSizeBits + leafSizeBits)) < Integer.MAX_VALUE - 8);
+        Preconditions.checkArgument(pagePool.pageSize() == 1 << pageSizeBits);
+
+        this.pagePool = pagePool;
+
+        this.pageSizeBits = pageSizeBits;
+        pageSize = 1 << pageSizeBits;
+        pageAddrMask = pageSize - 1;
+
+        this.leafSizeBits = leafSizeBits;
+        leafShift = pageSizeBits + leafSizeBits;
+
+        leafPageIndexMask = ((1L << leafSizeBits) - 1) << pageSizeBits;
+        pageIndexScaleBits = pageSizeBits - PagedUnsafeMutableMemory.ARRAY_OBJECT_INDEX_SCALE_BITS;
+
+        this.maxCapacity = maxCapacity;
+        directory = new byte[maxCapacity == 0 ? 0 : (int) ((maxCapacity - 1) >>> leafShift) + 1][][];
+
+        if (initialCapacity > 0) {
+            ensureCapacity(initialCapacity);
+        }
+    }
+
+    protected TwoLevelPagedUnsafeMutableMemory() {
+        this(10, DEFAULT_LEAF_SIZE_BITS, 0, DEFAULT_MAX_CAPACITY);
+    }
+
+    /**
+     * Memory of at least {@code initialCapacity} bytes, able to grow up to {@code maxCapacity} bytes, with pages of
+     * {@code 2^pageSizeBits} bytes from the shared {@link PagePool} and leaves of {@code 2^leafSizeBits} pages.
+     */
+    public static TwoLevelPagedUnsafeMutableMemory allocate(int pageSizeBits, int leafSizeBits, long initialCapacity, long maxCapacity) {
+        return new TwoLevelPagedUnsafeMutableMemory(pageSizeBits, leafSizeBits, initialCapacity, maxCapacity);
+    }
+
+    public long maxCapacity() {
+        return maxCapacity;
+    }
+
+    private long toScaledLeafPageIndex(long index) {
+        return (index & leafPageIndexMask) >>> pageIndexScaleBits;
+    }
+
+    private Object page(long index) {
+        Object leaf = directory[(int) (index >>> leafShift)];
+        return getObjectUnsafe(leaf, ARRAY_OBJECT_BASE_OFFSET + toScaledLeafPageIndex(index));
+    }
+
+    @Override
+    protected int getPageOffset(long index) {
+        return (int) (index & pageAddrMask);
+    }
+
+    @Override
+    protected int getPageLength(long index) {
+        return pageSize;
+    }
+
+    @Override
+    protected byte[] getMemoryPageAsByteArray(long offset) {
+        return (byte[]) page(offset);
+    }
+
+    /**
+     * @throws BufferOverflowException when growing beyond max capacity
+     */
+    @Override
+    protected void ensureCapacity(long requiredCapacity) {
+        if (requiredCapacity > capacity) {
+            if (requiredCapacity > maxCapacity) {
+                throw new BufferOverflowException();
+            }
+            requiredCapacity = ((requiredCapacity - 1L) | pageAddrMask) + 1L;
+            long requiredPageCount = requiredCapacity >>> pageSizeBits;
+            int leafMask = (1 << leafSizeBits) - 1;
+            while (pageCount < requiredPageCount) {
+                int leafIndex = (int) (pageCount >>> leafSizeBits);
+                if (directory[leafIndex] == null) {
+                    directory[leafIndex] = new byte[1 << leafSizeBits][];
+                }
+                chargeBudget(pageSize);
+                directory[leafIndex][(int) pageCount & leafMask] = pagePool.take();
+                pageCount++;
+            }
+            capacity = requiredCapacity;
+        }
+    }
+
+    /**
+     * Gives all pages back to the pool and drops the leaves. Memory is empty afterwards, but can grow again.
+     */
+    @Override
+    public void release() {
+        reset();
+        Arrays.fill(directory, null);
+    }
+
+    /**
+     * Gives all pages back to the pool, keeping the directory and leaves for the memory to grow again.
+     */
+    public void reset() {
+        for (long idx = 0; idx < pageCount; idx++) {
+            byte[][] leaf = directory[(int) (idx >>> leafSizeBits)];
+            int leafIndex = (int) idx & ((1 << leafSizeBits) - 1);
+            pagePool.give(leaf[leafIndex]);
+            leaf[leafIndex] = null;
+        }
+        refundBudget(pageCount << pageSizeBits);
+        pageCount = 0;
+        capacity = 0;
+    }
+
+    /**
+     * Writes {@code size} lowest bytes of given value, most significant first, when they span two pages.
+     */
+    private void putAcrossPages(long index, long bigEndianBytes, int size) {
+        Object page = page(index);
+        long pageOffset = ARRAY_BYTE_BASE_OFFSET + (index & pageAddrMask);
+        int bytesOnFirstPage = pageSize - (int) (index & pageAddrMask);
+        for (int idx = 0; idx < size; idx++) {
+            if (idx == bytesOnFirstPage) {
+                page = page(index + idx);
+                pageOffset = ARRAY_BYTE_BASE_OFFSET;
+            }
+            setByteUnsafe(page, pageOffset++, (byte) (bigEndianBytes >>> ((size - 1 - idx) << 3)));
+        }
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        return getByteUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + (index & pageAddrMask));
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        ensureWritable(index, Byte.BYTES);
+        setByteUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + (index & pageAddrMask), b);
+    }
+
+    @Override
+    public char getChar(long index) {
+        return (char) getShort(index);
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        putShort(index, (short) value);
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            return getShortUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddr);
+        } else {
+            byte b1 = getByteUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddr);
+            byte b0 = getByteUnsafe(page(index + 1), ARRAY_BYTE_BASE_OFFSET);
+            return (short) ((b1 << 8) | (b0 & 0xff));
+        }
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        ensureWritable(index, Short.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr < pageAddrMask) {
+            setShortUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddr, value);
+        } else {
+            putAcrossPages(index, value, Short.BYTES);
+        }
+    }
+
+    @Override
+    public int getInt(long index) {
+        checkCapacity(index + Integer.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - (Integer.BYTES - 1)) {
+            return getIntUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddr);
+        } else {
+            // see PagedUnsafeMutableMemory.getInt()
+            int msw = getIntUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddrMask - 3);
+            int lsw = getIntUnsafe(page(index + Integer.BYTES - 1), ARRAY_BYTE_BASE_OFFSET);
+
+            int lswBits = (int) (pageAddr & 0x3) << 3;
+            return (msw << lswBits) | (lsw >>> (32 - lswBits));
+        }
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        ensureWritable(index, Integer.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - (Integer.BYTES - 1)) {
+            setIntUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddr, value);
+        } else {
+            putAcrossPages(index, value, Integer.BYTES);
+        }
+    }
+
+    @Override
+    public long getLong(long index) {
+        checkCapacity(index + Long.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - (Long.BYTES - 1)) {
+            return getLongUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddr);
+        } else {
+            long msw = getLongUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddrMask - 7);
+            long lsw = getLongUnsafe(page(index + Long.BYTES - 1), ARRAY_BYTE_BASE_OFFSET);
+
+            int lswBits = (int) (pageAddr & 0x7) << 3;
+            return (msw << lswBits) | (lsw >>> (64 - lswBits));
+        }
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        ensureWritable(index, Long.BYTES);
+        long pageAddr = index & pageAddrMask;
+        if (pageAddr <= pageAddrMask - (Long.BYTES - 1)) {
+            setLongUnsafe(page(index), ARRAY_BYTE_BASE_OFFSET + pageAddr, value);
+        } else {
+            putAcrossPages(index, value, Long.BYTES);
+        }
+    }
+}
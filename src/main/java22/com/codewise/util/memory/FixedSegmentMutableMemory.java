@@ -0,0 +1,168 @@
+package com.codewise.util.memory;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+
+import static com.codewise.util.memory.SegmentMemories.*;
+
+/**
+ * Heap memory accessed through a {@link MemorySegment} over its array. Segment bounds are the only range checks, so
+ * the JIT can hoist or drop them like it does for arrays. Writes beyond capacity go through
+ * {@link #ensureCapacity(long)}, which lets growable memory extend itself.
+ */
+public class FixedSegmentMutableMemory extends AbstractMutableMemory implements BytesWrappingCapableMemory {
+
+    protected byte[] memory;
+    protected MemorySegment segment;
+
+    protected FixedSegmentMutableMemory(long size) {
+        chargeBudget(size);
+        memory = new byte[Math.toIntExact(size)];
+        segment = MemorySegment.ofArray(memory);
+        capacity = size;
+    }
+
+    protected FixedSegmentMutableMemory(byte[] buffer) {
+        memory = buffer;
+        segment = MemorySegment.ofArray(buffer);
+        capacity = buffer.length;
+    }
+
+    @Override
+    public void wrap(byte[] bytes) {
+        refundBudget(capacity);
+        memory = bytes;
+        segment = MemorySegment.ofArray(bytes);
+        capacity = bytes.length;
+    }
+
+    /**
+     * Replaces array of this memory, e.g. with a larger copy.
+     */
+    protected void setMemory(byte[] memory) {
+        this.memory = memory;
+        segment = MemorySegment.ofArray(memory);
+        capacity = memory.length;
+    }
+
+    @Override
+    protected byte[] getMemoryPageAsByteArray(long offset) {
+        return memory;
+    }
+
+    @Override
+    public byte get(long index) {
+        try {
+            return segment.get(BYTE, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        try {
+            segment.set(BYTE, index, b);
+        } catch (IndexOutOfBoundsException e) {
+            ensureCapacity(index, Byte.BYTES);
+            segment.set(BYTE, index, b);
+        }
+    }
+
+    @Override
+    public char getChar(long index) {
+        try {
+            return segment.get(CHAR, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        try {
+            segment.set(CHAR, index, value);
+        } catch (IndexOutOfBoundsException e) {
+            ensureCapacity(index, Character.BYTES);
+            segment.set(CHAR, index, value);
+        }
+    }
+
+    @Override
+    public short getShort(long index) {
+        try {
+            return segment.get(SHORT, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        try {
+            segment.set(SHORT, index, value);
+        } catch (IndexOutOfBoundsException e) {
+            ensureCapacity(index, Short.BYTES);
+            segment.set(SHORT, index, value);
+        }
+    }
+
+    @Override
+    public int getInt(long index) {
+        try {
+            return segment.get(INT, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        try {
+            segment.set(INT, index, value);
+        } catch (IndexOutOfBoundsException e) {
+            ensureCapacity(index, Integer.BYTES);
+            segment.set(INT, index, value);
+        }
+    }
+
+    @Override
+    public long getLong(long index) {
+        try {
+            return segment.get(LONG, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        try {
+            segment.set(LONG, index, value);
+        } catch (IndexOutOfBoundsException e) {
+            ensureCapacity(index, Long.BYTES);
+            segment.set(LONG, index, value);
+        }
+    }
+
+    /**
+     * Called when a write didn't fit the segment, which also rejects negative indexes.
+     */
+    private void ensureCapacity(long index, int size) {
+        if (index < 0) {
+            throw new BufferOverflowException();
+        }
+        ensureCapacity(index + size);
+    }
+
+    /**
+     * @throws BufferOverflowException as fixed memory can't grow
+     */
+    @Override
+    protected void ensureCapacity(long size) {
+        if (size > capacity) {
+            throw new BufferOverflowException();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.codewise.util.memory;
+
+import java.util.Arrays;
+
+/**
+ * {@link FixedSegmentMutableMemory} growing its array according to given {@link GrowthPolicy}.
+ */
+public class GrowableSegmentMutableMemory extends FixedSegmentMutableMemory implements ResizableMemory {
+
+    private final GrowthPolicy growthPolicy;
+
+    protected GrowableSegmentMutableMemory(long size) {
+        this(size, GrowthPolicy.DEFAULT);
+    }
+
+    protected GrowableSegmentMutableMemory(long size, GrowthPolicy growthPolicy) {
+        super(size);
+        this.growthPolicy = growthPolicy;
+    }
+
+    protected GrowableSegmentMutableMemory(byte[] buffer) {
+        super(buffer);
+        this.growthPolicy = GrowthPolicy.DEFAULT;
+    }
+
+    @Override
+    protected void ensureCapacity(long size) {
+        if (size > capacity) {
+            int newCapacity = GrowableUnsafeMutableMemory.newArrayCapacity(growthPolicy, capacity, size);
+            chargeBudgetInTotal(newCapacity);
+            setMemory(Arrays.copyOf(memory, newCapacity));
+        }
+    }
+
+    @Override
+    public void reserve(long capacity) {
+        if (capacity > this.capacity) {
+            resize(GrowthPolicy.roundUp(capacity, GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY));
+        }
+    }
+
+    @Override
+    public void trimToSize(long size) {
+        Preconditions.checkArgument(size >= 0);
+        long newCapacity = GrowthPolicy.roundUp(size, GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY);
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    @Override
+    public void truncate(long size) {
+        trimToSize(size);
+        if (size < capacity) {
+            segment.asSlice(size).fill((byte) 0);
+        }
+    }
+
+    private void resize(long newCapacity) {
+        chargeBudgetInTotal(newCapacity);
+        setMemory(Arrays.copyOf(memory, Math.toIntExact(newCapacity)));
+    }
+}
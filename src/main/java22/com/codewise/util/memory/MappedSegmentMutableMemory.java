@@ -0,0 +1,349 @@
+package com.codewise.util.memory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.codewise.util.memory.SegmentMemories.*;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+
+/**
+ * Memory-mapped file as a single {@link MemorySegment} - unlike {@link MappedFileMutableMemory} it's not split
+ * into 2GB buffers and is unmapped right away by {@link #close()}, not when GC gets to it. Memory can't grow.
+ * <p>
+ * Mapping belongs to a shared arena, closing it while other threads still access memory makes them fail with
+ * {@link IllegalStateException} rather than crash the JVM.
+ */
+public class MappedSegmentMutableMemory implements MutableMemory, ReleasableMemory, Closeable {
+
+    private static final int COPY_CHUNK_SIZE = 8192;
+
+    private final boolean readOnly;
+
+    private Arena arena;
+    private MemorySegment segment;
+
+    protected MappedSegmentMutableMemory(Arena arena, MemorySegment segment, boolean readOnly) {
+        this.arena = arena;
+        this.segment = segment;
+        this.readOnly = readOnly;
+    }
+
+    public static MappedSegmentMutableMemory mapReadOnly(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return map(channel, FileChannel.MapMode.READ_ONLY, channel.size());
+        }
+    }
+
+    /**
+     * Maps given file, creating it or changing its size to {@code size} bytes if needed.
+     */
+    public static MappedSegmentMutableMemory mapReadWrite(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            }
+            return map(channel, FileChannel.MapMode.READ_WRITE, size);
+        }
+    }
+
+    private static MappedSegmentMutableMemory map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        Arena arena = Arena.ofShared();
+        try {
+            return new MappedSegmentMutableMemory(arena, channel.map(mode, 0, size, arena), mode == FileChannel.MapMode.READ_ONLY);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Writes changes made to given range back to the file.
+     */
+    public void force(long index, long length) {
+        if (length > 0 && !readOnly) {
+            checkCapacity(index + length);
+            segment.asSlice(index, length).force();
+        }
+    }
+
+    public void force() {
+        if (!readOnly) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (arena != null) {
+            Arena arena = this.arena;
+            this.arena = null;
+            segment = MemorySegment.NULL;
+            arena.close();
+        }
+    }
+
+    @Override
+    public void release() {
+        close();
+    }
+
+    @Override
+    public long capacity() {
+        return segment.byteSize();
+    }
+
+    private void checkCapacity(long size) {
+        if (size > segment.byteSize()) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    private void checkWritable(long index, long length) {
+        if (readOnly) {
+            throw new ReadOnlyBufferException();
+        }
+        if (index < 0 || index + length > segment.byteSize()) {
+            throw new BufferOverflowException();
+        }
+    }
+
+    @Override
+    public byte get(long index) {
+        try {
+            return segment.get(BYTE, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        try {
+            segment.set(BYTE, index, b);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | UnsupportedOperationException e) {
+            checkWritable(index, Byte.BYTES);
+            throw e;
+        }
+    }
+
+    @Override
+    public char getChar(long index) {
+        try {
+            return segment.get(CHAR, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        try {
+            segment.set(CHAR, index, value);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | UnsupportedOperationException e) {
+            checkWritable(index, Character.BYTES);
+            throw e;
+        }
+    }
+
+    @Override
+    public short getShort(long index) {
+        try {
+            return segment.get(SHORT, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        try {
+            segment.set(SHORT, index, value);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | UnsupportedOperationException e) {
+            checkWritable(index, Short.BYTES);
+            throw e;
+        }
+    }
+
+    @Override
+    public int getInt(long index) {
+        try {
+            return segment.get(INT, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        try {
+            segment.set(INT, index, value);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | UnsupportedOperationException e) {
+            checkWritable(index, Integer.BYTES);
+            throw e;
+        }
+    }
+
+    @Override
+    public long getLong(long index) {
+        try {
+            return segment.get(LONG, index);
+        } catch (IndexOutOfBoundsException e) {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        try {
+            segment.set(LONG, index, value);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException | UnsupportedOperationException e) {
+            checkWritable(index, Long.BYTES);
+            throw e;
+        }
+    }
+
+    @Override
+    public double getDouble(long index) {
+        return longBitsToDouble(getLong(index));
+    }
+
+    @Override
+    public void putDouble(long index, double value) {
+        putLong(index, doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void get(long index, byte[] dst, int offset, int length) {
+        if (length > 0) {
+            checkCapacity(index + 1);
+            length = Math.toIntExact(Math.min(segment.byteSize() - index, length));
+            MemorySegment.copy(segment, BYTE, index, dst, offset, length);
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public void get(long index, ByteBuffer buf) {
+        int length = buf.remaining();
+        if (length > 0) {
+            checkCapacity(index + 1);
+            length = Math.toIntExact(Math.min(segment.byteSize() - index, length));
+            MemorySegment.ofBuffer(buf).copyFrom(segment.asSlice(index, length));
+            buf.position(buf.position() + length);
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public void put(long index, byte[] src, int offset, int length) {
+        if (length > 0) {
+            checkWritable(index, length);
+            MemorySegment.copy(src, offset, segment, BYTE, index, length);
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public void put(long index, ReadOnlyMemory src, long offset, long length) {
+        if (length > 0) {
+            checkWritable(index, length);
+            if (src instanceof MappedSegmentMutableMemory) {
+                MemorySegment.copy(((MappedSegmentMutableMemory) src).segment, offset, segment, index, length);
+                return;
+            }
+            byte[] chunk = new byte[(int) Math.min(length, COPY_CHUNK_SIZE)];
+            while (length > 0) {
+                int chunkLength = (int) Math.min(length, chunk.length);
+                src.get(offset, chunk, 0, chunkLength);
+                MemorySegment.copy(chunk, 0, segment, BYTE, index, chunkLength);
+                index += chunkLength;
+                offset += chunkLength;
+                length -= chunkLength;
+            }
+        } else if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    @Override
+    public int compare(long index, ReadOnlyMemory that, long offset, long length) {
+        if (length > 0) {
+            checkCapacity(index + length);
+            byte[] chunk = new byte[(int) Math.min(length, COPY_CHUNK_SIZE)];
+            MemorySegment chunkSegment = MemorySegment.ofArray(chunk);
+            while (length > 0) {
+                int chunkLength = (int) Math.min(length, chunk.length);
+                that.get(offset, chunk, 0, chunkLength);
+                long mismatch = MemorySegment.mismatch(segment, index, index + chunkLength, chunkSegment, 0, chunkLength);
+                if (mismatch >= 0) {
+                    return Integer.compare(segment.get(BYTE, index + mismatch) & 0xFF, chunk[(int) mismatch] & 0xFF);
+                }
+                index += chunkLength;
+                offset += chunkLength;
+                length -= chunkLength;
+            }
+            return 0;
+        } else if (length == 0) {
+            return 0;
+        } else {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Views are split in 2GB chunks, they are read-only for read-only mappings and fail once memory is closed.
+     */
+    @Override
+    public ByteBuffer[] asNioByteBuffers(long index, long length) {
+        Preconditions.checkArgument(length >= 0);
+        checkCapacity(index + length);
+        ByteBuffer[] views = new ByteBuffer[(int) ((length + Integer.MAX_VALUE - 1) / Integer.MAX_VALUE)];
+        for (int idx = 0; idx < views.length; idx++) {
+            long viewLength = Math.min(length, Integer.MAX_VALUE);
+            views[idx] = segment.asSlice(index, viewLength).asByteBuffer();
+            index += viewLength;
+            length -= viewLength;
+        }
+        return views;
+    }
+
+    @Override
+    public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
+        iterateOverMemory(consumerInstance, consumerMethod, offset, length, new byte[(int) Math.min(Math.max(length, 0), COPY_CHUNK_SIZE)]);
+    }
+
+    /**
+     * Copies memory to given array chunk by chunk, as consumers need heap arrays.
+     */
+    @Override
+    public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length, byte[] tempArray) {
+        if (length < 0) {
+            throw new IllegalArgumentException();
+        }
+        checkCapacity(offset + length);
+        while (length > 0) {
+            int chunkLength = (int) Math.min(length, tempArray.length);
+            MemorySegment.copy(segment, BYTE, offset, tempArray, 0, chunkLength);
+            consumerMethod.accept(consumerInstance, tempArray, 0, chunkLength);
+            offset += chunkLength;
+            length -= chunkLength;
+        }
+    }
+}
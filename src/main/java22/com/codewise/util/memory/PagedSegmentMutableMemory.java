@@ -0,0 +1,181 @@
+package com.codewise.util.memory;
+
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+import static com.codewise.util.memory.SegmentMemories.*;
+import static java.lang.Math.toIntExact;
+
+/**
+ * Paged heap memory accessed through {@link MemorySegment}s over its pages. Segments are kept per page and made
+ * again only when the page under them changes, e.g. on first write or copy-on-write after a snapshot. Values
+ * spanning two pages are read or written bytewise from both page arrays.
+ */
+public class PagedSegmentMutableMemory extends AbstractPagedMutableMemory {
+
+    private byte[][] segmentPages = new byte[0][];
+    private MemorySegment[] segments = new MemorySegment[0];
+
+    protected PagedSegmentMutableMemory(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+        super(pageCntGrow, pageSizeBits, initialCapacity);
+    }
+
+    protected PagedSegmentMutableMemory(PagedSegmentMutableMemory source) {
+        super(source);
+    }
+
+    @Override
+    protected AbstractPagedMutableMemory newSnapshot() {
+        return new PagedSegmentMutableMemory(this);
+    }
+
+    @Override
+    protected byte[] getMemoryPageAsByteArray(long offset) {
+        return memory[toIntExact(offset >>> pageSizeBits)];
+    }
+
+    private MemorySegment page(long index) {
+        int pageIndex = toIntExact(index >>> pageSizeBits);
+        byte[] page = memory[pageIndex];
+        if (pageIndex < segmentPages.length && segmentPages[pageIndex] == page) {
+            return segments[pageIndex];
+        }
+        return newSegment(pageIndex, page);
+    }
+
+    private MemorySegment newSegment(int pageIndex, byte[] page) {
+        if (pageIndex >= segmentPages.length) {
+            segmentPages = Arrays.copyOf(segmentPages, memory.length);
+            segments = Arrays.copyOf(segments, memory.length);
+        }
+        MemorySegment segment = MemorySegment.ofArray(page);
+        segmentPages[pageIndex] = page;
+        segments[pageIndex] = segment;
+        return segment;
+    }
+
+    private boolean isInOnePage(long index, int size) {
+        return (index & pageAddrMask) <= pageAddrMask - (size - 1);
+    }
+
+    /**
+     * Reads {@code size} bytes spanning two pages as a big endian value.
+     */
+    private long getAcrossPages(long index, int size) {
+        int pageIndex = toIntExact(index >>> pageSizeBits);
+        byte[] page = memory[pageIndex];
+        byte[] nextPage = memory[pageIndex + 1];
+        int pageAddr = (int) (index & pageAddrMask);
+        long value = 0;
+        for (int idx = pageAddr; idx < pageAddr + size; idx++) {
+            value = (value << 8) | ((idx < pageSize ? page[idx] : nextPage[idx - pageSize]) & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Writes {@code size} lowest bytes of given value, most significant first, when they span two pages.
+     */
+    private void putAcrossPages(long index, long bigEndianBytes, int size) {
+        int pageIndex = toIntExact(index >>> pageSizeBits);
+        byte[] page = memory[pageIndex];
+        byte[] nextPage = memory[pageIndex + 1];
+        int pageAddr = (int) (index & pageAddrMask);
+        for (int idx = pageAddr, shift = (size - 1) << 3; idx < pageAddr + size; idx++, shift -= 8) {
+            if (idx < pageSize) {
+                page[idx] = (byte) (bigEndianBytes >>> shift);
+            } else {
+                nextPage[idx - pageSize] = (byte) (bigEndianBytes >>> shift);
+            }
+        }
+    }
+
+    /**
+     * Drops segments of all pages as well.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        segmentPages = new byte[0][];
+        segments = new MemorySegment[0];
+    }
+
+    @Override
+    public byte get(long index) {
+        checkCapacity(index + Byte.BYTES);
+        return page(index).get(BYTE, index & pageAddrMask);
+    }
+
+    @Override
+    public void put(long index, byte b) {
+        ensureWritable(index, Byte.BYTES);
+        page(index).set(BYTE, index & pageAddrMask, b);
+    }
+
+    @Override
+    public char getChar(long index) {
+        return (char) getShort(index);
+    }
+
+    @Override
+    public void putChar(long index, char value) {
+        putShort(index, (short) value);
+    }
+
+    @Override
+    public short getShort(long index) {
+        checkCapacity(index + Short.BYTES);
+        if (isInOnePage(index, Short.BYTES)) {
+            return page(index).get(SHORT, index & pageAddrMask);
+        }
+        return (short) getAcrossPages(index, Short.BYTES);
+    }
+
+    @Override
+    public void putShort(long index, short value) {
+        ensureWritable(index, Short.BYTES);
+        if (isInOnePage(index, Short.BYTES)) {
+            page(index).set(SHORT, index & pageAddrMask, value);
+        } else {
+            putAcrossPages(index, value, Short.BYTES);
+        }
+    }
+
+    @Override
+    public int getInt(long index) {
+        checkCapacity(index + Integer.BYTES);
+        if (isInOnePage(index, Integer.BYTES)) {
+            return page(index).get(INT, index & pageAddrMask);
+        }
+        return (int) getAcrossPages(index, Integer.BYTES);
+    }
+
+    @Override
+    public void putInt(long index, int value) {
+        ensureWritable(index, Integer.BYTES);
+        if (isInOnePage(index, Integer.BYTES)) {
+            page(index).set(INT, index & pageAddrMask, value);
+        } else {
+            putAcrossPages(index, value, Integer.BYTES);
+        }
+    }
+
+    @Override
+    public long getLong(long index) {
+        checkCapacity(index + Long.BYTES);
+        if (isInOnePage(index, Long.BYTES)) {
+            return page(index).get(LONG, index & pageAddrMask);
+        }
+        return getAcrossPages(index, Long.BYTES);
+    }
+
+    @Override
+    public void putLong(long index, long value) {
+        ensureWritable(index, Long.BYTES);
+        if (isInOnePage(index, Long.BYTES)) {
+            page(index).set(LONG, index & pageAddrMask, value);
+        } else {
+            putAcrossPages(index, value, Long.BYTES);
+        }
+    }
+}
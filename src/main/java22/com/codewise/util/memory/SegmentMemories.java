@@ -0,0 +1,48 @@
+package com.codewise.util.memory;
+
+import java.io.IOException;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * Factories of {@link MemoryType#SEGMENT} memory, Java 22 version.
+ * <p>
+ * Values are stored big endian, like in {@link MemoryType#UNSAFE} memory. Layouts are unaligned, as memory can be
+ * accessed at any index.
+ */
+final class SegmentMemories {
+
+    static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+    static final ValueLayout.OfChar CHAR = ValueLayout.JAVA_CHAR_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.BIG_ENDIAN);
+
+    private SegmentMemories() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    static MutableMemory allocateFixed(long size) {
+        return new FixedSegmentMutableMemory(size);
+    }
+
+    static MutableMemory allocateGrowable(long size, GrowthPolicy growthPolicy) {
+        return new GrowableSegmentMutableMemory(size, growthPolicy);
+    }
+
+    static MutableMemory allocatePaged(int pageCntGrow, int pageSizeBits, long initialCapacity) {
+        return new PagedSegmentMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
+    }
+
+    static MutableMemory wrap(byte[] bytes) {
+        return new FixedSegmentMutableMemory(bytes);
+    }
+
+    static MutableMemory mapReadWrite(Path file, long size) throws IOException {
+        return MappedSegmentMutableMemory.mapReadWrite(file, size);
+    }
+}
@@ -0,0 +1,581 @@
+package com.codewise.util.lowlevel;
+
+import sun.misc.Unsafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Java 9+ version of memory access, loaded from {@code META-INF/versions/9} of the multi-release jar. Heap arrays are
+ * accessed through byte array view {@link VarHandle}s instead of {@code Unsafe}, which is used for off-heap addresses
+ * only - those can't be reached any other way.
+ * <p>
+ * Offsets of array elements are relative to the array start here, i.e. {@link #ARRAY_BYTE_BASE_OFFSET} and
+ * {@link #ARRAY_OBJECT_BASE_OFFSET} are 0 and an element of an {@code Object[]} is 1 offset unit wide. Offsets
+ * computed from these constants mean the same to both versions. A {@code null} memory means an off-heap address.
+ */
+public final class MemoryAccess {
+
+    public static final boolean RANGE_CHECKS = !Boolean.getBoolean("com.codewise.disableRangeChecks");
+    public static final boolean UNSAFE_MEMORY_ACCESS = true;
+
+    public static final boolean LITTLE_ENDIAN_NATIVE_BYTE_ORDER = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private static final VarHandle CHAR = MethodHandles.byteArrayViewVarHandle(char[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final VarHandle NATIVE_CHAR = MethodHandles.byteArrayViewVarHandle(char[].class, ByteOrder.nativeOrder());
+    private static final VarHandle NATIVE_SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.nativeOrder());
+    private static final VarHandle NATIVE_INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle NATIVE_LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle NATIVE_FLOAT = MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.nativeOrder());
+    private static final VarHandle NATIVE_DOUBLE = MethodHandles.byteArrayViewVarHandle(double[].class, ByteOrder.nativeOrder());
+
+    public static final long ARRAY_OBJECT_BASE_OFFSET = 0;
+    public static final long ARRAY_OBJECT_INDEX_SCALE = 1;
+    public static final long ARRAY_BYTE_BASE_OFFSET = 0;
+    public static final long ARRAY_LONG_BASE_OFFSET = 0;
+    public static final long ARRAY_LONG_INDEX_SCALE = Long.BYTES;
+
+    //---------------------
+    //-- byte
+
+    public static byte getByteUnsafe(Object memory, int index) {
+        return getByteUnsafe(memory, (long) index);
+    }
+
+    public static byte getByteUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return ((byte[]) memory)[(int) offset];
+        }
+        return unsafe().getByte(address(memory, offset));
+    }
+
+    public static void setByteUnsafe(Object memory, int index, byte value) {
+        setByteUnsafe(memory, (long) index, value);
+    }
+
+    public static void setByteUnsafe(Object memory, long offset, byte value) {
+        if (memory instanceof byte[]) {
+            ((byte[]) memory)[(int) offset] = value;
+        } else {
+            unsafe().putByte(address(memory, offset), value);
+        }
+    }
+
+    public static byte getByteSafe(byte[] memory, int index) {
+        return memory[index];
+    }
+
+    public static void setByteSafe(byte[] memory, int index, byte value) {
+        memory[index] = value;
+    }
+
+    //---------------------
+    //-- char
+
+    public static char getCharUnsafe(Object memory, int index) {
+        return getCharUnsafe(memory, (long) index);
+    }
+
+    public static char getCharUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (char) CHAR.get((byte[]) memory, (int) offset);
+        }
+        return Bits.correctBites(unsafe().getChar(address(memory, offset)));
+    }
+
+    public static void setCharUnsafe(Object memory, int index, char value) {
+        setCharUnsafe(memory, (long) index, value);
+    }
+
+    public static void setCharUnsafe(Object memory, long offset, char value) {
+        if (memory instanceof byte[]) {
+            CHAR.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putChar(address(memory, offset), Bits.correctBites(value));
+        }
+    }
+
+    public static char getNativeByteOrderCharUnsafe(Object memory, int index) {
+        return getNativeByteOrderCharUnsafe(memory, (long) index);
+    }
+
+    public static char getNativeByteOrderCharUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (char) NATIVE_CHAR.get((byte[]) memory, (int) offset);
+        }
+        return unsafe().getChar(address(memory, offset));
+    }
+
+    public static char getNativeByteOrderCharUnsafe(long offHeapAddress) {
+        return unsafe().getChar(offHeapAddress);
+    }
+
+    public static void setNativeByteOrderCharUnsafe(Object memory, int index, char value) {
+        setNativeByteOrderCharUnsafe(memory, (long) index, value);
+    }
+
+    public static void setNativeByteOrderCharUnsafe(Object memory, long offset, char value) {
+        if (memory instanceof byte[]) {
+            NATIVE_CHAR.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putChar(address(memory, offset), value);
+        }
+    }
+
+    public static void setNativeByteOrderCharUnsafe(long offHeapAddress, char value) {
+        unsafe().putChar(offHeapAddress, value);
+    }
+
+    public static char getCharSafe(byte[] memory, int index) {
+        return (char) ((memory[index++] << 8) | (memory[index] & 0xff));
+    }
+
+    public static void setCharSafe(byte[] memory, int index, char value) {
+        memory[index] = (byte) (value >>> 8);
+        memory[index + 1] = (byte) value;
+    }
+
+    public static char getNativeByteOrderCharSafe(byte[] memory, int index) {
+        return (char) ((memory[index++] & 0xff) | (memory[index] << 8));
+    }
+
+    public static void setNativeByteOrderCharSafe(byte[] memory, int index, char value) {
+        memory[index] = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+    }
+
+    //---------------------
+    //-- short
+
+    public static short getShortUnsafe(Object memory, int index) {
+        return getShortUnsafe(memory, (long) index);
+    }
+
+    public static short getShortUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (short) SHORT.get((byte[]) memory, (int) offset);
+        }
+        return Bits.correctBites(unsafe().getShort(address(memory, offset)));
+    }
+
+    public static void setShortUnsafe(Object memory, int index, short value) {
+        setShortUnsafe(memory, (long) index, value);
+    }
+
+    public static void setShortUnsafe(Object memory, long offset, short value) {
+        if (memory instanceof byte[]) {
+            SHORT.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putShort(address(memory, offset), Bits.correctBites(value));
+        }
+    }
+
+    public static short getNativeByteOrderShortUnsafe(Object memory, int index) {
+        return getNativeByteOrderShortUnsafe(memory, (long) index);
+    }
+
+    public static short getNativeByteOrderShortUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (short) NATIVE_SHORT.get((byte[]) memory, (int) offset);
+        }
+        return unsafe().getShort(address(memory, offset));
+    }
+
+    public static short getNativeByteOrderShortUnsafe(long offHeapAddress) {
+        return unsafe().getShort(offHeapAddress);
+    }
+
+    public static void setNativeByteOrderShortUnsafe(Object memory, int index, short value) {
+        setNativeByteOrderShortUnsafe(memory, (long) index, value);
+    }
+
+    public static void setNativeByteOrderShortUnsafe(Object memory, long offset, short value) {
+        if (memory instanceof byte[]) {
+            NATIVE_SHORT.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putShort(address(memory, offset), value);
+        }
+    }
+
+    public static void setNativeByteOrderShortUnsafe(long offHeapAddress, short value) {
+        unsafe().putShort(offHeapAddress, value);
+    }
+
+    public static short getShortSafe(byte[] memory, int index) {
+        return (short) ((memory[index++] << 8) | (memory[index] & 0xff));
+    }
+
+    public static void setShortSafe(byte[] memory, int index, short value) {
+        memory[index] = (byte) (value >>> 8);
+        memory[index + 1] = (byte) value;
+    }
+
+    public static short getNativeByteOrderShortSafe(byte[] memory, int index) {
+        return (short) ((memory[index++] & 0xff) | (memory[index] << 8));
+    }
+
+    public static void setNativeByteOrderShortSafe(byte[] memory, int index, short value) {
+        memory[index] = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+    }
+
+    //---------------------
+    //-- int
+
+    public static int getIntUnsafe(Object memory, int index) {
+        return getIntUnsafe(memory, (long) index);
+    }
+
+    public static int getIntUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (int) INT.get((byte[]) memory, (int) offset);
+        }
+        return Bits.correctBites(unsafe().getInt(address(memory, offset)));
+    }
+
+    public static void setIntUnsafe(Object memory, int index, int value) {
+        setIntUnsafe(memory, (long) index, value);
+    }
+
+    public static void setIntUnsafe(Object memory, long offset, int value) {
+        if (memory instanceof byte[]) {
+            INT.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putInt(address(memory, offset), Bits.correctBites(value));
+        }
+    }
+
+    public static int getNativeByteOrderIntUnsafe(Object memory, int index) {
+        return getNativeByteOrderIntUnsafe(memory, (long) index);
+    }
+
+    public static int getNativeByteOrderIntUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (int) NATIVE_INT.get((byte[]) memory, (int) offset);
+        }
+        return unsafe().getInt(address(memory, offset));
+    }
+
+    public static int getNativeByteOrderIntUnsafe(long offHeapAddress) {
+        return unsafe().getInt(offHeapAddress);
+    }
+
+    public static void setNativeByteOrderIntUnsafe(Object memory, int index, int value) {
+        setNativeByteOrderIntUnsafe(memory, (long) index, value);
+    }
+
+    public static void setNativeByteOrderIntUnsafe(Object memory, long offset, int value) {
+        if (memory instanceof byte[]) {
+            NATIVE_INT.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putInt(address(memory, offset), value);
+        }
+    }
+
+    public static void setNativeByteOrderIntUnsafe(long offHeapAddress, int value) {
+        unsafe().putInt(offHeapAddress, value);
+    }
+
+    public static int getIntSafe(byte[] memory, int index) {
+        return (memory[index++] & 0xff) << 24 |
+                (memory[index++] & 0xff) << 16 |
+                (memory[index++] & 0xff) << 8 |
+                memory[index] & 0xff;
+    }
+
+    public static void setIntSafe(byte[] memory, int index, int value) {
+        memory[index] = (byte) (value >>> 24);
+        memory[index + 1] = (byte) (value >>> 16);
+        memory[index + 2] = (byte) (value >>> 8);
+        memory[index + 3] = (byte) value;
+    }
+
+    public static int getNativeByteOrderIntSafe(byte[] memory, int index) {
+        return memory[index++] & 0xff |
+                (memory[index++] & 0xff) << 8 |
+                (memory[index++] & 0xff) << 16 |
+                (memory[index] & 0xff) << 24;
+    }
+
+    public static void setNativeByteOrderIntSafe(byte[] memory, int index, int value) {
+        memory[index] = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+        memory[index + 2] = (byte) (value >>> 16);
+        memory[index + 3] = (byte) (value >>> 24);
+    }
+
+    //---------------------
+    //-- long
+
+    public static long getLongUnsafe(Object memory, int index) {
+        return getLongUnsafe(memory, (long) index);
+    }
+
+    public static long getLongUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (long) LONG.get((byte[]) memory, (int) offset);
+        }
+        return Bits.correctBites(unsafe().getLong(address(memory, offset)));
+    }
+
+    public static void setLongUnsafe(Object memory, int index, long value) {
+        setLongUnsafe(memory, (long) index, value);
+    }
+
+    public static void setLongUnsafe(Object memory, long offset, long value) {
+        if (memory instanceof byte[]) {
+            LONG.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putLong(address(memory, offset), Bits.correctBites(value));
+        }
+    }
+
+    public static long getNativeByteOrderLongUnsafe(Object memory, int index) {
+        return getNativeByteOrderLongUnsafe(memory, (long) index);
+    }
+
+    public static long getNativeByteOrderLongUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (long) NATIVE_LONG.get((byte[]) memory, (int) offset);
+        } else if (memory instanceof long[]) {
+            return ((long[]) memory)[(int) (offset / ARRAY_LONG_INDEX_SCALE)];
+        }
+        return unsafe().getLong(address(memory, offset));
+    }
+
+    public static long getNativeByteOrderLongUnsafe(long offHeapAddress) {
+        return unsafe().getLong(offHeapAddress);
+    }
+
+    public static void setNativeByteOrderLongUnsafe(Object memory, int index, long value) {
+        setNativeByteOrderLongUnsafe(memory, (long) index, value);
+    }
+
+    public static void setNativeByteOrderLongUnsafe(Object memory, long offset, long value) {
+        if (memory instanceof byte[]) {
+            NATIVE_LONG.set((byte[]) memory, (int) offset, value);
+        } else if (memory instanceof long[]) {
+            ((long[]) memory)[(int) (offset / ARRAY_LONG_INDEX_SCALE)] = value;
+        } else {
+            unsafe().putLong(address(memory, offset), value);
+        }
+    }
+
+    public static void setNativeByteOrderLongUnsafe(long offHeapAddress, long value) {
+        unsafe().putLong(offHeapAddress, value);
+    }
+
+    public static long getLongSafe(byte[] memory, int index) {
+        return ((long) memory[index++] & 0xff) << 56 |
+                ((long) memory[index++] & 0xff) << 48 |
+                ((long) memory[index++] & 0xff) << 40 |
+                ((long) memory[index++] & 0xff) << 32 |
+                ((long) memory[index++] & 0xff) << 24 |
+                ((long) memory[index++] & 0xff) << 16 |
+                ((long) memory[index++] & 0xff) << 8 |
+                (long) memory[index] & 0xff;
+    }
+
+    public static void setLongSafe(byte[] memory, int index, long value) {
+        memory[index] = (byte) (value >>> 56);
+        memory[index + 1] = (byte) (value >>> 48);
+        memory[index + 2] = (byte) (value >>> 40);
+        memory[index + 3] = (byte) (value >>> 32);
+        memory[index + 4] = (byte) (value >>> 24);
+        memory[index + 5] = (byte) (value >>> 16);
+        memory[index + 6] = (byte) (value >>> 8);
+        memory[index + 7] = (byte) value;
+    }
+
+    public static long getNativeByteOrderLongSafe(byte[] memory, int index) {
+        return (long) memory[index++] & 0xff |
+                ((long) memory[index++] & 0xff) << 8 |
+                ((long) memory[index++] & 0xff) << 16 |
+                ((long) memory[index++] & 0xff) << 24 |
+                ((long) memory[index++] & 0xff) << 32 |
+                ((long) memory[index++] & 0xff) << 40 |
+                ((long) memory[index++] & 0xff) << 48 |
+                ((long) memory[index] & 0xff) << 56;
+    }
+
+    public static void setNativeByteOrderLongSafe(byte[] memory, int index, long value) {
+        memory[index] = (byte) value;
+        memory[index + 1] = (byte) (value >>> 8);
+        memory[index + 2] = (byte) (value >>> 16);
+        memory[index + 3] = (byte) (value >>> 24);
+        memory[index + 4] = (byte) (value >>> 32);
+        memory[index + 5] = (byte) (value >>> 40);
+        memory[index + 6] = (byte) (value >>> 48);
+        memory[index + 7] = (byte) (value >>> 56);
+    }
+
+    //---------------------
+    //-- float
+    public static void setNativeByteOrderFloatUnsafe(Object memory, long offset, float value) {
+        if (memory instanceof byte[]) {
+            NATIVE_FLOAT.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putFloat(address(memory, offset), value);
+        }
+    }
+
+    public static float getNativeByteOrderFloatUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (float) NATIVE_FLOAT.get((byte[]) memory, (int) offset);
+        }
+        return unsafe().getFloat(address(memory, offset));
+    }
+
+    //---------------------
+    //-- double
+    public static void setNativeByteOrderDoubleUnsafe(Object memory, long offset, double value) {
+        if (memory instanceof byte[]) {
+            NATIVE_DOUBLE.set((byte[]) memory, (int) offset, value);
+        } else {
+            unsafe().putDouble(address(memory, offset), value);
+        }
+    }
+
+    public static double getNativeByteOrderDoubleUnsafe(Object memory, long offset) {
+        if (memory instanceof byte[]) {
+            return (double) NATIVE_DOUBLE.get((byte[]) memory, (int) offset);
+        }
+        return unsafe().getDouble(address(memory, offset));
+    }
+
+    //---------------------
+    //-- Object
+
+    public static Object getObjectUnsafe(Object memory, long offset) {
+        return ((Object[]) memory)[(int) offset];
+    }
+
+    // --------------------
+    // -- copy mem
+
+    public static void copyMemoryUnsafe(Object mem1, long offset1, Object mem2, long offset2, long length) {
+        if (mem1 instanceof byte[] && mem2 instanceof byte[]) {
+            System.arraycopy(mem1, (int) offset1, mem2, (int) offset2, Math.toIntExact(length));
+        } else {
+            unsafe().copyMemory(mem1, unsafeOffset(mem1, offset1), mem2, unsafeOffset(mem2, offset2), length);
+        }
+    }
+
+    public static void copyMemoryUnsafe(long address1, long address2, long length) {
+        unsafe().copyMemory(address1, address2, length);
+    }
+
+    public static void copyMemorySafe(byte[] mem1, int index1, byte[] mem2, int index2, int length) {
+        System.arraycopy(mem1, index1, mem2, index2, length);
+    }
+
+    // --------------------
+    // -- native memory
+
+    public static long allocateMemoryUnsafe(long size) {
+        return unsafe().allocateMemory(size);
+    }
+
+    public static long reallocateMemoryUnsafe(long address, long size) {
+        return unsafe().reallocateMemory(address, size);
+    }
+
+    public static void freeMemoryUnsafe(long address) {
+        unsafe().freeMemory(address);
+    }
+
+    public static void setMemoryUnsafe(long address, long length, byte value) {
+        unsafe().setMemory(address, length, value);
+    }
+
+    // --------------------
+    // -- direct buffers
+
+    public static long getDirectBufferAddressUnsafe(ByteBuffer directBuffer) {
+        return unsafe().getLong(directBuffer, OffHeap.BUFFER_ADDRESS_OFFSET);
+    }
+
+    /**
+     * Direct byte buffer over given off-heap memory, which it doesn't own - the memory isn't freed with the buffer.
+     * Buffer keeps {@code attachment}, e.g. owner of the memory, reachable.
+     */
+    public static ByteBuffer newDirectByteBufferUnsafe(long address, int capacity, Object attachment) {
+        ByteBuffer buffer = OffHeap.DIRECT_BUFFER_TEMPLATE.duplicate();
+        unsafe().putLong(buffer, OffHeap.BUFFER_ADDRESS_OFFSET, address);
+        unsafe().putInt(buffer, OffHeap.BUFFER_CAPACITY_OFFSET, capacity);
+        if (attachment != null && OffHeap.DIRECT_BUFFER_ATTACHMENT_OFFSET >= 0) {
+            unsafe().putObject(buffer, OffHeap.DIRECT_BUFFER_ATTACHMENT_OFFSET, attachment);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Frees memory of a direct (or unmaps a mapped) byte buffer without waiting for GC. Buffer must not be used afterwards.
+     */
+    public static void invokeCleanerUnsafe(ByteBuffer directBuffer) {
+        unsafe().invokeCleaner(directBuffer);
+    }
+
+    private static long address(Object memory, long offset) {
+        if (memory != null) {
+            throw new IllegalArgumentException("Unsupported memory " + memory.getClass());
+        }
+        return offset;
+    }
+
+    private static long unsafeOffset(Object memory, long offset) {
+        return memory instanceof byte[] ? Unsafe.ARRAY_BYTE_BASE_OFFSET + offset : address(memory, offset);
+    }
+
+    private static Unsafe unsafe() {
+        Unsafe unsafe = OffHeap.UNSAFE;
+        if (unsafe == null) {
+            throw new UnsupportedOperationException("sun.misc.Unsafe is not available, off-heap memory can't be accessed");
+        }
+        return unsafe;
+    }
+
+    /**
+     * Off-heap and direct buffer state, initialized on first off-heap access, so heap memory never needs
+     * {@code Unsafe}. {@link #UNSAFE} is {@code null} when it isn't available.
+     */
+    private static final class OffHeap {
+
+        static final Unsafe UNSAFE = loadUnsafe();
+
+        static final ByteBuffer DIRECT_BUFFER_TEMPLATE = ByteBuffer.allocateDirect(0);
+        static final long BUFFER_ADDRESS_OFFSET = fieldOffset(Buffer.class, "address");
+        static final long BUFFER_CAPACITY_OFFSET = fieldOffset(Buffer.class, "capacity");
+        static final long DIRECT_BUFFER_ATTACHMENT_OFFSET = fieldOffset(DIRECT_BUFFER_TEMPLATE.getClass(), "att");
+
+        private static Unsafe loadUnsafe() {
+            try {
+                Field unsafeField = Unsafe.class.getDeclaredField("theUnsafe");
+                unsafeField.setAccessible(true);
+                return (Unsafe) unsafeField.get(null);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        private static long fieldOffset(Class<?> type, String name) {
+            if (UNSAFE == null) {
+                return -1;
+            }
+            try {
+                return UNSAFE.objectFieldOffset(type.getDeclaredField(name));
+            } catch (NoSuchFieldException e) {
+                return -1;
+            }
+        }
+    }
+}
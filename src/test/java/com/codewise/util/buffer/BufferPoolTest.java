@@ -0,0 +1,77 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.MemoryType;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BufferPoolTest {
+
+    @Test
+    public void shouldRoundCapacityUpToPowerOf2() {
+        // given
+        BufferPool pool = new BufferPool(MemoryType.UNSAFE, 4, 10, 2, 1);
+
+        // then
+        assertThat(pool.acquire(0).capacity()).isEqualTo(16);
+        assertThat(pool.acquire(100).capacity()).isEqualTo(128);
+        assertThat(pool.acquire(1024).capacity()).isEqualTo(1024);
+        assertThat(pool.acquire(1025).capacity()).isEqualTo(1025);
+    }
+
+    @Test
+    public void shouldRecycleReleasedBuffer() {
+        // given
+        BufferPool pool = new BufferPool(MemoryType.UNSAFE, 4, 10, 2, 1);
+        MutableByteBuffer buffer = pool.acquire(100);
+        buffer.putLong(5L).flip().sliceMe();
+
+        // when
+        pool.release(buffer);
+        MutableByteBuffer recycled = pool.acquire(65);
+
+        // then
+        assertThat(recycled).isSameAs(buffer);
+        assertThat(recycled.position()).isZero();
+        assertThat(recycled.limit()).isEqualTo(128);
+        assertThat(recycled.getLong(0)).isEqualTo(5L);
+    }
+
+    @Test
+    public void shouldKeepMagazinesInDepot() {
+        // given
+        BufferPool pool = new BufferPool(MemoryType.OFF_HEAP, 4, 10, 2, 1);
+        MutableByteBuffer[] buffers = new MutableByteBuffer[6];
+        for (int idx = 0; idx < buffers.length; idx++) {
+            buffers[idx] = pool.acquire(16);
+        }
+
+        // when
+        for (MutableByteBuffer buffer : buffers) {
+            pool.release(buffer);
+        }
+
+        // then
+        assertThat(pool.acquire(16)).isSameAs(buffers[5]);
+        assertThat(pool.acquire(16)).isSameAs(buffers[4]);
+        assertThat(pool.acquire(16)).isSameAs(buffers[1]);
+        assertThat(pool.acquire(16)).isSameAs(buffers[0]);
+        MutableByteBuffer fresh = pool.acquire(16);
+        for (MutableByteBuffer buffer : buffers) {
+            assertThat(fresh).isNotSameAs(buffer);
+        }
+    }
+
+    @Test
+    public void shouldNotPoolUnexpectedCapacity() {
+        // given
+        BufferPool pool = new BufferPool(MemoryType.SAFE, 4, 10, 2, 1);
+        MutableByteBuffer buffer = Buffers.allocate(MemoryType.SAFE, 100);
+
+        // when
+        pool.release(buffer);
+
+        // then
+        assertThat(pool.acquire(100)).isNotSameAs(buffer);
+    }
+}
@@ -0,0 +1,77 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.MemoryType;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryArenaTest {
+
+    public static final String ARENAS = "arenas";
+
+    @DataProvider(name = ARENAS)
+    public Object[][] arenas() {
+        return new Object[][]{
+                {(Function<Long, MemoryArena>) size -> MemoryArena.threadConfined(MemoryType.UNSAFE.allocateFixedMemory(size))},
+                {(Function<Long, MemoryArena>) size -> MemoryArena.concurrent(MemoryType.UNSAFE.allocateFixedMemory(size))},
+                {(Function<Long, MemoryArena>) size -> MemoryArena.concurrent(MemoryType.OFF_HEAP.allocateFixedMemory(size))},
+        };
+    }
+
+    @Test(dataProvider = ARENAS)
+    public void shouldAllocateAlignedSlices(Function<Long, MemoryArena> arenaFactory) {
+        // given
+        MemoryArena arena = arenaFactory.apply(64L);
+
+        // when
+        MutableByteBuffer first = arena.allocate(3);
+        MutableByteBuffer second = arena.allocate(8);
+        first.put((byte) 1).put((byte) 2).put((byte) 3);
+        second.putLong(-1L);
+
+        // then
+        assertThat(first.flip().remaining()).isEqualTo(3);
+        assertThat(first.get(2)).isEqualTo((byte) 3);
+        assertThat(second.getLong(0)).isEqualTo(-1L);
+        assertThat(arena.used()).isEqualTo(16);
+        assertThat(arena.remaining()).isEqualTo(48);
+    }
+
+    @Test(dataProvider = ARENAS, expectedExceptions = BufferOverflowException.class)
+    public void shouldNotWritePastSlice(Function<Long, MemoryArena> arenaFactory) {
+        // given
+        MutableByteBuffer slice = arenaFactory.apply(64L).allocate(4);
+
+        // when
+        slice.putLong(0L);
+    }
+
+    @Test(dataProvider = ARENAS, expectedExceptions = BufferOverflowException.class)
+    public void shouldFailWhenExhausted(Function<Long, MemoryArena> arenaFactory) {
+        // given
+        MemoryArena arena = arenaFactory.apply(64L);
+        arena.allocate(60);
+
+        // when
+        arena.allocate(1);
+    }
+
+    @Test(dataProvider = ARENAS)
+    public void shouldReuseMemoryAfterReset(Function<Long, MemoryArena> arenaFactory) {
+        // given
+        MemoryArena arena = arenaFactory.apply(64L);
+        arena.allocate(64);
+
+        // when
+        arena.reset();
+        MutableByteBuffer buffer = arena.allocateUsing(Buffers.newMutable(), 64);
+
+        // then
+        assertThat(buffer.remaining()).isEqualTo(64);
+        assertThat(arena.used()).isEqualTo(64);
+    }
+}
@@ -0,0 +1,136 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.AbstractPagedMutableMemory;
+import com.codewise.util.memory.MemoryType;
+import com.codewise.util.memory.MutableMemory;
+import com.codewise.util.memory.ReadOnlyMemory;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NioByteBufferInteropTest {
+
+    @DataProvider
+    public Object[][] nioBuffers() {
+        return new Object[][]{
+                {ByteBuffer.allocate(64)},
+                {ByteBuffer.allocateDirect(64)},
+        };
+    }
+
+    @Test(dataProvider = "nioBuffers")
+    public void shouldWrapNioBufferWithoutCopying(ByteBuffer nioBuffer) {
+        // given
+        nioBuffer.position(8).limit(40);
+
+        // when
+        MutableByteBuffer buffer = Buffers.wrap(nioBuffer);
+        buffer.putInt(buffer.position(), 0x01020304);
+        nioBuffer.putLong(32, 0x05060708090A0B0CL);
+
+        // then
+        assertThat(buffer.remaining()).isEqualTo(32);
+        assertThat(nioBuffer.getInt(8)).isEqualTo(0x01020304);
+        assertThat(buffer.getLong(buffer.position() + 24)).isEqualTo(0x05060708090A0B0CL);
+    }
+
+    @Test
+    public void shouldWrapOnlyPartOfArrayBehindNioBuffer() {
+        // given
+        byte[] array = new byte[64];
+        ByteBuffer nioBuffer = ((ByteBuffer) ByteBuffer.wrap(array).position(8)).slice();
+        nioBuffer.position(4).limit(20);
+
+        // when
+        MutableByteBuffer buffer = Buffers.wrap(nioBuffer);
+        buffer.putInt(4, 0x01020304);
+
+        // then
+        assertThat(buffer.capacity()).isEqualTo(56);
+        assertThat(buffer.position()).isEqualTo(4);
+        assertThat(buffer.limit()).isEqualTo(20);
+        assertThat(nioBuffer.getInt(4)).isEqualTo(0x01020304);
+        assertThat(array[12]).isEqualTo((byte) 0x01);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotWrapReadOnlyNioBuffer() {
+        // when
+        Buffers.wrap(ByteBuffer.allocate(16).asReadOnlyBuffer());
+    }
+
+    @DataProvider
+    public Object[][] memoryTypes() {
+        return new Object[][]{{MemoryType.SAFE}, {MemoryType.UNSAFE}, {MemoryType.OFF_HEAP}};
+    }
+
+    @Test(dataProvider = "memoryTypes")
+    public void shouldViewEachPageOfPagedMemory(MemoryType memoryType) {
+        // given
+        MutableMemory memory = memoryType.allocatePagedMemory(4, 10, 4096);
+
+        // when
+        ByteBuffer[] views = memory.asNioByteBuffers(1000, 2000);
+        views[2].putLong(0, 0x0102030405060708L);
+        memory.putInt(1020, 0x090A0B0C);
+
+        // then
+        assertThat(views).hasSize(3);
+        assertThat(views[0].remaining()).isEqualTo(24);
+        assertThat(views[1].remaining()).isEqualTo(1024);
+        assertThat(views[2].remaining()).isEqualTo(952);
+        assertThat(memory.getLong(2048)).isEqualTo(0x0102030405060708L);
+        assertThat(views[0].getInt(20)).isEqualTo(0x090A0B0C);
+    }
+
+    @Test(dataProvider = "memoryTypes")
+    public void shouldViewFixedMemory(MemoryType memoryType) {
+        // given
+        MutableMemory memory = memoryType.allocateFixedMemory(64);
+
+        // when
+        ByteBuffer[] views = memory.asNioByteBuffers(16, 32);
+        views[0].putLong(8, 0x0102030405060708L);
+
+        // then
+        assertThat(views).hasSize(1);
+        assertThat(views[0].isReadOnly()).isFalse();
+        assertThat(views[0].capacity()).isEqualTo(32);
+        assertThat(memory.getLong(24)).isEqualTo(0x0102030405060708L);
+    }
+
+    @Test
+    public void shouldViewPagesSharedWithSnapshotAsReadOnly() {
+        // given
+        MutableMemory memory = MemoryType.UNSAFE.allocatePagedMemory(4, 10, 4096);
+        memory.putLong(0, 1L);
+        ReadOnlyMemory snapshot = ((AbstractPagedMutableMemory) memory).snapshot();
+
+        // when
+        ByteBuffer[] memoryViews = memory.asNioByteBuffers(0, 2048);
+        ByteBuffer[] snapshotViews = snapshot.asNioByteBuffers(0, 2048);
+
+        // then
+        assertThat(memoryViews[0].isReadOnly()).isTrue();
+        assertThat(snapshotViews[0].isReadOnly()).isTrue();
+        assertThat(snapshotViews[0].getLong(0)).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldViewBufferContentRelativeToItsOffset() {
+        // given
+        MutableByteBuffer buffer = Buffers.allocate(MemoryType.UNSAFE, 64);
+        buffer.putLong(16, 0x0102030405060708L);
+        MutableByteBuffer slice = buffer.uninitializedBufferFactory().get().sliceOf(buffer.position(16));
+
+        // when
+        ByteBuffer[] views = slice.asNioByteBuffers(0, 8);
+
+        // then
+        assertThat(views).hasSize(1);
+        assertThat(views[0].getLong(0)).isEqualTo(0x0102030405060708L);
+    }
+}
@@ -0,0 +1,136 @@
+package com.codewise.util.buffer;
+
+import com.codewise.util.memory.MemoryType;
+import com.codewise.util.memory.MutableMemory;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.googlecode.catchexception.CatchException.catchException;
+import static com.googlecode.catchexception.CatchException.caughtException;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReferenceCountedBufferTest {
+
+    @Test
+    public void shouldDeallocateWhenLastReferenceIsReleased() {
+        // given
+        List<MutableByteBuffer> deallocated = new ArrayList<>();
+        MutableByteBuffer buffer = Buffers.refCounted(Buffers.allocate(MemoryType.UNSAFE, 16), deallocated::add);
+        MutableByteBuffer slice = buffer.uninitializedBufferFactory().get().sliceOf(buffer).retain();
+        MutableByteBuffer duplicate = buffer.duplicate().retain();
+
+        // when
+        boolean releasedByBuffer = buffer.release();
+        boolean releasedBySlice = slice.release();
+        boolean releasedByDuplicate = duplicate.release();
+
+        // then
+        assertThat(releasedByBuffer).isFalse();
+        assertThat(releasedBySlice).isFalse();
+        assertThat(releasedByDuplicate).isTrue();
+        assertThat(deallocated).hasSize(1);
+        assertThat(deallocated.get(0)).isSameAs(buffer);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldNotRetainReleasedBuffer() {
+        // given
+        MutableByteBuffer buffer = Buffers.refCounted(Buffers.allocate(MemoryType.OFF_HEAP, 16));
+        MutableByteBuffer duplicate = buffer.duplicate();
+        buffer.release();
+
+        // when
+        duplicate.retain();
+    }
+
+    @Test
+    public void shouldReturnMemoryOfBufferToPool() {
+        // given
+        BufferPool pool = new BufferPool(MemoryType.UNSAFE);
+        MutableByteBuffer buffer = pool.acquireRefCounted(100);
+        MutableMemory memory = ((MutableByteBufferImpl) buffer).memory;
+
+        // when
+        buffer.release();
+
+        // then
+        MutableByteBuffer acquired = pool.acquire(100);
+        assertThat(acquired).isNotSameAs(buffer);
+        assertThat(((MutableByteBufferImpl) acquired).memory).isSameAs(memory);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldNotReleaseReleasedBufferAgain() {
+        // given
+        MutableByteBuffer buffer = Buffers.refCounted(Buffers.allocate(MemoryType.OFF_HEAP, 16));
+        buffer.release();
+
+        // when
+        buffer.release();
+    }
+
+    @Test
+    public void shouldNotLetStaleReferenceReleaseNextOwnerOfPooledMemory() {
+        // given
+        BufferPool pool = new BufferPool(MemoryType.UNSAFE);
+        MutableByteBuffer stale = pool.acquireRefCounted(100);
+        stale.release();
+        MutableByteBuffer buffer = pool.acquireRefCounted(100);
+
+        // when
+        catchException(stale).release();
+
+        // then
+        assertThat((Throwable) caughtException()).isInstanceOf(IllegalStateException.class);
+        assertThat(buffer.release()).isTrue();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldNotGetFromReleasedBuffer() {
+        // given
+        assumeReferenceCountChecks();
+        MutableByteBuffer buffer = Buffers.refCounted(Buffers.allocate(MemoryType.UNSAFE, 16));
+        buffer.release();
+
+        // when
+        buffer.getLong(0);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldNotPutToDuplicateOfReleasedBuffer() {
+        // given
+        assumeReferenceCountChecks();
+        MutableByteBuffer buffer = Buffers.refCounted(Buffers.allocate(MemoryType.UNSAFE, 16));
+        MutableByteBuffer duplicate = buffer.duplicate();
+        buffer.release();
+
+        // when
+        duplicate.putLong(0, 1L);
+    }
+
+    @Test
+    public void shouldIgnoreReferencesOfPlainBuffer() {
+        // given
+        MutableByteBuffer buffer = Buffers.allocate(16);
+
+        // when
+        boolean released = buffer.retain().release();
+
+        // then
+        assertThat(released).isFalse();
+        assertThat(buffer.capacity()).isEqualTo(16);
+    }
+
+    /**
+     * Use after release is detected only with {@code -Dcom.codewise.referenceCountChecks=true}, which surefire's
+     * {@code test-reference-count-checks} execution sets.
+     */
+    private static void assumeReferenceCountChecks() {
+        if (!AbstractByteBuffer.REFERENCE_COUNT_CHECKS) {
+            throw new SkipException("Reference count checks disabled");
+        }
+    }
+}
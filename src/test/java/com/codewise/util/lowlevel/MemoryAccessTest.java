@@ -0,0 +1,96 @@
+package com.codewise.util.lowlevel;
+
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static com.codewise.util.lowlevel.MemoryAccess.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryAccessTest {
+
+    @Test
+    public void shouldLoadVersionForRunningJavaFromMultiReleaseJar() {
+        // given
+        URL location = MemoryAccess.class.getResource("MemoryAccess.class");
+        if (!"jar".equals(location.getProtocol()) || System.getProperty("java.specification.version").startsWith("1.")) {
+            throw new SkipException("Not loaded from multi-release jar on Java 9+");
+        }
+
+        // then
+        assertThat(location.getPath()).contains("!/META-INF/versions/");
+    }
+
+    @Test
+    public void shouldAccessByteArrayInBigEndianOrder() {
+        // given
+        byte[] memory = new byte[16];
+
+        // when
+        setLongUnsafe(memory, ARRAY_BYTE_BASE_OFFSET + 3, 0x0102030405060708L);
+        setIntUnsafe(memory, 11, 0x090A0B0C);
+
+        // then
+        ByteBuffer expected = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+        expected.putLong(3, 0x0102030405060708L).putInt(11, 0x090A0B0C);
+        assertThat(memory).isEqualTo(expected.array());
+        assertThat(getShortUnsafe(memory, ARRAY_BYTE_BASE_OFFSET + 4)).isEqualTo((short) 0x0203);
+        assertThat(getCharUnsafe(memory, 12)).isEqualTo((char) 0x0A0B);
+        assertThat(getByteUnsafe(memory, ARRAY_BYTE_BASE_OFFSET + 10)).isEqualTo((byte) 0x08);
+    }
+
+    @Test
+    public void shouldAccessByteArrayInNativeOrder() {
+        // given
+        byte[] memory = new byte[16];
+
+        // when
+        setNativeByteOrderLongUnsafe(memory, ARRAY_BYTE_BASE_OFFSET, 0x0102030405060708L);
+        setNativeByteOrderDoubleUnsafe(memory, ARRAY_BYTE_BASE_OFFSET + 8, 1.5);
+
+        // then
+        ByteBuffer expected = ByteBuffer.wrap(memory).order(ByteOrder.nativeOrder());
+        assertThat(expected.getLong(0)).isEqualTo(0x0102030405060708L);
+        assertThat(expected.getDouble(8)).isEqualTo(1.5);
+        assertThat(getNativeByteOrderShortUnsafe(memory, 8)).isEqualTo(expected.getShort(8));
+    }
+
+    @Test
+    public void shouldAccessElementsOfPageArrays() {
+        // given
+        byte[][] pages = {new byte[8], new byte[8]};
+        long[] addresses = {7L, 11L};
+
+        // when
+        Object page = getObjectUnsafe(pages, ARRAY_OBJECT_BASE_OFFSET + ARRAY_OBJECT_INDEX_SCALE);
+        long address = getNativeByteOrderLongUnsafe(addresses, ARRAY_LONG_BASE_OFFSET + ARRAY_LONG_INDEX_SCALE);
+
+        // then
+        assertThat(page).isSameAs(pages[1]);
+        assertThat(address).isEqualTo(11L);
+    }
+
+    @Test
+    public void shouldCopyBetweenHeapAndOffHeapMemory() {
+        // given
+        byte[] src = {1, 2, 3, 4, 5, 6, 7, 8};
+        byte[] dst = new byte[8];
+        long address = allocateMemoryUnsafe(8);
+
+        // when
+        try {
+            copyMemoryUnsafe(src, ARRAY_BYTE_BASE_OFFSET, null, address, 8);
+            setByteUnsafe(null, address + 7, (byte) 9);
+            copyMemoryUnsafe(null, address, dst, ARRAY_BYTE_BASE_OFFSET, 8);
+
+            // then
+            assertThat(dst).isEqualTo(new byte[]{1, 2, 3, 4, 5, 6, 7, 9});
+            assertThat(getLongUnsafe(null, address)).isEqualTo(0x0102030405060709L);
+        } finally {
+            freeMemoryUnsafe(address);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveMutableMemoryTest extends GrowableMutableMemoryTestBase<AdaptiveMutableMemory> {
+
+    private static final long MAX_SIZE = 4 * AdaptiveMutableMemory.PROMOTION_THRESHOLD;
+
+    @Override
+    protected AdaptiveMutableMemory allocateBuffer(int size) {
+        return new AdaptiveMutableMemory(MemoryType.UNSAFE, new AllocationSite(), size, MAX_SIZE);
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return memory.getMemoryPageAsByteArray(idx)[memory.getPageOffset(idx)];
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        memory.getMemoryPageAsByteArray(idx)[memory.getPageOffset(idx)] = b;
+    }
+
+    @Test
+    public void shouldStartAsBigAsEarlierMemoryFromSameSite() {
+        // given
+        AllocationSite site = new AllocationSite();
+        AdaptiveMutableMemory first = new AdaptiveMutableMemory(MemoryType.UNSAFE, site, 0, MAX_SIZE);
+        first.putLong(1000, 1L);
+
+        // when
+        AdaptiveMutableMemory second = new AdaptiveMutableMemory(MemoryType.UNSAFE, site, 0, MAX_SIZE);
+
+        // then
+        assertThat(site.allocations()).isEqualTo(2);
+        assertThat(site.sizeHint()).isEqualTo(1008);
+        assertThat(second.capacity()).isEqualTo(1008);
+        assertThat(second.isPromoted()).isFalse();
+    }
+
+    @Test
+    public void shouldStartPagedWhenSiteUsuallyGrowsLarge() {
+        // given
+        AllocationSite site = new AllocationSite();
+        AdaptiveMutableMemory first = new AdaptiveMutableMemory(MemoryType.UNSAFE, site, 0, MAX_SIZE);
+        first.putLong(2 * AdaptiveMutableMemory.PROMOTION_THRESHOLD, 1L);
+
+        // when
+        AdaptiveMutableMemory second = new AdaptiveMutableMemory(MemoryType.UNSAFE, site, 0, MAX_SIZE);
+
+        // then
+        assertThat(first.isPromoted()).isTrue();
+        assertThat(second.isPromoted()).isTrue();
+    }
+
+    @Test
+    public void shouldForgetOutlierAfterWindow() {
+        // given
+        AllocationSite site = new AllocationSite();
+        new AdaptiveMutableMemory(MemoryType.UNSAFE, site, 0, MAX_SIZE).putLong(4096, 1L);
+
+        // when
+        for (int idx = 1; idx < 2 * AllocationSite.WINDOW; idx++) {
+            new AdaptiveMutableMemory(MemoryType.UNSAFE, site, 0, MAX_SIZE);
+        }
+
+        // then
+        assertThat(site.sizeHint()).isEqualTo((4096 + Long.BYTES) / 2);
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldNotGrowBeyondMaxSize() {
+        // given
+        AdaptiveMutableMemory memory = new AdaptiveMutableMemory(MemoryType.UNSAFE, new AllocationSite(), 0, 100);
+        memory.putLong(100 - Long.BYTES, 1L);
+
+        // when
+        memory.put(100, (byte) 1);
+    }
+
+    @Test
+    public void shouldNotGrowArrayBeyondMaxSize() {
+        // given
+        AdaptiveMutableMemory memory = new AdaptiveMutableMemory(MemoryType.UNSAFE, new AllocationSite(), 1000, 1200);
+
+        // when
+        memory.put(1100, (byte) 1);
+
+        // then
+        assertThat(memory.capacity()).isBetween(1101L, 1200L);
+        assertThat(memory.get(1100)).isEqualTo((byte) 1);
+    }
+}
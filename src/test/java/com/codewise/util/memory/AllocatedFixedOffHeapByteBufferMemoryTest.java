@@ -0,0 +1,127 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AllocatedFixedOffHeapByteBufferMemoryTest extends FixedOffHeapMutableMemoryTestBase<FixedOffHeapByteBufferMemory> {
+
+    public static final String ALIGNMENTS = "alignments";
+
+    @DataProvider(name = ALIGNMENTS)
+    public Object[][] alignments() {
+        return new Object[][]{
+                {1L},
+                {(long) Long.BYTES},
+                {Memory.CACHE_LINE_ALIGNMENT},
+                {Memory.PAGE_ALIGNMENT},
+        };
+    }
+
+    @Override
+    protected FixedOffHeapByteBufferMemory allocateBuffer(int size) {
+        return (FixedOffHeapByteBufferMemory) MemoryType.OFF_HEAP.allocateFixedMemory(size);
+    }
+
+    @Override
+    protected FixedOffHeapByteBufferMemory wrapByteArray(ByteBuffer memoryBuffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return MemoryAccess.getByteUnsafe(null, memory.addressOffset() + idx);
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        MemoryAccess.setByteUnsafe(null, memory.addressOffset() + idx, b);
+    }
+
+    @Test
+    public void shouldAllocateZeroedMemory() {
+        // given
+        FixedOffHeapByteBufferMemory memory = allocateBuffer(4096);
+
+        // when
+        byte[] actual = new byte[4096];
+        memory.get(0, actual, 0, actual.length);
+
+        // then
+        assertThat(actual).containsOnly((byte) 0);
+        memory.release();
+    }
+
+    @Test(expectedExceptions = BufferUnderflowException.class)
+    public void shouldBeEmptyAfterRelease() {
+        // given
+        memory.release();
+
+        // then
+        assertThat(memory.capacity()).isZero();
+        assertThat(memory.addressOffset()).isZero();
+
+        // when
+        memory.get(0L);
+    }
+
+    @Test
+    public void shouldReleaseOnlyOnce() {
+        // when
+        memory.release();
+        memory.release();
+
+        // then
+        assertThat(memory.capacity()).isZero();
+    }
+
+    @Test
+    public void shouldReleaseOwnedMemoryWhenWrappingAddress() {
+        // given
+        ByteBuffer wrapped = ByteBuffer.allocateDirect(16);
+
+        // when
+        memory.wrap(MemoryAccess.getDirectBufferAddressUnsafe(wrapped), wrapped.capacity());
+        memory.release();
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(16);
+    }
+
+    @Test(dataProvider = ALIGNMENTS)
+    public void shouldAllocateAlignedMemory(long alignment) {
+        // when
+        OffHeapMutableMemory memory = Memory.allocateAligned(1000, alignment);
+
+        // then
+        assertThat(memory.addressOffset() % alignment).isZero();
+        assertThat(memory.alignment()).isGreaterThanOrEqualTo(alignment);
+        assertThat(memory.capacity()).isEqualTo(1000);
+        byte[] actual = new byte[1000];
+        memory.get(0, actual, 0, actual.length);
+        assertThat(actual).containsOnly((byte) 0);
+        ((ReleasableMemory) memory).release();
+    }
+
+    @Test
+    public void shouldReportNoAlignmentAfterRelease() {
+        // given
+        OffHeapMutableMemory memory = Memory.allocateAligned(1000, Memory.CACHE_LINE_ALIGNMENT);
+
+        // when
+        ((ReleasableMemory) memory).release();
+
+        // then
+        assertThat(memory.alignment()).isZero();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotAllocateWithAlignmentNotPowerOfTwo() {
+        Memory.allocateAligned(1000, 48);
+    }
+}
@@ -0,0 +1,94 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuddyAllocatorTest {
+
+    private static final int MIN_BLOCK_SIZE_BITS = 12;
+    private static final int MAX_BLOCK_SIZE_BITS = 16;
+
+    private OffHeapMutableMemory region;
+    private BuddyAllocator allocator;
+
+    @BeforeMethod
+    public void setUp() {
+        region = Memory.allocateOffHeap(2 << MAX_BLOCK_SIZE_BITS);
+        allocator = new BuddyAllocator(region, MIN_BLOCK_SIZE_BITS, MAX_BLOCK_SIZE_BITS);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        ((ReleasableMemory) region).release();
+    }
+
+    @Test
+    public void shouldSplitBlockForSmallAllocation() {
+        // when
+        OffHeapMutableMemory first = allocator.allocate(100);
+        OffHeapMutableMemory second = allocator.allocate(4096);
+
+        // then
+        assertThat(first.capacity()).isEqualTo(100);
+        assertThat(first.addressOffset()).isEqualTo(region.addressOffset());
+        assertThat(second.addressOffset()).isEqualTo(region.addressOffset() + 4096);
+        assertThat(allocator.allocatedBytes()).isEqualTo(8192);
+        assertThat(allocator.largestFreeBlock()).isEqualTo(1 << MAX_BLOCK_SIZE_BITS);
+    }
+
+    @Test
+    public void shouldCoalesceBuddiesOnFree() {
+        // given
+        OffHeapMutableMemory first = allocator.allocate(4096);
+        OffHeapMutableMemory second = allocator.allocate(4096);
+        OffHeapMutableMemory large = allocator.allocate(1 << MAX_BLOCK_SIZE_BITS);
+
+        // when
+        allocator.free(first);
+        allocator.free(second);
+
+        // then
+        assertThat(first.capacity()).isZero();
+        assertThat(allocator.allocatedBytes()).isEqualTo(1 << MAX_BLOCK_SIZE_BITS);
+        assertThat(allocator.largestFreeBlock()).isEqualTo(1 << MAX_BLOCK_SIZE_BITS);
+        allocator.free(large);
+    }
+
+    @Test
+    public void shouldReuseMemoryInstance() {
+        // given
+        FixedOffHeapByteBufferMemory memory = new FixedOffHeapByteBufferMemory(0, 0);
+
+        // when
+        allocator.allocateUsing(memory, 10_000);
+        memory.putLong(9_992, -1L);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(10_000);
+        assertThat(memory.getLong(9_992)).isEqualTo(-1L);
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldFailWhenNoBlockIsLargeEnough() {
+        // given
+        allocator.allocate(1 << MAX_BLOCK_SIZE_BITS);
+        allocator.allocate(1);
+
+        // when
+        allocator.allocate(1 << MAX_BLOCK_SIZE_BITS);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectForeignMemory() {
+        // given
+        OffHeapMutableMemory block = allocator.allocate(1 << MAX_BLOCK_SIZE_BITS);
+
+        // when
+        allocator.free(Memory.wrapOffHeapAddress(block.addressOffset() + 4096, 10));
+    }
+}
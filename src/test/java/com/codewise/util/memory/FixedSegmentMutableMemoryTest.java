@@ -0,0 +1,10 @@
+package com.codewise.util.memory;
+
+public class FixedSegmentMutableMemoryTest extends FixedMutableMemoryTestBase<AbstractMutableMemory> {
+
+    @Override
+    protected AbstractMutableMemory wrapByteArray(byte[] memoryBuffer) {
+        SegmentMutableMemoryTest.assumeSupported();
+        return (AbstractMutableMemory) MemoryType.SEGMENT.getByteArrayWrappingFactory().get().apply(memoryBuffer);
+    }
+}
@@ -0,0 +1,104 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GeometricPagedUnsafeMutableMemoryTest extends MutableMemoryTestBase<GeometricPagedUnsafeMutableMemory> {
+
+    private static final int BASE_PAGE_SIZE_BITS = 3;
+    private static final int BASE_PAGE_SIZE = 1 << BASE_PAGE_SIZE_BITS;
+
+    @Override
+    protected GeometricPagedUnsafeMutableMemory allocateBuffer(int size) {
+        return GeometricPagedUnsafeMutableMemory.allocate(BASE_PAGE_SIZE_BITS, 6, size);
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        int pageIndex = memory.pageIndex(idx);
+        return memory.pages[pageIndex][(int) (idx - memory.pageStart(pageIndex))];
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        int pageIndex = memory.pageIndex(idx);
+        memory.pages[pageIndex][(int) (idx - memory.pageStart(pageIndex))] = b;
+    }
+
+    @Test
+    public void shouldDoublePageSizeUpToMaximum() {
+        // when
+        GeometricPagedUnsafeMutableMemory memory = allocateBuffer(600);
+
+        // then
+        assertThat(memory.pageCount).isEqualTo(12);
+        assertThat(memory.capacity()).isEqualTo(8 + 16 + 32 + 64 + 8 * 64);
+        for (int idx = 0; idx < memory.pageCount; idx++) {
+            assertThat(memory.pages[idx]).hasSize(BASE_PAGE_SIZE << Math.min(idx, 3));
+        }
+    }
+
+    @Test
+    public void shouldMapIndexToPage() {
+        // given
+        GeometricPagedUnsafeMutableMemory memory = allocateBuffer(1000);
+
+        // then
+        assertThat(memory.pageIndex(0)).isZero();
+        assertThat(memory.pageIndex(7)).isZero();
+        assertThat(memory.pageIndex(8)).isEqualTo(1);
+        assertThat(memory.pageIndex(23)).isEqualTo(1);
+        assertThat(memory.pageIndex(24)).isEqualTo(2);
+        assertThat(memory.pageIndex(119)).isEqualTo(3);
+        assertThat(memory.pageIndex(120)).isEqualTo(4);
+        assertThat(memory.pageIndex(184)).isEqualTo(5);
+        assertThat(memory.pageStart(5)).isEqualTo(184);
+    }
+
+    @Test
+    public void shouldNotCopyPagesWhenGrowing() {
+        // given
+        GeometricPagedUnsafeMutableMemory memory = allocateBuffer(BASE_PAGE_SIZE);
+        byte[] firstPage = memory.pages[0];
+        memory.putLong(4, 0x0102030405060708L);
+
+        // when
+        memory.putLong(500, -1L);
+
+        // then
+        assertThat(memory.pages[0]).isSameAs(firstPage);
+        assertThat(memory.getLong(4)).isEqualTo(0x0102030405060708L);
+        assertThat(memory.getLong(500)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void shouldAccessValuesSpanningPages() {
+        // given
+        GeometricPagedUnsafeMutableMemory memory = allocateBuffer(1000);
+
+        for (int pageIndex = 1; pageIndex < 6; pageIndex++) {
+            long pageStart = memory.pageStart(pageIndex);
+            for (long index = pageStart - Long.BYTES + 1; index < pageStart; index++) {
+                // when
+                memory.putLong(index, 0x0102030405060708L);
+
+                // then
+                assertThat(memory.getLong(index)).isEqualTo(0x0102030405060708L);
+                assertThat(memory.get(pageStart - 1)).isEqualTo((byte) (pageStart - index));
+                assertThat(memory.get(pageStart)).isEqualTo((byte) (pageStart - index + 1));
+
+                if (index > pageStart - Integer.BYTES) {
+                    memory.putInt(index, 0x0A0B0C0D);
+                    assertThat(memory.getInt(index)).isEqualTo(0x0A0B0C0D);
+                    assertThat(memory.get(pageStart)).isEqualTo((byte) (0x0A + pageStart - index));
+                }
+                if (index == pageStart - 1) {
+                    memory.putShort(index, (short) 0x1122);
+                    assertThat(memory.getShort(index)).isEqualTo((short) 0x1122);
+                    assertThat(memory.get(pageStart)).isEqualTo((byte) 0x22);
+                }
+            }
+        }
+    }
+}
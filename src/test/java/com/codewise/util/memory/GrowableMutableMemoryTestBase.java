@@ -13,7 +13,7 @@ import static com.googlecode.catchexception.CatchException.catchException;
 import static com.googlecode.catchexception.CatchException.caughtException;
 import static org.assertj.core.api.Assertions.assertThat;
 
-public abstract class GrowableMutableMemoryTestBase<M extends AbstractMutableMemory> extends MutableMemoryTestBase<M> {
+public abstract class GrowableMutableMemoryTestBase<M extends MutableMemory> extends MutableMemoryTestBase<M> {
 
     @Test(dataProvider = GET_METHODS)
     public void shouldUnderflowWhenGetNeedsBytesBeyondCapacity(MethodCall<MutableMemory> getMethod, Object value, int typeSize) {
@@ -0,0 +1,55 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GrowableOffHeapMutableMemoryTest extends GrowableMutableMemoryTestBase<GrowableOffHeapMutableMemory> {
+
+    @Override
+    protected GrowableOffHeapMutableMemory allocateBuffer(int size) {
+        return new GrowableOffHeapMutableMemory(size);
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return MemoryAccess.getByteUnsafe(null, memory.addressOffset() + idx);
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        MemoryAccess.setByteUnsafe(null, memory.addressOffset() + idx, b);
+    }
+
+    @Test
+    public void shouldKeepContentWhenGrowing() {
+        // given
+        setUpMemory();
+
+        // when
+        memory.putLong(1L << 20, 0x0102030405060708L);
+
+        // then
+        assertThat(memory.capacity()).isGreaterThan(1L << 20);
+        assertThat(memory.getLong(0L)).isEqualTo(MemoryAccess.getLongSafe(TEST_BYTES, 0));
+        assertThat(memory.getLong(1L << 20)).isEqualTo(0x0102030405060708L);
+        assertThat(memory.get((1L << 20) - 1)).isZero();
+    }
+
+    @Test
+    public void shouldCopyWrappedMemoryWhenGrowing() {
+        // given
+        FixedOffHeapByteBufferMemory wrapped = new FixedOffHeapByteBufferMemory(Long.BYTES);
+        wrapped.put(0L, TEST_BYTES, 0, TEST_BYTES.length);
+        memory.wrap(wrapped.addressOffset(), wrapped.capacity());
+
+        // when
+        memory.put((long) Long.BYTES, (byte) 1);
+
+        // then
+        assertThat(memory.addressOffset()).isNotEqualTo(wrapped.addressOffset());
+        assertThat(memory.getLong(0L)).isEqualTo(wrapped.getLong(0L));
+        wrapped.release();
+    }
+}
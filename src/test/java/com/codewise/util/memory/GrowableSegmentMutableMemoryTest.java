@@ -0,0 +1,20 @@
+package com.codewise.util.memory;
+
+public class GrowableSegmentMutableMemoryTest extends GrowableMutableMemoryTestBase<AbstractMutableMemory> {
+
+    @Override
+    protected AbstractMutableMemory allocateBuffer(int size) {
+        SegmentMutableMemoryTest.assumeSupported();
+        return (AbstractMutableMemory) MemoryType.SEGMENT.allocateGrowableMemory(size);
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return memory.getMemoryPageAsByteArray(idx)[idx];
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        memory.getMemoryPageAsByteArray(idx)[idx] = b;
+    }
+}
@@ -0,0 +1,64 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GrowthPolicyTest {
+
+    @Test
+    public void geometricPolicyShouldMultiplyCapacity() {
+        // given
+        GrowthPolicy policy = GrowthPolicy.geometric(2.0);
+
+        // then
+        assertThat(policy.newCapacity(1024, 1025)).isEqualTo(2048);
+        assertThat(policy.newCapacity(1024, 5000)).isEqualTo(5120);
+        assertThat(policy.newCapacity(0, 1)).isEqualTo(GrowableUnsafeMutableMemory.CAPACITY_INCREMENT_GRANULARITY);
+    }
+
+    @Test
+    public void fixedIncrementPolicyShouldRoundUpRequiredCapacity() {
+        // given
+        GrowthPolicy policy = GrowthPolicy.fixedIncrement(100);
+
+        // then
+        assertThat(policy.newCapacity(1000, 1001)).isEqualTo(1100);
+        assertThat(policy.newCapacity(1000, 1100)).isEqualTo(1100);
+    }
+
+    @Test
+    public void shouldNotGrowBeyondMaxCapacity() {
+        // given
+        GrowthPolicy policy = GrowthPolicy.geometric(2.0).withMaxCapacity(1500);
+
+        // then
+        assertThat(policy.newCapacity(1024, 1025)).isEqualTo(1500);
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldOverflowWhenRequiredCapacityExceedsMax() {
+        // given
+        MutableMemory memory = MemoryType.UNSAFE.allocateGrowableMemory(0, GrowthPolicy.DEFAULT.withMaxCapacity(1000));
+        memory.put(999L, (byte) 1);
+
+        // when
+        memory.putShort(999L, (short) 1);
+    }
+
+    @Test
+    public void defaultPolicyShouldGrowGeometrically() {
+        // given
+        MutableMemory memory = MemoryType.SAFE.allocateGrowableMemory(0);
+        memory.put(1 << 20, (byte) 1);
+        long capacity = memory.capacity();
+
+        // when
+        memory.put(capacity, (byte) 1);
+
+        // then
+        assertThat(memory.capacity()).isGreaterThanOrEqualTo(capacity + capacity / 2);
+    }
+}
@@ -0,0 +1,100 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedFileMutableMemoryTest {
+
+    private static final int SEGMENT_SIZE_BITS = 4;
+
+    private Path file;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mapped-memory", ".bin");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void shouldReadValuesWrittenAcrossSegments() throws IOException {
+        // given
+        try (MappedFileMutableMemory memory = MappedFileMutableMemory.mapReadWrite(file, 1003, SEGMENT_SIZE_BITS)) {
+            for (long idx = 3; idx + Long.BYTES <= memory.capacity(); idx += Long.BYTES) {
+                memory.putLong(idx, idx * 31);
+            }
+            memory.putInt(1, 0xCAFEBABE);
+            memory.force();
+        }
+
+        // when
+        try (MappedFileMutableMemory memory = MappedFileMutableMemory.mapReadOnly(file, SEGMENT_SIZE_BITS)) {
+
+            // then
+            assertThat(memory.capacity()).isEqualTo(1003);
+            assertThat(memory.getInt(1)).isEqualTo(0xCAFEBABE);
+            for (long idx = 11; idx + Long.BYTES <= memory.capacity(); idx += Long.BYTES) {
+                assertThat(memory.getLong(idx)).isEqualTo(idx * 31);
+            }
+        }
+        assertThat(Files.size(file)).isEqualTo(1003);
+    }
+
+    @Test
+    public void shouldResizeFileToRequestedSize() throws IOException {
+        // given
+        Files.write(file, new byte[100]);
+
+        // when
+        try (MappedFileMutableMemory memory = MappedFileMutableMemory.mapReadWrite(file, 10, SEGMENT_SIZE_BITS)) {
+
+            // then
+            assertThat(memory.capacity()).isEqualTo(10);
+        }
+        assertThat(Files.size(file)).isEqualTo(10);
+    }
+
+    @Test(expectedExceptions = ReadOnlyBufferException.class)
+    public void shouldNotWriteToReadOnlyMapping() throws IOException {
+        // given
+        Files.write(file, new byte[100]);
+
+        try (MappedFileMutableMemory memory = MappedFileMutableMemory.mapReadOnly(file, SEGMENT_SIZE_BITS)) {
+            // when
+            memory.put(0L, (byte) 1);
+        }
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldNotGrowBeyondFileSize() throws IOException {
+        try (MappedFileMutableMemory memory = MappedFileMutableMemory.mapReadWrite(file, 10, SEGMENT_SIZE_BITS)) {
+            // when
+            memory.putShort(9, (short) 1);
+        }
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClose() throws IOException {
+        // given
+        MappedFileMutableMemory memory = MappedFileMutableMemory.mapReadWrite(file, 100, SEGMENT_SIZE_BITS);
+
+        // when
+        memory.close();
+        memory.close();
+
+        // then
+        assertThat(memory.capacity()).isZero();
+    }
+}
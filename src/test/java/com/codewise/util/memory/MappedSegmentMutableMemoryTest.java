@@ -0,0 +1,172 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedSegmentMutableMemoryTest {
+
+    private Path file;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        SegmentMutableMemoryTest.assumeSupported();
+        file = Files.createTempFile("mapped-segment", ".bin");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void shouldReadValuesWrittenBeforeRemapping() throws Exception {
+        // given
+        MutableMemory memory = MemoryType.SEGMENT.mapReadWrite(file, 1003);
+        for (long idx = 3; idx + Long.BYTES <= memory.capacity(); idx += Long.BYTES) {
+            memory.putLong(idx, idx * 31);
+        }
+        memory.putInt(1, 0xCAFEBABE);
+        ((Closeable) memory).close();
+
+        // when
+        MutableMemory remapped = mapReadOnly(file);
+
+        // then
+        try {
+            assertThat(remapped.capacity()).isEqualTo(1003);
+            assertThat(remapped.getInt(1)).isEqualTo(0xCAFEBABE);
+            for (long idx = 11; idx + Long.BYTES <= remapped.capacity(); idx += Long.BYTES) {
+                assertThat(remapped.getLong(idx)).isEqualTo(idx * 31);
+            }
+        } finally {
+            ((Closeable) remapped).close();
+        }
+        assertThat(Files.size(file)).isEqualTo(1003);
+    }
+
+    @Test
+    public void shouldStoreValuesBigEndian() throws IOException {
+        // given
+        MutableMemory memory = MemoryType.SEGMENT.mapReadWrite(file, 16);
+
+        // when
+        memory.putLong(3, 0x0102030405060708L);
+        ((Closeable) memory).close();
+
+        // then
+        assertThat(ByteBuffer.wrap(Files.readAllBytes(file)).getLong(3)).isEqualTo(0x0102030405060708L);
+    }
+
+    @Test
+    public void shouldCopyAndCompareBulk() throws IOException {
+        // given
+        MutableMemory memory = MemoryType.SEGMENT.mapReadWrite(file, 20000);
+        MutableMemory source = MemoryType.UNSAFE.allocateFixedMemory(20000);
+        for (long idx = 0; idx < 20000; idx += Long.BYTES) {
+            source.putLong(idx, idx);
+        }
+
+        // when
+        memory.put(0, source, 0, 20000);
+
+        // then
+        try {
+            assertThat(memory.compare(0, source, 0, 20000)).isZero();
+            source.putLong(12000, -1L);
+            assertThat(memory.compare(0, source, 0, 20000)).isNegative();
+            byte[] dst = new byte[16];
+            memory.get(19992, dst, 0, dst.length);
+            assertThat(ByteBuffer.wrap(dst).getLong()).isEqualTo(19992L);
+        } finally {
+            ((Closeable) memory).close();
+        }
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldNotGrowBeyondFileSize() throws IOException {
+        MutableMemory memory = MemoryType.SEGMENT.mapReadWrite(file, 10);
+        try {
+            // when
+            memory.putShort(9, (short) 1);
+        } finally {
+            ((Closeable) memory).close();
+        }
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldNotPutAtNegativeIndex() throws IOException {
+        MutableMemory memory = MemoryType.SEGMENT.mapReadWrite(file, 10);
+        try {
+            // when
+            memory.putInt(-1, 1);
+        } finally {
+            ((Closeable) memory).close();
+        }
+    }
+
+    @Test(expectedExceptions = BufferUnderflowException.class)
+    public void shouldNotGetBeyondFileSize() throws IOException {
+        MutableMemory memory = MemoryType.SEGMENT.mapReadWrite(file, 10);
+        try {
+            // when
+            memory.getLong(4);
+        } finally {
+            ((Closeable) memory).close();
+        }
+    }
+
+    @Test(expectedExceptions = ReadOnlyBufferException.class)
+    public void shouldNotWriteToReadOnlyMapping() throws Exception {
+        // given
+        Files.write(file, new byte[100]);
+        MutableMemory memory = mapReadOnly(file);
+
+        try {
+            // when
+            memory.putLong(0, 1L);
+        } finally {
+            ((Closeable) memory).close();
+        }
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClose() throws IOException {
+        // given
+        MutableMemory memory = MemoryType.SEGMENT.mapReadWrite(file, 100);
+
+        // when
+        ((Closeable) memory).close();
+        ((Closeable) memory).close();
+
+        // then
+        assertThat(memory.capacity()).isZero();
+    }
+
+    /**
+     * Read-only mapping isn't exposed by {@link MemoryType}, and the class exists only in the Java 22 version.
+     */
+    private static MutableMemory mapReadOnly(Path file) throws Exception {
+        try {
+            return (MutableMemory) Class.forName("com.codewise.util.memory.MappedSegmentMutableMemory")
+                    .getMethod("mapReadOnly", Path.class)
+                    .invoke(null, file);
+        } catch (InvocationTargetException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
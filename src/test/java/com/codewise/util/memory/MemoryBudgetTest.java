@@ -0,0 +1,204 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemoryBudgetTest {
+
+    @Test
+    public void shouldChargeMemoryToCurrentBudget() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1 << 16, OverloadPolicy.FAIL_FAST);
+
+        // when
+        MutableMemory memory;
+        try (MemoryBudget.Scope ignored = budget.enter()) {
+            memory = MemoryType.UNSAFE.allocateGrowableMemory(1000);
+        }
+        memory.putLong(1500, 1L);
+
+        // then
+        assertThat(budget.used()).isEqualTo(memory.capacity());
+        assertThat(MemoryBudget.current()).isSameAs(MemoryBudget.global());
+    }
+
+    @Test
+    public void shouldGiveBackMemoryOnTrim() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1 << 16, OverloadPolicy.FAIL_FAST);
+        MutableMemory memory;
+        try (MemoryBudget.Scope ignored = budget.enter()) {
+            memory = MemoryType.SAFE.allocateGrowableMemory(4096);
+        }
+
+        // when
+        ((ResizableMemory) memory).trimToSize(0);
+
+        // then
+        assertThat(budget.used()).isZero();
+    }
+
+    @Test
+    public void shouldChargeWholeArrayWhenWrappedArrayGrows() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1 << 16, OverloadPolicy.FAIL_FAST);
+        GrowableUnsafeMutableMemory memory = new GrowableUnsafeMutableMemory(new byte[1000]);
+
+        // when
+        try (MemoryBudget.Scope ignored = budget.enter()) {
+            memory.putLong(1500, 1L);
+            memory.putLong(5000, 1L);
+        }
+
+        // then
+        assertThat(budget.used()).isEqualTo(memory.capacity());
+    }
+
+    @Test
+    public void shouldChargeOnlyMaterializedPages() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1 << 16, OverloadPolicy.FAIL_FAST);
+        AbstractPagedMutableMemory memory;
+        try (MemoryBudget.Scope ignored = budget.enter()) {
+            memory = (AbstractPagedMutableMemory) MemoryType.UNSAFE.allocateSparsePagedMemory(10, 1 << 20);
+        }
+
+        // when
+        memory.putLong(5000, 1L);
+
+        // then
+        assertThat(budget.used()).isEqualTo(1024);
+        memory.release();
+        assertThat(budget.used()).isZero();
+    }
+
+    @Test
+    public void shouldChargeNativeMemory() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1 << 16, OverloadPolicy.FAIL_FAST);
+        MutableMemory memory;
+        try (MemoryBudget.Scope ignored = budget.enter()) {
+            memory = MemoryType.OFF_HEAP.allocateGrowableMemory(1000);
+        }
+
+        // when
+        memory.putLong(2000, 1L);
+
+        // then
+        assertThat(budget.used()).isEqualTo(memory.capacity());
+        ((ReleasableMemory) memory).release();
+        assertThat(budget.used()).isZero();
+    }
+
+    @Test(expectedExceptions = MemoryBudgetExceededException.class)
+    public void shouldFailFastWhenSubBudgetExhausted() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1 << 16, OverloadPolicy.FAIL_FAST);
+        MemoryBudget subBudget = budget.child("sub", 1000);
+
+        // when
+        try (MemoryBudget.Scope ignored = subBudget.enter()) {
+            MemoryType.SAFE.allocateFixedMemory(2000);
+        }
+    }
+
+    @Test
+    public void shouldLimitSubBudgetsByParent() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1000, OverloadPolicy.FAIL_FAST);
+        MemoryBudget first = budget.child("first", 1000);
+        MemoryBudget second = budget.child("second", 1000);
+        first.reserve(600);
+
+        // when
+        boolean reserved = second.tryReserve(600);
+
+        // then
+        assertThat(reserved).isFalse();
+        assertThat(second.used()).isZero();
+        assertThat(second.available()).isEqualTo(400);
+        assertThat(budget.used()).isEqualTo(600);
+    }
+
+    @Test
+    public void shouldBlockUntilMemoryGivenBack() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1000, OverloadPolicy.block(10, TimeUnit.SECONDS));
+        budget.reserve(800);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> {
+            sleep(100);
+            budget.release(800);
+        });
+        executor.shutdown();
+
+        // when
+        budget.reserve(500);
+
+        // then
+        assertThat(budget.used()).isEqualTo(500);
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test(expectedExceptions = MemoryBudgetExceededException.class)
+    public void shouldFailAfterBlockingTimeout() {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1000, OverloadPolicy.block(10, TimeUnit.MILLISECONDS));
+        budget.reserve(800);
+
+        // when
+        budget.reserve(500);
+    }
+
+    @Test
+    public void shouldSpillToMakeRoom() {
+        // given
+        long[] spillable = {600};
+        MemoryBudget[] budget = new MemoryBudget[1];
+        budget[0] = new MemoryBudget("test", 1000, OverloadPolicy.spill(bytes -> {
+            long spilled = Math.min(spillable[0], 100);
+            spillable[0] -= spilled;
+            budget[0].release(spilled);
+            return spilled;
+        }));
+        budget[0].reserve(800);
+
+        // when
+        budget[0].reserve(500);
+
+        // then
+        assertThat(budget[0].used()).isEqualTo(1000);
+        assertThat(spillable[0]).isEqualTo(300);
+    }
+
+    @Test
+    public void shouldGiveBackMemoryOfUnreachableOwner() throws InterruptedException {
+        // given
+        MemoryBudget budget = new MemoryBudget("test", 1 << 16, OverloadPolicy.FAIL_FAST);
+        try (MemoryBudget.Scope ignored = budget.enter()) {
+            MemoryType.SAFE.allocateFixedMemory(4096);
+        }
+
+        // when
+        for (int idx = 0; idx < 100 && budget.used() > 0; idx++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        // then
+        assertThat(budget.used()).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.buffer.Buffers;
+import com.codewise.util.buffer.MutableByteBuffer;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MemorySliceTest {
+
+    @DataProvider
+    public Object[][] memories() {
+        return new Object[][]{
+                {(Supplier<MutableMemory>) () -> MemoryType.SAFE.allocateFixedMemory(4096)},
+                {(Supplier<MutableMemory>) () -> MemoryType.UNSAFE.allocateGrowableMemory(4096)},
+                {(Supplier<MutableMemory>) () -> MemoryType.UNSAFE.allocatePagedMemory(4, 10, 4096)},
+                {(Supplier<MutableMemory>) () -> MemoryType.OFF_HEAP.allocateFixedMemory(4096)},
+                {(Supplier<MutableMemory>) () -> MemoryType.OFF_HEAP.allocateGrowableMemory(4096)},
+                {(Supplier<MutableMemory>) () -> MemoryType.OFF_HEAP.allocatePagedMemory(4, 10, 4096)},
+        };
+    }
+
+    @Test(dataProvider = "memories")
+    public void shouldShareContentWithSlicedMemory(Supplier<MutableMemory> memorySupplier) {
+        // given
+        MutableMemory memory = memorySupplier.get();
+        MutableMemory slice = memory.slice(1000, 2000);
+
+        // when
+        slice.putLong(20, 0x0102030405060708L);
+        slice.putDouble(40, 1.5);
+        slice.put(100, new byte[]{1, 2, 3}, 0, 3);
+        memory.putInt(1500, 0x090A0B0C);
+
+        // then
+        assertThat(slice.capacity()).isEqualTo(2000);
+        assertThat(memory.getLong(1020)).isEqualTo(0x0102030405060708L);
+        assertThat(memory.getDouble(1040)).isEqualTo(1.5);
+        assertThat(memory.getChar(1101)).isEqualTo((char) 0x0203);
+        assertThat(slice.getInt(500)).isEqualTo(0x090A0B0C);
+        assertThat(slice.slice(500, 100).getShort(2)).isEqualTo((short) 0x0B0C);
+        assertThat(slice.compare(20, memory, 1020, 24)).isZero();
+    }
+
+    @Test(dataProvider = "memories", expectedExceptions = BufferOverflowException.class)
+    public void shouldNotWritePastSlice(Supplier<MutableMemory> memorySupplier) {
+        // given
+        MutableMemory slice = memorySupplier.get().slice(1000, 16);
+
+        // when
+        slice.putLong(12, 1L);
+    }
+
+    @Test(dataProvider = "memories", expectedExceptions = BufferUnderflowException.class)
+    public void shouldNotReadPastSlice(Supplier<MutableMemory> memorySupplier) {
+        // given
+        MutableMemory slice = memorySupplier.get().slice(1000, 16);
+
+        // when
+        slice.getInt(14);
+    }
+
+    @Test(expectedExceptions = BufferUnderflowException.class)
+    public void shouldNotSlicePastCapacity() {
+        // given
+        MutableMemory memory = MemoryType.UNSAFE.allocateFixedMemory(16);
+
+        // when
+        memory.slice(8, 16);
+    }
+
+    @Test
+    public void shouldCopyPagesOfSliceOnWriteAfterSnapshot() {
+        // given
+        AbstractPagedMutableMemory memory = (AbstractPagedMutableMemory) MemoryType.UNSAFE.allocatePagedMemory(4, 10, 4096);
+        memory.putLong(1020, 1L);
+        ReadOnlyMemory snapshot = memory.snapshot();
+        MutableMemory slice = memory.slice(1000, 2000);
+
+        // when
+        slice.put(16, new byte[]{9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9, 9}, 0, 16);
+
+        // then
+        assertThat(snapshot.getLong(1020)).isEqualTo(1L);
+        assertThat(memory.get(1030)).isEqualTo((byte) 9);
+    }
+
+    @Test
+    public void shouldSliceReadOnlyMemory() {
+        // given
+        MutableByteBuffer buffer = Buffers.allocate(MemoryType.UNSAFE, 64).putLong(16, 0x0102030405060708L);
+
+        // when
+        ReadOnlyMemory slice = buffer.asReadOnlyBuffer().slice(16, 8);
+
+        // then
+        assertThat(slice).isNotInstanceOf(MutableMemory.class);
+        assertThat(slice.getInt(4)).isEqualTo(0x05060708);
+    }
+
+    @Test
+    public void shouldGiveMemoryOfBufferSlice() {
+        // given
+        MutableByteBuffer buffer = Buffers.allocate(MemoryType.UNSAFE, 64);
+        MutableByteBuffer slice = buffer.uninitializedBufferFactory().get().sliceOf(buffer.position(16).limit(40));
+
+        // when
+        MutableMemory memory = slice.getMemory();
+        memory.putDouble(8, 2.5);
+
+        // then
+        assertThat(buffer.getDouble(24)).isEqualTo(2.5);
+        assertThat(memory.capacity()).isEqualTo(24);
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldNotWriteMemoryOfBufferSlicePastLimit() {
+        // given
+        MutableByteBuffer buffer = Buffers.allocateGrowable(MemoryType.UNSAFE, 64);
+        MutableByteBuffer slice = buffer.uninitializedBufferFactory().get().sliceOf(buffer.position(16).limit(40));
+
+        // when
+        slice.getMemory().putLong(20, 1L);
+    }
+
+    @Test
+    public void shouldGrowMemoryOfBufferSliceWithLimitAtCapacity() {
+        // given
+        MutableByteBuffer buffer = Buffers.allocateGrowable(MemoryType.UNSAFE, 64);
+        MutableByteBuffer slice = buffer.uninitializedBufferFactory().get().sliceOf(buffer.position(16));
+
+        // when
+        slice.getMemory().putLong(100, 1L);
+
+        // then
+        assertThat(buffer.capacity()).isGreaterThanOrEqualTo(124);
+        assertThat(buffer.getLong(116)).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,71 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PagePoolTest {
+
+    private static final int PAGE_SIZE_BITS = 8;
+
+    @Test
+    public void shouldReuseGivenPage() {
+        // given
+        PagePool pool = new PagePool(PAGE_SIZE_BITS, 1 << 16, 4);
+        byte[] page = pool.take();
+        Arrays.fill(page, (byte) 1);
+
+        // when
+        pool.give(page);
+        byte[] reused = pool.take();
+
+        // then
+        assertThat(reused).isSameAs(page).containsOnly((byte) 0);
+        assertThat(pool.hits()).isEqualTo(1);
+        assertThat(pool.misses()).isEqualTo(1);
+        assertThat(pool.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void shouldOverflowThreadCacheToSharedStack() {
+        // given
+        PagePool pool = new PagePool(PAGE_SIZE_BITS, 2 << PAGE_SIZE_BITS, 1);
+
+        // when
+        pool.give(new byte[1 << PAGE_SIZE_BITS]);
+        pool.give(new byte[1 << PAGE_SIZE_BITS]);
+        pool.give(new byte[1 << PAGE_SIZE_BITS]);
+        pool.give(new byte[1 << PAGE_SIZE_BITS]);
+
+        // then
+        assertThat(pool.pooledPages()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldTakePagesGivenByOtherThread() throws InterruptedException {
+        // given
+        PagePool pool = new PagePool(PAGE_SIZE_BITS, 1 << 16, 0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.execute(() -> pool.give(new byte[1 << PAGE_SIZE_BITS]));
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // when
+        pool.take();
+
+        // then
+        assertThat(pool.hits()).isEqualTo(1);
+        assertThat(pool.pooledPages()).isZero();
+    }
+
+    @Test
+    public void shouldShareOnePoolPerPageSize() {
+        assertThat(PagePool.shared(PAGE_SIZE_BITS)).isSameAs(PagePool.shared(PAGE_SIZE_BITS));
+        assertThat(PagePool.shared(PAGE_SIZE_BITS).pageSize()).isEqualTo(1 << PAGE_SIZE_BITS);
+    }
+}
@@ -8,6 +8,7 @@ import pl.codewise.test.utils.MethodCall;
 import pl.codewise.test.utils.MethodCallException;
 
 import java.nio.BufferUnderflowException;
+import java.nio.ReadOnlyBufferException;
 import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -288,4 +289,92 @@ public abstract class PagedMutableMemoryTestBase<M extends AbstractPagedMutableM
         }, 0, memory.capacity());
         assertThat(iteratedBytesCount.get()).isEqualTo(memory.capacity());
     }
-}
\ No newline at end of file
+
+    @Test(expectedExceptions = BufferUnderflowException.class)
+    public void shouldBeEmptyAfterRelease() {
+        // given
+        memory.ensureCapacity(3 * PAGE_SIZE);
+
+        // when
+        memory.release();
+
+        // then
+        assertThat(memory.capacity()).isZero();
+        memory.get(0L);
+    }
+
+    @Test
+    public void shouldGrowWithZeroedPagesAfterReset() {
+        // given
+        memory.ensureCapacity(2 * PAGE_SIZE);
+        memory.putLong(PAGE_SIZE - 4, -1L);
+
+        // when
+        memory.reset();
+        memory.ensureCapacity(2 * PAGE_SIZE);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(2 * PAGE_SIZE);
+        assertThat(memory.getLong(PAGE_SIZE - 4)).isZero();
+    }
+
+    @Test
+    public void shouldShareAllPagesWithSnapshot() {
+        // given
+        memory.ensureCapacity(3 * PAGE_SIZE);
+
+        // when
+        AbstractPagedMutableMemory snapshot = (AbstractPagedMutableMemory) memory.snapshot();
+
+        // then
+        assertThat(snapshot.capacity()).isEqualTo(3 * PAGE_SIZE);
+        for (int idx = 0; idx < 3; idx++) {
+            assertThat(snapshot.memory[idx]).isSameAs(memory.memory[idx]);
+        }
+    }
+
+    @Test
+    public void shouldCopyOnlyPagesWrittenAfterSnapshot() {
+        // given
+        memory.ensureCapacity(3 * PAGE_SIZE);
+        memory.putLong(PAGE_SIZE - 4, 0x0102030405060708L);
+        AbstractPagedMutableMemory snapshot = (AbstractPagedMutableMemory) memory.snapshot();
+
+        // when
+        memory.putLong(PAGE_SIZE - 4, -1L);
+
+        // then
+        assertThat(memory.getLong(PAGE_SIZE - 4)).isEqualTo(-1L);
+        assertThat(snapshot.getLong(PAGE_SIZE - 4)).isEqualTo(0x0102030405060708L);
+        assertThat(snapshot.memory[0]).isNotSameAs(memory.memory[0]);
+        assertThat(snapshot.memory[1]).isNotSameAs(memory.memory[1]);
+        assertThat(snapshot.memory[2]).isSameAs(memory.memory[2]);
+    }
+
+    @Test
+    public void shouldKeepSnapshotContentAfterReset() {
+        // given
+        memory.ensureCapacity(PAGE_SIZE);
+        memory.put(10, (byte) 1);
+        ReadOnlyMemory snapshot = memory.snapshot();
+
+        // when
+        memory.reset();
+        memory.ensureCapacity(PAGE_SIZE);
+        memory.put(11, (byte) 2);
+
+        // then
+        assertThat(snapshot.get(10)).isEqualTo((byte) 1);
+        assertThat(snapshot.get(11)).isZero();
+    }
+
+    @Test(expectedExceptions = ReadOnlyBufferException.class)
+    public void shouldNotWriteToSnapshot() {
+        // given
+        memory.ensureCapacity(PAGE_SIZE);
+        MutableMemory snapshot = (MutableMemory) memory.snapshot();
+
+        // when
+        snapshot.put(0, (byte) 1);
+    }
+}
@@ -0,0 +1,9 @@
+package com.codewise.util.memory;
+
+public class PagedOffHeapMutableMemoryTest extends PagedOffHeapMutableMemoryTestBase<PagedOffHeapMutableMemory> {
+
+    @Override
+    protected PagedOffHeapMutableMemory newMemory(int pageCntGrow, int pageSizeBits, int initialCapacity) {
+        return new PagedOffHeapMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
+    }
+}
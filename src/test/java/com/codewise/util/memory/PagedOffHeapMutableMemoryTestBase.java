@@ -0,0 +1,176 @@
+package com.codewise.util.memory;
+
+import com.codewise.util.lowlevel.MemoryAccess;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+import pl.codewise.test.utils.MethodCall;
+import pl.codewise.test.utils.MethodCallException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.googlecode.catchexception.CatchException.catchException;
+import static com.googlecode.catchexception.CatchException.caughtException;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public abstract class PagedOffHeapMutableMemoryTestBase<M extends AbstractPagedOffHeapMutableMemory> extends MutableMemoryTestBase<M> {
+
+    public static final int PAGE_SIZE = 0x100;
+
+    @Override
+    protected M allocateBuffer(int size) {
+        return newMemory(4, Integer.numberOfTrailingZeros(PAGE_SIZE), size);
+    }
+
+    protected abstract M newMemory(int pageCntGrow, int pageSizeBits, int initialCapacity);
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return MemoryAccess.getByteUnsafe(null, memory.memory[idx / PAGE_SIZE] + idx % PAGE_SIZE);
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        MemoryAccess.setByteUnsafe(null, memory.memory[idx / PAGE_SIZE] + idx % PAGE_SIZE, b);
+    }
+
+    @Test(dataProvider = PUT_METHODS)
+    public void shouldPutOnPagesBoundary(MethodCall<MutableMemory> putMethod, Object value, int typeSize) {
+        for (int bytesOnFirstPage = 1; bytesOnFirstPage < typeSize; bytesOnFirstPage++) {
+            // given
+            memory = allocateBuffer(2 * PAGE_SIZE);
+
+            // when
+            putMethod.call(memory, PAGE_SIZE - bytesOnFirstPage, value);
+
+            // then
+            assertThatMemory(memory)
+                    .startsWith(zeros(PAGE_SIZE - bytesOnFirstPage))
+                    .containsSubsequence(Arrays.copyOfRange(TEST_BYTES, 0, typeSize))
+                    .endsWith(zeros(PAGE_SIZE - typeSize + bytesOnFirstPage));
+        }
+    }
+
+    @Test(dataProvider = GET_METHODS)
+    public void shouldGetFromPagesBoundary(MethodCall<MutableMemory> getMethod, Object expected, int typeSize) {
+        for (int bytesOnFirstPage = 1; bytesOnFirstPage < typeSize; bytesOnFirstPage++) {
+            // given
+            memory = allocateBuffer(2 * PAGE_SIZE);
+            for (int idx = 0; idx < typeSize; idx++) {
+                putByteDirect(PAGE_SIZE - bytesOnFirstPage + idx, TEST_BYTES[idx]);
+            }
+
+            // when
+            Object actual = getMethod.call(memory, PAGE_SIZE - bytesOnFirstPage);
+
+            // then
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test(dataProvider = GET_METHODS)
+    public void shouldUnderflowWhenGetNeedsBytesBeyondCapacity(MethodCall<MutableMemory> getMethod, Object value, int typeSize) {
+        // given
+
+        // when
+        catchException(getMethod, MethodCallException.class).call(memory, PAGE_SIZE - typeSize + 1);
+
+        // then
+        Assertions.assertThat((Throwable) caughtException()).hasCauseInstanceOf(BufferUnderflowException.class);
+    }
+
+    @Test(dataProvider = PUT_METHODS)
+    public void shouldGrowWhenPutTouchesBytesBeyondCapacity(MethodCall<MutableMemory> putMethod, Object value, int typeSize) {
+        // given
+        long firstPage = memory.memory[0];
+
+        // when
+        putMethod.call(memory, PAGE_SIZE, value);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(2 * PAGE_SIZE);
+        assertThat(memory.memory[0]).isEqualTo(firstPage);
+        assertThatMemory(memory)
+                .startsWith(zeros(PAGE_SIZE))
+                .containsSubsequence(Arrays.copyOfRange(TEST_BYTES, 0, typeSize))
+                .endsWith(zeros(PAGE_SIZE - typeSize));
+    }
+
+    @Test
+    public void shouldGrowWhenPutByteArray() {
+        // given
+
+        // when
+        memory.put(PAGE_SIZE - 1, TEST_BYTES, 0, TEST_BYTES.length);
+
+        // then
+        assertThatMemory(memory)
+                .hasSize(2 * PAGE_SIZE)
+                .startsWith(zeros(PAGE_SIZE - 1))
+                .containsSubsequence(TEST_BYTES)
+                .endsWith(zeros(PAGE_SIZE + 1 - TEST_BYTES.length));
+    }
+
+    @Test
+    public void shouldCopyBetweenPagedMemoriesWithDifferentPageSizes() {
+        // given
+        M source = newMemory(4, 4, 3 * PAGE_SIZE);
+        for (int idx = 0; idx < source.capacity(); idx++) {
+            source.put(idx, (byte) idx);
+        }
+
+        // when
+        memory.put(3L, source, 5L, source.capacity() - 5);
+
+        // then
+        assertThat(memory.compare(3L, source, 5L, source.capacity() - 5)).isZero();
+        assertThat(memory.get(3L)).isEqualTo((byte) 5);
+    }
+
+    @Test
+    public void shouldGetIntoDirectBufferAcrossPages() {
+        // given
+        memory.put(PAGE_SIZE - 2, TEST_BYTES, 0, TEST_BYTES.length);
+        ByteBuffer buf = ByteBuffer.allocateDirect(TEST_BYTES.length + 1);
+        buf.position(1);
+
+        // when
+        memory.get(PAGE_SIZE - 2, buf);
+
+        // then
+        byte[] bytes = new byte[TEST_BYTES.length];
+        buf.position(1);
+        buf.get(bytes);
+        assertThat(bytes).isEqualTo(TEST_BYTES);
+    }
+
+    @Test
+    public void shouldCopyFromHeapMemory() {
+        // given
+        MutableMemory source = MemoryType.SAFE.allocatePagedMemory(4, 4, 3 * PAGE_SIZE);
+        for (int idx = 0; idx < source.capacity(); idx++) {
+            source.put(idx, (byte) idx);
+        }
+
+        // when
+        memory.put(3L, source, 5L, source.capacity() - 5);
+
+        // then
+        assertThat(memory.compare(3L, source, 5L, source.capacity() - 5)).isZero();
+        assertThat(memory.get(PAGE_SIZE + 3L)).isEqualTo((byte) (PAGE_SIZE + 5));
+    }
+
+    @Test
+    public void shouldBeEmptyAfterRelease() {
+        // given
+        setUpMemory();
+
+        // when
+        memory.release();
+
+        // then
+        assertThat(memory.capacity()).isZero();
+        assertThat(memory.pageCount).isZero();
+    }
+}
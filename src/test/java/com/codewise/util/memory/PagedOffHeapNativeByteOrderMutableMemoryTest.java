@@ -0,0 +1,16 @@
+package com.codewise.util.memory;
+
+import java.nio.ByteOrder;
+
+public class PagedOffHeapNativeByteOrderMutableMemoryTest extends PagedOffHeapMutableMemoryTestBase<PagedOffHeapNativeByteOrderMutableMemory> {
+
+    @Override
+    protected PagedOffHeapNativeByteOrderMutableMemory newMemory(int pageCntGrow, int pageSizeBits, int initialCapacity) {
+        return new PagedOffHeapNativeByteOrderMutableMemory(pageCntGrow, pageSizeBits, initialCapacity);
+    }
+
+    @Override
+    protected ByteOrder getBufferByteOrder() {
+        return ByteOrder.nativeOrder();
+    }
+}
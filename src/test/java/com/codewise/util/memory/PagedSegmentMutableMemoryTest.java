@@ -0,0 +1,10 @@
+package com.codewise.util.memory;
+
+public class PagedSegmentMutableMemoryTest extends PagedMutableMemoryTestBase<AbstractPagedMutableMemory> {
+
+    @Override
+    protected AbstractPagedMutableMemory newMemory(int pageCntGrow, int pageSizeBits, int initialCapacity) {
+        SegmentMutableMemoryTest.assumeSupported();
+        return (AbstractPagedMutableMemory) MemoryType.SEGMENT.allocatePagedMemory(pageCntGrow, pageSizeBits, initialCapacity);
+    }
+}
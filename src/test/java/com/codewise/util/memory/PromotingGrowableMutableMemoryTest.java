@@ -0,0 +1,85 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PromotingGrowableMutableMemoryTest extends GrowableMutableMemoryTestBase<PromotingGrowableMutableMemory> {
+
+    private static final int PROMOTION_THRESHOLD = 1024;
+    private static final int PAGE_SIZE_BITS = 8;
+
+    @Override
+    protected PromotingGrowableMutableMemory allocateBuffer(int size) {
+        return new PromotingGrowableMutableMemory(MemoryType.UNSAFE, size);
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return memory.getMemoryPageAsByteArray(idx)[memory.getPageOffset(idx)];
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        memory.getMemoryPageAsByteArray(idx)[memory.getPageOffset(idx)] = b;
+    }
+
+    @Test
+    public void shouldStayArrayBelowThreshold() {
+        // given
+        PromotingGrowableMutableMemory memory = new PromotingGrowableMutableMemory(MemoryType.UNSAFE, 8, PROMOTION_THRESHOLD, PAGE_SIZE_BITS);
+
+        // when
+        memory.putLong(PROMOTION_THRESHOLD - Long.BYTES, -1L);
+
+        // then
+        assertThat(memory.isPromoted()).isFalse();
+        assertThat(memory.getLong(PROMOTION_THRESHOLD - Long.BYTES)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void shouldKeepContentWhenPromoted() {
+        // given
+        PromotingGrowableMutableMemory memory = new PromotingGrowableMutableMemory(MemoryType.UNSAFE, 8, PROMOTION_THRESHOLD, PAGE_SIZE_BITS);
+        memory.putLong(0, 0x0102030405060708L);
+        memory.putInt(PROMOTION_THRESHOLD - Integer.BYTES, 0x0A0B0C0D);
+
+        // when
+        memory.putLong(PROMOTION_THRESHOLD - Integer.BYTES + 1, -1L);
+
+        // then
+        assertThat(memory.isPromoted()).isTrue();
+        assertThat(memory.capacity()).isEqualTo(5 << PAGE_SIZE_BITS);
+        assertThat(memory.getLong(0)).isEqualTo(0x0102030405060708L);
+        assertThat(memory.get(PROMOTION_THRESHOLD - Integer.BYTES)).isEqualTo((byte) 0x0A);
+        assertThat(memory.getLong(PROMOTION_THRESHOLD - Integer.BYTES + 1)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void shouldBeCopiedFromAfterPromotion() {
+        // given
+        PromotingGrowableMutableMemory memory = new PromotingGrowableMutableMemory(MemoryType.UNSAFE, 8, PROMOTION_THRESHOLD, PAGE_SIZE_BITS);
+        memory.putLong(2 * PROMOTION_THRESHOLD, 0x0102030405060708L);
+        MutableMemory copy = MemoryType.SAFE.allocateGrowableMemory(0);
+
+        // when
+        copy.put(0, memory, 2 * PROMOTION_THRESHOLD, Long.BYTES);
+
+        // then
+        assertThat(copy.getLong(0)).isEqualTo(0x0102030405060708L);
+    }
+
+    @Test
+    public void shouldStartOverAsArrayAfterRelease() {
+        // given
+        PromotingGrowableMutableMemory memory = new PromotingGrowableMutableMemory(MemoryType.UNSAFE, 8, PROMOTION_THRESHOLD, PAGE_SIZE_BITS);
+        memory.put(2 * PROMOTION_THRESHOLD, (byte) 1);
+
+        // when
+        memory.release();
+
+        // then
+        assertThat(memory.isPromoted()).isFalse();
+        assertThat(memory.capacity()).isZero();
+    }
+}
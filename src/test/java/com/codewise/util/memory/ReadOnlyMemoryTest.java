@@ -0,0 +1,116 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadOnlyMemoryTest {
+
+    @Test
+    public void shouldCopyBytesToNioByteBuffersByDefault() {
+        // given
+        MutableMemory memory = MemoryType.UNSAFE.allocateFixedMemory(100);
+        memory.putLong(20, 0x0102030405060708L);
+        ReadOnlyMemory readOnly = new DelegatingMemory(memory);
+
+        // when
+        ByteBuffer[] buffers = readOnly.asNioByteBuffers(16, 16);
+        memory.putLong(20, 0L);
+
+        // then
+        assertThat(buffers).hasSize(1);
+        assertThat(buffers[0].remaining()).isEqualTo(16);
+        assertThat(buffers[0].getLong(4)).isEqualTo(0x0102030405060708L);
+    }
+
+    @Test
+    public void shouldReturnNoNioByteBuffersForNoBytes() {
+        // given
+        ReadOnlyMemory readOnly = new DelegatingMemory(MemoryType.UNSAFE.allocateFixedMemory(100));
+
+        // when
+        ByteBuffer[] buffers = readOnly.asNioByteBuffers(100, 0);
+
+        // then
+        assertThat(buffers).isEmpty();
+    }
+
+    @Test(expectedExceptions = BufferUnderflowException.class)
+    public void shouldNotCopyBytesBeyondCapacity() {
+        // given
+        ReadOnlyMemory readOnly = new DelegatingMemory(MemoryType.UNSAFE.allocateFixedMemory(100));
+
+        // when
+        readOnly.asNioByteBuffers(90, 11);
+    }
+
+    /**
+     * Implements only what {@link ReadOnlyMemory} requires.
+     */
+    private static class DelegatingMemory implements ReadOnlyMemory {
+
+        private final ReadOnlyMemory memory;
+
+        private DelegatingMemory(ReadOnlyMemory memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public long capacity() {
+            return memory.capacity();
+        }
+
+        @Override
+        public byte get(long index) {
+            return memory.get(index);
+        }
+
+        @Override
+        public char getChar(long index) {
+            return memory.getChar(index);
+        }
+
+        @Override
+        public short getShort(long index) {
+            return memory.getShort(index);
+        }
+
+        @Override
+        public int getInt(long index) {
+            return memory.getInt(index);
+        }
+
+        @Override
+        public long getLong(long index) {
+            return memory.getLong(index);
+        }
+
+        @Override
+        public double getDouble(long index) {
+            return memory.getDouble(index);
+        }
+
+        @Override
+        public void get(long index, byte[] dst, int offset, int length) {
+            memory.get(index, dst, offset, length);
+        }
+
+        @Override
+        public void get(long index, ByteBuffer buf) {
+            memory.get(index, buf);
+        }
+
+        @Override
+        public int compare(long index, ReadOnlyMemory that, long offset, long length) {
+            return memory.compare(index, that, offset, length);
+        }
+
+        @Override
+        public <C> void iterateOverMemory(C consumerInstance, StaticMemoryConsumer<C> consumerMethod, long offset, long length) {
+            memory.iterateOverMemory(consumerInstance, consumerMethod, offset, length);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResizableMemoryTest {
+
+    public static final String MEMORIES = "memories";
+    private static final int PAGE_SIZE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SIZE_BITS;
+
+    @DataProvider(name = MEMORIES)
+    public Object[][] memories() {
+        List<Object[]> memories = new ArrayList<>();
+        for (MemoryType memoryType : MemoryType.values()) {
+            if (memoryType.isSupported()) {
+                memories.add(new Object[]{memoryType.allocateGrowableMemory(8)});
+                memories.add(new Object[]{memoryType.allocatePagedMemory(64, PAGE_SIZE_BITS, 0)});
+            }
+        }
+        return memories.toArray(new Object[0][]);
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldReserveRequestedCapacityAtOnce(ResizableMemory memory) {
+        // when
+        memory.reserve(5000);
+
+        // then
+        assertThat(memory.capacity()).isBetween(5000L, 5000L + PAGE_SIZE);
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldNotShrinkOnReserve(ResizableMemory memory) {
+        // given
+        memory.reserve(5000);
+        long capacity = memory.capacity();
+
+        // when
+        memory.reserve(100);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(capacity);
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldKeepContentWhenTrimming(ResizableMemory memory) {
+        // given
+        memory.putLong(50, 0x0102030405060708L);
+        memory.putLong(4000, -1L);
+
+        // when
+        memory.trimToSize(100);
+
+        // then
+        assertThat(memory.capacity()).isBetween(100L, (long) PAGE_SIZE);
+        assertThat(memory.getLong(50)).isEqualTo(0x0102030405060708L);
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldNotGrowOnTrim(ResizableMemory memory) {
+        // given
+        memory.put(10, (byte) 1);
+        long capacity = memory.capacity();
+
+        // when
+        memory.trimToSize(100_000);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(capacity);
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldReadZerosPastTruncatedSizeAfterGrowing(ResizableMemory memory) {
+        // given
+        memory.put(10, (byte) 1);
+        memory.put(20, (byte) 2);
+        memory.put(4000, (byte) 3);
+
+        // when
+        memory.truncate(15);
+        memory.reserve(5000);
+
+        // then
+        assertThat(memory.get(10)).isEqualTo((byte) 1);
+        assertThat(memory.get(20)).isZero();
+        assertThat(memory.get(4000)).isZero();
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldBeEmptyAfterTruncatingToZero(ResizableMemory memory) {
+        // given
+        memory.putLong(3000, -1L);
+
+        // when
+        memory.truncate(0);
+
+        // then
+        assertThat(memory.capacity()).isZero();
+    }
+
+    @Test
+    public void shouldGivePagesBackToPool() {
+        // given
+        PagePool pagePool = new PagePool(PAGE_SIZE_BITS, 16L * PAGE_SIZE, 0);
+        PagedSafeMutableMemory memory = new PagedSafeMutableMemory(64, PAGE_SIZE_BITS, 8L * PAGE_SIZE, pagePool, false);
+
+        // when
+        memory.trimToSize(3L * PAGE_SIZE - 1);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(3L * PAGE_SIZE);
+        assertThat(pagePool.pooledPages()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldTrimOnlyMaterializedPagesOfSparseMemory() {
+        // given
+        AbstractPagedMutableMemory memory = (AbstractPagedMutableMemory) MemoryType.SAFE.allocateSparsePagedMemory(PAGE_SIZE_BITS, 100L * PAGE_SIZE);
+        memory.put(0, (byte) 1);
+        memory.put(50L * PAGE_SIZE, (byte) 1);
+
+        // when
+        memory.trimToSize(10L * PAGE_SIZE);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(10L * PAGE_SIZE);
+        assertThat(memory.materializedBytes()).isEqualTo(PAGE_SIZE);
+    }
+}
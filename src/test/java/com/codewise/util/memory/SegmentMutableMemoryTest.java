@@ -0,0 +1,84 @@
+package com.codewise.util.memory;
+
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentMutableMemoryTest {
+
+    @DataProvider
+    public Object[][] segmentMemories() {
+        return new Object[][]{
+                {(Supplier<MutableMemory>) () -> MemoryType.SEGMENT.allocateFixedMemory(4096)},
+                {(Supplier<MutableMemory>) () -> MemoryType.SEGMENT.allocateGrowableMemory(16)},
+                {(Supplier<MutableMemory>) () -> MemoryType.SEGMENT.allocatePagedMemory(4, 10, 4096)},
+        };
+    }
+
+    @Test(dataProvider = "segmentMemories")
+    public void shouldBehaveLikeUnsafeMemory(Supplier<MutableMemory> segmentMemory) {
+        // given
+        assumeSupported();
+        MutableMemory memory = segmentMemory.get();
+        MutableMemory expected = MemoryType.UNSAFE.allocateFixedMemory(4096);
+
+        // when
+        for (int idx = 1; idx < 4000; idx += 13) {
+            memory.putLong(idx, idx * 0x0101010101010101L);
+            expected.putLong(idx, idx * 0x0101010101010101L);
+            memory.putInt(idx + 8, -idx);
+            expected.putInt(idx + 8, -idx);
+            memory.put(idx + 12, (byte) idx);
+            expected.put(idx + 12, (byte) idx);
+        }
+
+        // then
+        for (int idx = 0; idx < 4000; idx++) {
+            assertThat(memory.getLong(idx)).isEqualTo(expected.getLong(idx));
+            assertThat(memory.getChar(idx)).isEqualTo(expected.getChar(idx));
+        }
+    }
+
+    @Test(expectedExceptions = BufferUnderflowException.class)
+    public void shouldUnderflowWhenGetBeyondSegment() {
+        // given
+        assumeSupported();
+        MutableMemory memory = MemoryType.SEGMENT.allocateFixedMemory(16);
+
+        // when
+        memory.getLong(12);
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldOverflowWhenPutBeyondFixedSegment() {
+        // given
+        assumeSupported();
+        MutableMemory memory = MemoryType.SEGMENT.allocateFixedMemory(16);
+
+        // when
+        memory.putLong(12, 1L);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void shouldNotAllocateBeforeJava22() {
+        // given
+        if (MemoryType.SEGMENT.isSupported()) {
+            throw new SkipException("MemorySegment based memory is supported");
+        }
+
+        // when
+        MemoryType.SEGMENT.allocateFixedMemory(16);
+    }
+
+    static void assumeSupported() {
+        if (!MemoryType.SEGMENT.isSupported()) {
+            throw new SkipException("MemorySegment based memory needs Java 22");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlabAllocatorTest {
+
+    public static final String MEMORIES = "memories";
+    private static final int SLAB_SIZE_BITS = 8;
+
+    @DataProvider(name = MEMORIES)
+    public Object[][] memories() {
+        return new Object[][]{
+                {MemoryType.SAFE.allocateFixedMemory(1024)},
+                {MemoryType.UNSAFE.allocateFixedMemory(1024)},
+                {Memory.allocateOffHeap(1024)},
+        };
+    }
+
+    @Test
+    public void shouldRoundSizeUpToSizeClass() {
+        // given
+        SlabAllocator allocator = new SlabAllocator(MemoryType.UNSAFE.allocateFixedMemory(1024), SLAB_SIZE_BITS);
+
+        // then
+        assertThat(allocator.sizeClassBlockSize(allocator.sizeClass(1))).isEqualTo(8);
+        assertThat(allocator.sizeClassBlockSize(allocator.sizeClass(17))).isEqualTo(24);
+        assertThat(allocator.sizeClassBlockSize(allocator.sizeClass(33))).isEqualTo(40);
+        assertThat(allocator.sizeClassBlockSize(allocator.sizeClass(65))).isEqualTo(80);
+        assertThat(allocator.sizeClassBlockSize(allocator.sizeClass(256))).isEqualTo(256);
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldReuseFreedBlock(MutableMemory memory) {
+        // given
+        SlabAllocator allocator = new SlabAllocator(memory, SLAB_SIZE_BITS);
+        long first = allocator.allocate(20);
+        long second = allocator.allocate(20);
+
+        // when
+        allocator.free(first);
+        long third = allocator.allocate(17);
+
+        // then
+        assertThat(second).isEqualTo(first + 24);
+        assertThat(third).isEqualTo(first);
+        assertThat(allocator.blockSize(third)).isEqualTo(24);
+        assertThat(allocator.usedBytes()).isEqualTo(48);
+        assertThat(allocator.reservedBytes()).isEqualTo(256);
+    }
+
+    @Test(dataProvider = MEMORIES)
+    public void shouldKeepSizeClassesInSeparateSlabs(MutableMemory memory) {
+        // given
+        SlabAllocator allocator = new SlabAllocator(memory, SLAB_SIZE_BITS);
+
+        // when
+        long small = allocator.allocate(8);
+        long large = allocator.allocate(100);
+        memory.putLong(small, -1L);
+        memory.putLong(large, 1L);
+
+        // then
+        assertThat(large - small).isEqualTo(256);
+        assertThat(memory.getLong(small)).isEqualTo(-1L);
+        assertThat(allocator.fragmentation()).isEqualTo(1.0 - (8 + 112) / 512.0);
+    }
+
+    @Test(dataProvider = MEMORIES, expectedExceptions = BufferOverflowException.class)
+    public void shouldFailWhenAllSlabsAreUsed(MutableMemory memory) {
+        // given
+        SlabAllocator allocator = new SlabAllocator(memory, SLAB_SIZE_BITS);
+        for (int idx = 0; idx < 4; idx++) {
+            allocator.allocate(256);
+        }
+
+        // when
+        allocator.allocate(8);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectMisalignedOffset() {
+        // given
+        SlabAllocator allocator = new SlabAllocator(MemoryType.UNSAFE.allocateFixedMemory(1024), SLAB_SIZE_BITS);
+        long offset = allocator.allocate(16);
+
+        // when
+        allocator.free(offset + 8);
+    }
+}
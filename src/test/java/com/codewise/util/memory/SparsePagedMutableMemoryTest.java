@@ -0,0 +1,73 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SparsePagedMutableMemoryTest {
+
+    public static final String MEMORY_TYPES = "memoryTypes";
+    private static final int PAGE_SIZE_BITS = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SIZE_BITS;
+
+    @DataProvider(name = MEMORY_TYPES)
+    public Object[][] memoryTypes() {
+        return new Object[][]{
+                {MemoryType.SAFE},
+                {MemoryType.UNSAFE},
+                {MemoryType.UNSAFE_NATIVE_BYTE_ORDER},
+        };
+    }
+
+    @Test(dataProvider = MEMORY_TYPES)
+    public void shouldReadZerosWithoutMaterializingPages(MemoryType memoryType) {
+        // given
+        AbstractPagedMutableMemory memory = (AbstractPagedMutableMemory) memoryType.allocateSparsePagedMemory(PAGE_SIZE_BITS, 1L << 30);
+
+        // when
+        long value = memory.getLong(123_456_789);
+
+        // then
+        assertThat(value).isZero();
+        assertThat(memory.capacity()).isEqualTo(1L << 30);
+        assertThat(memory.materializedBytes()).isZero();
+    }
+
+    @Test(dataProvider = MEMORY_TYPES)
+    public void shouldMaterializeOnlyWrittenPages(MemoryType memoryType) {
+        // given
+        AbstractPagedMutableMemory memory = (AbstractPagedMutableMemory) memoryType.allocateSparsePagedMemory(PAGE_SIZE_BITS, 1L << 30);
+
+        // when
+        memory.putLong(PAGE_SIZE - 4, -1L);
+        memory.put(100L * PAGE_SIZE, (byte) 1);
+        memory.put(100L * PAGE_SIZE + 1, new byte[]{2, 3}, 0, 2);
+
+        // then
+        assertThat(memory.materializedBytes()).isEqualTo(3 * PAGE_SIZE);
+        assertThat(memory.getLong(PAGE_SIZE - 4)).isEqualTo(-1L);
+        assertThat(memory.get(100L * PAGE_SIZE + 1)).isEqualTo((byte) 2);
+        assertThat(memory.get(100L * PAGE_SIZE + 2)).isEqualTo((byte) 3);
+        assertThat(memory.getLong(50L * PAGE_SIZE)).isZero();
+        assertThat(PagePool.shared(PAGE_SIZE_BITS).zeroPage()).containsOnly((byte) 0);
+    }
+
+    @Test(dataProvider = MEMORY_TYPES)
+    public void shouldGrowWithoutMaterializingPages(MemoryType memoryType) {
+        // given
+        AbstractPagedMutableMemory memory = (AbstractPagedMutableMemory) memoryType.allocateSparsePagedMemory(PAGE_SIZE_BITS, 0);
+
+        // when
+        memory.put(10L * PAGE_SIZE, (byte) 1);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(11 * PAGE_SIZE);
+        assertThat(memory.materializedBytes()).isEqualTo(PAGE_SIZE);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void shouldNotSupportOffHeapMemory() {
+        MemoryType.OFF_HEAP.allocateSparsePagedMemory(PAGE_SIZE_BITS, 0);
+    }
+}
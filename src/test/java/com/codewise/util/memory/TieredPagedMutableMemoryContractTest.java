@@ -0,0 +1,86 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Paged memory contract with only two resident pages, so most tests spill and fault pages back in.
+ */
+public class TieredPagedMutableMemoryContractTest extends PagedMutableMemoryTestBase<TieredPagedMutableMemory> {
+
+    private static final int MAX_RESIDENT_PAGES = 2;
+
+    private final List<TieredPagedMutableMemory> memories = new ArrayList<>();
+    private final List<Path> spillFiles = new ArrayList<>();
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown() throws IOException {
+        for (TieredPagedMutableMemory memory : memories) {
+            memory.close();
+        }
+        memories.clear();
+        for (Path spillFile : spillFiles) {
+            Files.deleteIfExists(spillFile);
+        }
+        spillFiles.clear();
+    }
+
+    @Override
+    protected TieredPagedMutableMemory newMemory(int pageCntGrow, int pageSizeBits, int initialCapacity) {
+        try {
+            Path spillFile = Files.createTempFile("spill", ".bin");
+            spillFiles.add(spillFile);
+            TieredPagedMutableMemory memory = new TieredPagedMutableMemory(pageSizeBits, MAX_RESIDENT_PAGES, spillFile);
+            memories.add(memory);
+            memory.ensureCapacity(initialCapacity);
+            return memory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return memory.getMemoryPageAsByteArray(idx)[idx % PAGE_SIZE];
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        memory.ensureWritable(idx, Byte.BYTES);
+        memory.memory[idx / PAGE_SIZE][idx % PAGE_SIZE] = b;
+    }
+
+    /**
+     * Snapshots aren't supported, see {@link AbstractPagedMutableMemory#snapshot()}.
+     */
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    @Override
+    public void shouldShareAllPagesWithSnapshot() {
+        super.shouldShareAllPagesWithSnapshot();
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    @Override
+    public void shouldCopyOnlyPagesWrittenAfterSnapshot() {
+        super.shouldCopyOnlyPagesWrittenAfterSnapshot();
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    @Override
+    public void shouldKeepSnapshotContentAfterReset() {
+        super.shouldKeepSnapshotContentAfterReset();
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    @Override
+    public void shouldNotWriteToSnapshot() {
+        super.shouldNotWriteToSnapshot();
+    }
+}
@@ -0,0 +1,144 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TieredPagedMutableMemoryTest {
+
+    private static final int PAGE_SIZE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_SIZE_BITS;
+    private static final int MAX_RESIDENT_PAGES = 4;
+
+    private Path spillFile;
+    private TieredPagedMutableMemory memory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        spillFile = Files.createTempFile("spill", ".bin");
+        memory = TieredPagedMutableMemory.spillingTo(spillFile, PAGE_SIZE_BITS, MAX_RESIDENT_PAGES * PAGE_SIZE);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        memory.close();
+        Files.deleteIfExists(spillFile);
+    }
+
+    @Test
+    public void shouldKeepResidentPagesBounded() {
+        // when
+        for (long idx = 0; idx < 64 * PAGE_SIZE; idx += Long.BYTES) {
+            memory.putLong(idx, idx);
+        }
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(64 * PAGE_SIZE);
+        assertThat(memory.residentBytes()).isEqualTo(MAX_RESIDENT_PAGES * PAGE_SIZE);
+        assertThat(memory.spills()).isEqualTo(64 - MAX_RESIDENT_PAGES);
+        assertThat(memory.faults()).isZero();
+    }
+
+    @Test
+    public void shouldFaultSpilledPagesBackIn() {
+        // given
+        for (long idx = 0; idx < 64 * PAGE_SIZE; idx += Long.BYTES) {
+            memory.putLong(idx, idx);
+        }
+
+        // when
+        for (long idx = 0; idx < 64 * PAGE_SIZE; idx += Long.BYTES) {
+            assertThat(memory.getLong(idx)).isEqualTo(idx);
+        }
+
+        // then
+        assertThat(memory.faults()).isEqualTo(64);
+        assertThat(memory.spills()).isEqualTo(64);
+        assertThat(memory.residentBytes()).isEqualTo(MAX_RESIDENT_PAGES * PAGE_SIZE);
+    }
+
+    @Test
+    public void shouldNotSpillPagesOnlyCopiedFrom() {
+        // given
+        for (long idx = 0; idx < 64 * PAGE_SIZE; idx += Long.BYTES) {
+            memory.putLong(idx, idx);
+        }
+        byte[] content = new byte[64 * PAGE_SIZE];
+
+        // when
+        memory.get(0, content, 0, content.length);
+        memory.get(0, content, 0, content.length);
+
+        // then
+        assertThat(memory.spills()).isEqualTo(64);
+        assertThat(memory.faults()).isEqualTo(2 * 64);
+    }
+
+    @Test
+    public void shouldKeepBulkWriteWiderThanResidentPages() {
+        // given
+        byte[] src = new byte[16 * PAGE_SIZE];
+        for (int idx = 0; idx < src.length; idx++) {
+            src[idx] = (byte) (idx / PAGE_SIZE + 1);
+        }
+        memory.put(0, new byte[16 * PAGE_SIZE], 0, 16 * PAGE_SIZE);
+
+        // when
+        memory.put(0, src, 0, src.length);
+
+        // then
+        byte[] content = new byte[src.length];
+        memory.get(0, content, 0, content.length);
+        assertThat(content).isEqualTo(src);
+    }
+
+    @Test
+    public void shouldReadValuesSpanningSpilledPages() {
+        // given
+        memory.putLong(PAGE_SIZE - 3, 0x0102030405060708L);
+        for (int page = 2; page < 10; page++) {
+            memory.put((long) page * PAGE_SIZE, (byte) page);
+        }
+
+        // when
+        long value = memory.getLong(PAGE_SIZE - 3);
+
+        // then
+        assertThat(value).isEqualTo(0x0102030405060708L);
+        assertThat(memory.faults()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotMaterializePagesOnlyRead() {
+        // given
+        memory.put(100L * PAGE_SIZE, (byte) 1);
+
+        // when
+        long value = memory.getLong(50L * PAGE_SIZE);
+
+        // then
+        assertThat(value).isZero();
+        assertThat(memory.materializedBytes()).isEqualTo(PAGE_SIZE);
+    }
+
+    @Test
+    public void shouldDeleteSpillFileOnClose() {
+        // given
+        for (long idx = 0; idx < 16 * PAGE_SIZE; idx += PAGE_SIZE) {
+            memory.put(idx, (byte) 1);
+        }
+
+        // when
+        memory.close();
+
+        // then
+        assertThat(spillFile).doesNotExist();
+        assertThat(memory.capacity()).isZero();
+    }
+}
@@ -0,0 +1,89 @@
+package com.codewise.util.memory;
+
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TwoLevelPagedUnsafeMutableMemoryTest extends MutableMemoryTestBase<TwoLevelPagedUnsafeMutableMemory> {
+
+    private static final int PAGE_SIZE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_SIZE_BITS;
+    private static final int LEAF_SIZE_BITS = 2;
+    private static final long MAX_CAPACITY = 1024 * PAGE_SIZE;
+
+    @Override
+    protected TwoLevelPagedUnsafeMutableMemory allocateBuffer(int size) {
+        return TwoLevelPagedUnsafeMutableMemory.allocate(PAGE_SIZE_BITS, LEAF_SIZE_BITS, size, MAX_CAPACITY);
+    }
+
+    @Override
+    protected byte getByteDirect(int idx) {
+        return memory.directory[idx >>> (PAGE_SIZE_BITS + LEAF_SIZE_BITS)][(idx >>> PAGE_SIZE_BITS) & 3][idx % PAGE_SIZE];
+    }
+
+    @Override
+    protected void putByteDirect(int idx, byte b) {
+        memory.directory[idx >>> (PAGE_SIZE_BITS + LEAF_SIZE_BITS)][(idx >>> PAGE_SIZE_BITS) & 3][idx % PAGE_SIZE] = b;
+    }
+
+    @Test
+    public void shouldNotCopyTablesWhenGrowing() {
+        // given
+        TwoLevelPagedUnsafeMutableMemory memory = allocateBuffer(4 * PAGE_SIZE);
+        byte[][][] directory = memory.directory;
+        byte[][] firstLeaf = memory.directory[0];
+
+        // when
+        memory.putLong(100L * PAGE_SIZE - 8, 0x0102030405060708L);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(100L * PAGE_SIZE);
+        assertThat(memory.directory).isSameAs(directory).hasSize(1024 >>> LEAF_SIZE_BITS);
+        assertThat(memory.directory[0]).isSameAs(firstLeaf);
+        assertThat(memory.getLong(100L * PAGE_SIZE - 8)).isEqualTo(0x0102030405060708L);
+    }
+
+    @Test
+    public void shouldAccessValuesSpanningLeaves() {
+        // given
+        TwoLevelPagedUnsafeMutableMemory memory = allocateBuffer(16 * PAGE_SIZE);
+        long leafEnd = 4L * PAGE_SIZE;
+
+        // when
+        memory.putLong(leafEnd - 3, 0x0102030405060708L);
+        memory.putInt(2 * leafEnd - 1, 0x0A0B0C0D);
+        memory.putShort(3 * leafEnd - 1, (short) 0x1122);
+
+        // then
+        assertThat(memory.getLong(leafEnd - 3)).isEqualTo(0x0102030405060708L);
+        assertThat(memory.get(leafEnd)).isEqualTo((byte) 0x04);
+        assertThat(memory.getInt(2 * leafEnd - 1)).isEqualTo(0x0A0B0C0D);
+        assertThat(memory.getShort(3 * leafEnd - 1)).isEqualTo((short) 0x1122);
+    }
+
+    @Test
+    public void shouldGrowWithZeroedPagesAfterReset() {
+        // given
+        TwoLevelPagedUnsafeMutableMemory memory = allocateBuffer(8 * PAGE_SIZE);
+        memory.putLong(5 * PAGE_SIZE, -1L);
+
+        // when
+        memory.reset();
+        memory.put(8 * PAGE_SIZE - 1, (byte) 0);
+
+        // then
+        assertThat(memory.capacity()).isEqualTo(8 * PAGE_SIZE);
+        assertThat(memory.getLong(5 * PAGE_SIZE)).isZero();
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void shouldNotGrowBeyondMaxCapacity() {
+        // given
+        TwoLevelPagedUnsafeMutableMemory memory = allocateBuffer(PAGE_SIZE);
+
+        // when
+        memory.putShort(MAX_CAPACITY - 1, (short) 1);
+    }
+}
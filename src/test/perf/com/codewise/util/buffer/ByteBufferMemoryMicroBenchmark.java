@@ -19,7 +19,7 @@ public class ByteBufferMemoryMicroBenchmark {
     public static final int MEMORY_SIZE = 1024;
 
     public enum MemoryType {
-        NIO, FIXED, GROWABLE, PAGED
+        NIO, FIXED, GROWABLE, PAGED, SEGMENT
     }
 
     public enum AccessType {
@@ -142,7 +142,7 @@ public class ByteBufferMemoryMicroBenchmark {
     @State(Scope.Thread)
     public static class ByteBufferMemoryBenchmarkState {
 
-        @Param({"FIXED", "GROWABLE", "PAGED"})
+        @Param({"FIXED", "GROWABLE", "PAGED", "SEGMENT"})
 //        @Param({"PAGED"})
         public MemoryType memoryType;
         @Param({"SAFE", "UNSAFE"})
@@ -176,6 +176,10 @@ public class ByteBufferMemoryMicroBenchmark {
                             new PagedUnsafeMutableMemory(4, Integer.numberOfTrailingZeros(MEMORY_SIZE), MEMORY_SIZE * 2) {
                             };
                     break;
+                case SEGMENT:
+                    // needs Java 22, access type doesn't apply
+                    memory = com.codewise.util.memory.MemoryType.SEGMENT.allocateFixedMemory(MEMORY_SIZE * 2);
+                    break;
             }
         }
 